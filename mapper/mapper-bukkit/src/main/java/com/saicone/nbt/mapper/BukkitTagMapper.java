@@ -792,6 +792,12 @@ public class BukkitTagMapper implements TagMapper<Object> {
         return TagType.getType(typeId(object));
     }
 
+    @Override
+    public boolean isClassTyped() {
+        // Every tag class return the same id
+        return true;
+    }
+
     @Override
     public byte typeId(@Nullable Object object) {
         if (object == null) {
@@ -73,12 +73,12 @@ public class TagWrapper<A, B> extends TypeWrapper<A, B> {
     @Override
     @SuppressWarnings("unchecked")
     public B wrap(Object object) {
-        return mapperB.parse(mapperA.deepExtract((A) object));
+        return mapperB.convert(mapperA, (A) object);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public A unwrap(Object object) {
-        return mapperA.parse(mapperB.deepExtract((B) object));
+        return mapperA.convert(mapperB, (B) object);
     }
 }
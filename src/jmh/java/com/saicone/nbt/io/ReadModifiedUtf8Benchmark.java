@@ -0,0 +1,62 @@
+package com.saicone.nbt.io;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ReadModifiedUtf8Benchmark {
+
+    @Param({ "minecraft:diamond_sword", "{\"text\":\"A sword forged in the depths of the nether\",\"color\":\"gold\"}", "Espada de diamante ñandú ⚔" })
+    private String text;
+
+    private byte[] encoded;
+    private byte[] data;
+
+    @Setup
+    public void setup() throws IOException {
+        encoded = ModifiedUtf8.encode(text);
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(); DataOutputStream output = new DataOutputStream(out)) {
+            output.writeUTF(text);
+            data = out.toByteArray();
+        }
+    }
+
+    @Benchmark
+    public void dataInput(Blackhole bh) throws IOException {
+        bh.consume(new DataInputStream(new ByteArrayInputStream(data)).readUTF());
+    }
+
+    @Benchmark
+    public void standardCharset(Blackhole bh) {
+        bh.consume(new String(encoded, 0, encoded.length, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public void modifiedUtf8(Blackhole bh) throws IOException {
+        bh.consume(ModifiedUtf8.decode(encoded, 0, encoded.length));
+    }
+
+    @Benchmark
+    public void encodeStandardCharset(Blackhole bh) {
+        bh.consume(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public void encodeModifiedUtf8(Blackhole bh) {
+        bh.consume(ModifiedUtf8.encode(text));
+    }
+}
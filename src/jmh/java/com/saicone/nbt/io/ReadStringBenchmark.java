@@ -0,0 +1,59 @@
+package com.saicone.nbt.io;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ReadStringBenchmark {
+
+    private String snbt;
+    private String longArray;
+
+    @Setup
+    public void setup() {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 10000; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append("{id:\"minecraft:diamond_sword\",Count:1b,tag:{display:{Name:'{\"text\":\"Sword ").append(i).append("\"}',Lore:['line 1','line 2']},Damage:").append(i % 1561).append(",Enchantments:[{id:\"minecraft:sharpness\",lvl:5s}]}}");
+        }
+        snbt = builder.append("]").toString();
+
+        final StringBuilder array = new StringBuilder("[L;");
+        for (int i = 0; i < 10000; i++) {
+            array.append(i > 0 ? ", " : "").append((long) i * 0x9E3779B97F4AL).append('L');
+        }
+        longArray = array.append("]").toString();
+    }
+
+    @Benchmark
+    public void readString(Blackhole bh) throws IOException {
+        try (TagReader<Object> reader = TagReader.of(snbt)) {
+            bh.consume(reader.<Object>readTag());
+        }
+    }
+
+    @Benchmark
+    public void readReader(Blackhole bh) throws IOException {
+        try (TagReader<Object> reader = TagReader.of(new StringReader(snbt))) {
+            bh.consume(reader.<Object>readTag());
+        }
+    }
+
+    @Benchmark
+    public void readLongArray(Blackhole bh) throws IOException {
+        try (TagReader<Object> reader = TagReader.of(longArray)) {
+            bh.consume(reader.<Object>readTag());
+        }
+    }
+}
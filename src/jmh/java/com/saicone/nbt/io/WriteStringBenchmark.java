@@ -0,0 +1,54 @@
+package com.saicone.nbt.io;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class WriteStringBenchmark {
+
+    private Object tag;
+
+    @Setup
+    public void setup() {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 10000; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append("{id:\"minecraft:diamond_sword\",Count:1b,tag:{display:{Name:'{\"text\":\"Sword ").append(i).append("\"}',Lore:['line 1','line 2']},Damage:").append(i % 1561).append(",Seed:[L;").append((long) i * 0x9E3779B97F4AL).append("L],Enchantments:[{id:\"minecraft:sharpness\",lvl:5s}]}}");
+        }
+        tag = TagReader.fromString(builder.append("]").toString());
+    }
+
+    @Benchmark
+    public void writeAsyncString(Blackhole bh) throws IOException {
+        try (AsyncStringWriter writer = new AsyncStringWriter(); TagWriter<Object> tagWriter = TagWriter.of(writer)) {
+            tagWriter.writeTag(tag);
+            bh.consume(writer.toString());
+        }
+    }
+
+    @Benchmark
+    public void writeCharBuffer(Blackhole bh) throws IOException {
+        try (CharBufferWriter writer = new CharBufferWriter(); TagWriter<Object> tagWriter = TagWriter.of(writer)) {
+            tagWriter.writeTag(tag);
+            bh.consume(writer.toString());
+        }
+    }
+
+    @Benchmark
+    public void writeBytes(Blackhole bh) throws IOException {
+        try (TagWriter<Object> tagWriter = TagWriter.of(OutputStream.nullOutputStream())) {
+            tagWriter.writeTag(tag);
+        }
+    }
+}
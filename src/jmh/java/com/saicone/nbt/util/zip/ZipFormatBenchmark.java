@@ -0,0 +1,142 @@
+package com.saicone.nbt.util.zip;
+
+import com.saicone.nbt.io.TagOutput;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ZipFormatBenchmark {
+
+    @Param({ "fast", "default", "max", "filtered" })
+    private String profile;
+
+    @Param({ "chunk", "synthetic" })
+    private String source;
+
+    private ZipFormat format;
+    private byte[] data;
+    private byte[] compressed;
+
+    // Uncompressed chunk compound in vanilla 1.21 layout, with packed block states, biomes, light and heightmaps
+    private static byte[] chunk() throws IOException {
+        try (InputStream in = ZipFormatBenchmark.class.getResourceAsStream("/chunk.nbt")) {
+            if (in == null) {
+                throw new IOException("Cannot find chunk.nbt resource");
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    // Chunk-like compound with block palettes, packed block states and heightmaps
+    private static Map<String, Object> synthetic() {
+        final Random random = new Random(8);
+        final String[] blocks = { "minecraft:stone", "minecraft:dirt", "minecraft:grass_block", "minecraft:air", "minecraft:deepslate", "minecraft:water" };
+        final List<Object> sections = new ArrayList<>();
+        for (int y = -4; y < 20; y++) {
+            final List<Object> palette = new ArrayList<>();
+            final int size = 1 + random.nextInt(blocks.length);
+            for (int i = 0; i < size; i++) {
+                palette.add(Map.of("Name", blocks[i]));
+            }
+            final long[] states = new long[256];
+            for (int i = 0; i < states.length; i++) {
+                // Mostly repeated blocks, like real terrain
+                states[i] = random.nextInt(8) == 0 ? random.nextLong() : 0x1111111111111111L * (y & 3);
+            }
+            final Map<String, Object> section = new HashMap<>();
+            section.put("Y", (byte) y);
+            section.put("block_states", Map.of("palette", palette, "data", states));
+            section.put("biomes", Map.of("palette", List.of("minecraft:plains")));
+            section.put("BlockLight", new byte[2048]);
+            sections.add(section);
+        }
+        final long[] heightmap = new long[37];
+        for (int i = 0; i < heightmap.length; i++) {
+            heightmap[i] = 0x2040810204081L * 64;
+        }
+        final Map<String, Object> chunk = new HashMap<>();
+        chunk.put("DataVersion", 3955);
+        chunk.put("xPos", 12);
+        chunk.put("zPos", -7);
+        chunk.put("Status", "minecraft:full");
+        chunk.put("LastUpdate", 1234567L);
+        chunk.put("sections", sections);
+        chunk.put("Heightmaps", Map.of("MOTION_BLOCKING", heightmap, "WORLD_SURFACE", heightmap));
+        chunk.put("block_entities", List.of());
+        return chunk;
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        switch (profile) {
+            case "fast":
+                format = ZipFormat.Zlib.FAST;
+                break;
+            case "max":
+                format = ZipFormat.Zlib.MAX;
+                break;
+            case "filtered":
+                format = ZipFormat.zlib(Deflater.DEFAULT_COMPRESSION, Deflater.FILTERED, ZipFormat.DEFAULT_BUFFER_SIZE);
+                break;
+            default:
+                format = ZipFormat.zlib();
+                break;
+        }
+        if (source.equals("synthetic")) {
+            try (ByteArrayOutputStream out = new ByteArrayOutputStream(); TagOutput<Object> output = TagOutput.of(new DataOutputStream(out))) {
+                output.writeUnnamed(synthetic());
+                data = out.toByteArray();
+            }
+        } else {
+            data = chunk();
+        }
+        compressed = format.compress(data);
+    }
+
+    // Compression ratio is reported as rawBytes / compressedBytes
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Sizes {
+        public long rawBytes;
+        public long compressedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rawBytes = 0;
+            compressedBytes = 0;
+        }
+    }
+
+    @Benchmark
+    public void compress(Blackhole bh, Sizes sizes) throws IOException {
+        final byte[] bytes = format.compress(data);
+        sizes.rawBytes += data.length;
+        sizes.compressedBytes += bytes.length;
+        bh.consume(bytes);
+    }
+
+    @Benchmark
+    public void decompress(Blackhole bh) throws IOException {
+        bh.consume(format.decompress(compressed));
+    }
+}
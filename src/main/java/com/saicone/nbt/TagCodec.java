@@ -0,0 +1,177 @@
+package com.saicone.nbt;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * <b>Tag Codec</b><br>
+ * A tag codec is a compiled view of {@link TagMapper} that is used by readers and writers
+ * to resolve tag types and values with the smallest amount of dispatch per tag.<br>
+ * If the mapper declares that its tag types only depend on object class, the resolved
+ * tag type of every class is cached, so the mapper type detection is executed once per class.
+ * The codec of every mapper instance is created once and reused across readers and writers.
+ *
+ * @author Rubenicos
+ *
+ * @param <T> the tag object implementation.
+ */
+public final class TagCodec<T> {
+
+    private static final ClassValue<Holder> CODECS = new ClassValue<>() {
+        @Override
+        protected Holder computeValue(Class<?> type) {
+            return new Holder();
+        }
+    };
+    private static final TagCodec<Object> DEFAULT = new TagCodec<>(TagMapper.DEFAULT);
+
+    /**
+     * Get the codec of provided mapper.
+     *
+     * @param mapper the mapper for tag object implementation.
+     * @return       a tag codec associated with mapper.
+     * @param <T>    the tag object implementation.
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static <T> TagCodec<T> of(@NotNull TagMapper<T> mapper) {
+        if (mapper == (Object) TagMapper.DEFAULT) {
+            return (TagCodec<T>) DEFAULT;
+        }
+        final Holder holder = CODECS.get(mapper.getClass());
+        final TagCodec<?> codec = holder.codec;
+        if (codec != null && codec.mapper == mapper) {
+            return (TagCodec<T>) codec;
+        }
+        return (TagCodec<T>) holder.get(mapper);
+    }
+
+    private final TagMapper<T> mapper;
+    private final boolean identity;
+    private final ClassValue<Plan> plans;
+
+    private TagCodec(@NotNull TagMapper<T> mapper) {
+        this.mapper = mapper;
+        this.identity = mapper == (Object) TagMapper.DEFAULT;
+        if (mapper.isClassTyped()) {
+            this.plans = new ClassValue<>() {
+                @Override
+                protected Plan computeValue(Class<?> type) {
+                    final boolean boxedArray = type == Byte[].class || type == Boolean[].class || type == Integer[].class || type == Long[].class;
+                    return new Plan(identity ? TagType.getType(type) : null, identity && !boxedArray);
+                }
+            };
+        } else {
+            this.plans = null;
+        }
+    }
+
+    /**
+     * Get the mapper associated with this codec.
+     *
+     * @return a tag mapper.
+     */
+    @NotNull
+    public TagMapper<T> mapper() {
+        return mapper;
+    }
+
+    /**
+     * Get a {@link TagType} that represents the tag object implementation.
+     *
+     * @param t   the tag object.
+     * @return    a {@link TagType} that represents the tag object.
+     * @param <A> the type of java object represented by NBT value.
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public <A> TagType<A> type(@Nullable T t) {
+        if (t == null || plans == null) {
+            return mapper.type(t);
+        }
+        final Plan plan = plans.get(t.getClass());
+        TagType<?> type = plan.type;
+        if (type == null) {
+            // Resolved with the first seen object of this class
+            type = mapper.type(t);
+            plan.type = type;
+        }
+        return (TagType<A>) type;
+    }
+
+    /**
+     * Extracts the inner value that tag object implementation contains.
+     *
+     * @param t the tag object.
+     * @return  a java value that was represented from tag object.
+     */
+    @Nullable
+    public Object extract(@Nullable T t) {
+        if (t == null) {
+            return null;
+        }
+        if (plans != null && plans.get(t.getClass()).identity) {
+            return t;
+        }
+        return mapper.extract(t);
+    }
+
+    /**
+     * Create an unchecked tag object from its value represented as java object.
+     *
+     * @param type   the type of tag that will be converted.
+     * @param object the object value to convert.
+     * @return       an unchecked tag object containing the object value.
+     * @param <A>    the implementation of tag object.
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends T> A build(@NotNull TagType<?> type, @Nullable Object object) {
+        if (identity) {
+            return (A) object;
+        }
+        return mapper.buildAny(type, object);
+    }
+
+    private static final class Holder {
+
+        private volatile TagCodec<?> codec;
+        // Only created when multiple instances of the same mapper class are used
+        // Codecs keep a strong reference to its mapper, so a soft reference is used to let the mapper key be collected
+        private Map<TagMapper<?>, SoftReference<TagCodec<?>>> instances;
+
+        @NotNull
+        private synchronized TagCodec<?> get(@NotNull TagMapper<?> mapper) {
+            if (codec == null) {
+                codec = new TagCodec<>(mapper);
+                return codec;
+            } else if (codec.mapper == mapper) {
+                return codec;
+            }
+            if (instances == null) {
+                instances = new WeakHashMap<>();
+            }
+            final SoftReference<TagCodec<?>> reference = instances.get(mapper);
+            TagCodec<?> cached = reference == null ? null : reference.get();
+            if (cached == null) {
+                cached = new TagCodec<>(mapper);
+                instances.put(mapper, new SoftReference<>(cached));
+            }
+            return cached;
+        }
+    }
+
+    private static final class Plan {
+
+        private volatile TagType<?> type;
+        private final boolean identity;
+
+        Plan(@Nullable TagType<?> type, boolean identity) {
+            this.type = type;
+            this.identity = identity;
+        }
+    }
+}
@@ -227,6 +227,47 @@ public interface TagMapper<T> {
         }
     }
 
+    /**
+     * Convert a tag object from other tag mapper into this mapper implementation in a single pass.<br>
+     * Unlike {@code parse(from.deepExtract(object))}, this method doesn't create an intermediate
+     * copy of the whole tree, it builds every list and compound directly with converted elements
+     * while leaf values are reused as they were extracted.
+     *
+     * @param from   the mapper of provided tag object.
+     * @param object the tag object to convert.
+     * @return       a tag object of this mapper implementation.
+     * @param <A>    the source tag object implementation.
+     */
+    @SuppressWarnings("unchecked")
+    default <A> T convert(@NotNull TagMapper<A> from, @Nullable A object) {
+        if (from == this) {
+            return object == null ? build(TagType.END, null) : copy((T) object);
+        }
+        return convert(TagCodec.of(from), object);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <A> T convert(@NotNull TagCodec<A> from, @Nullable A object) {
+        final TagType<?> type = from.type(object);
+        final Object value = from.extract(object);
+        if (type == TagType.LIST) {
+            final List<A> list = (List<A>) value;
+            final List<T> result = new ArrayList<>(list.size());
+            for (A element : list) {
+                result.add(convert(from, element));
+            }
+            return build(type, result);
+        } else if (type == TagType.COMPOUND) {
+            final Map<String, A> map = (Map<String, A>) value;
+            final Map<String, T> result = new HashMap<>((int) (map.size() / 0.75f) + 1);
+            for (Map.Entry<String, A> entry : map.entrySet()) {
+                result.put(entry.getKey(), convert(from, entry.getValue()));
+            }
+            return build(type, result);
+        }
+        return build(type, value);
+    }
+
     /**
      * Copy the provided tag object and any of its elements.
      *
@@ -356,6 +397,16 @@ public interface TagMapper<T> {
         }
     }
 
+    /**
+     * Check if the tag type of any tag object implementation only depends on its class, in that
+     * case the resolved type of every class can be cached by {@link TagCodec}.
+     *
+     * @return true if tag objects of the same class always have the same tag type.
+     */
+    default boolean isClassTyped() {
+        return this == DEFAULT;
+    }
+
     /**
      * Get the type id of tag object implementation.
      *
@@ -0,0 +1,95 @@
+package com.saicone.nbt;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <b>Tag Selector</b><br>
+ * A tag selector represents a set of compound paths that should be decoded, any other
+ * compound entry will be skipped without creating any tag object.<br>
+ * Paths are separated by dots and lists are transparent, so every element inside a
+ * list is selected using the same path, for example {@code Level.Sections[].BlockStates}
+ * and {@code Level.Sections.BlockStates} are the same path.<br>
+ * Selecting a path will also select every nested value inside the last path key.
+ *
+ * @author Rubenicos
+ */
+public class TagSelector {
+
+    private final Map<String, TagSelector> children = new HashMap<>();
+    private boolean full = false;
+
+    /**
+     * Create a tag selector with provided paths.
+     *
+     * @param paths the paths to select.
+     * @return      a newly generated tag selector.
+     */
+    @NotNull
+    public static TagSelector of(@NotNull String... paths) {
+        final TagSelector selector = new TagSelector();
+        for (String path : paths) {
+            selector.select(path);
+        }
+        return selector;
+    }
+
+    /**
+     * Add a path into this selector.
+     *
+     * @param path the path to select.
+     * @return     this instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TagSelector select(@NotNull String path) {
+        TagSelector node = this;
+        for (String key : path.split("\\.")) {
+            if (key.endsWith("[]")) {
+                key = key.substring(0, key.length() - 2);
+            }
+            if (key.isEmpty()) {
+                continue;
+            }
+            node = node.children.computeIfAbsent(key, k -> new TagSelector());
+        }
+        node.full = true;
+        return this;
+    }
+
+    /**
+     * Check if this selector select every nested value.
+     *
+     * @return true if the full value is selected.
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Get the selected keys by this selector.
+     *
+     * @return a set of compound keys.
+     */
+    @NotNull
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(children.keySet());
+    }
+
+    /**
+     * Get the selector of provided compound key.
+     *
+     * @param key the compound key.
+     * @return    a tag selector, null if the key is not selected.
+     */
+    @Nullable
+    public TagSelector get(@NotNull String key) {
+        return full ? this : children.get(key);
+    }
+}
@@ -0,0 +1,378 @@
+package com.saicone.nbt.io;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A non-synchronized character stream that appends into a reusable {@code char[]}, made to be used as the
+ * sink of {@link TagWriter}.<br>
+ * Unlike {@link AsyncStringWriter} numbers can be appended without creating an intermediate string and,
+ * if an {@link OutputStream} is provided, every full buffer is encoded as UTF-8 bytes directly into the
+ * stream instead of growing the buffer.<br>
+ * Same as {@link java.io.StringWriter}, closing this implementation without an output stream has no effect.
+ *
+ * @author Rubenicos
+ */
+public class CharBufferWriter extends Writer {
+
+    private static final int DEFAULT_BUFFER_SIZE = 256;
+    // Maximum chars required by a long value, including sign
+    private static final int MAX_LONG_SIZE = 20;
+
+    private final OutputStream output;
+
+    private char[] buffer;
+    private int count;
+    private byte[] bytes;
+
+    /**
+     * Constructs a char buffer writer with default buffer size.
+     */
+    public CharBufferWriter() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a char buffer writer with provided initial buffer size.
+     *
+     * @param size the initial buffer size.
+     */
+    public CharBufferWriter(int size) {
+        this(null, size);
+    }
+
+    /**
+     * Constructs a char buffer writer that emit UTF-8 bytes into provided {@link OutputStream}.
+     *
+     * @param output the output stream to write bytes.
+     */
+    public CharBufferWriter(@NotNull OutputStream output) {
+        this(output, 8192);
+    }
+
+    /**
+     * Constructs a char buffer writer with provided {@link OutputStream} and buffer size.
+     *
+     * @param output the output stream to write bytes, null to only append characters into buffer.
+     * @param size   the buffer size, this is the initial size if output stream is not provided.
+     */
+    public CharBufferWriter(@Nullable OutputStream output, int size) {
+        if (size < MAX_LONG_SIZE) {
+            throw new IllegalArgumentException("Buffer size must be at least " + MAX_LONG_SIZE);
+        }
+        this.output = output;
+        this.buffer = new char[size];
+    }
+
+    /**
+     * Get the output stream that is used to write bytes.
+     *
+     * @return an output stream if this writer is not only buffered, null otherwise.
+     */
+    @Nullable
+    public OutputStream getOutput() {
+        return output;
+    }
+
+    /**
+     * Get the number of characters currently appended into buffer.
+     *
+     * @return the buffer count.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Get the current length of internal buffer.
+     *
+     * @return the buffer capacity.
+     */
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Discard all the characters appended into buffer, so this writer can be reused.
+     */
+    public void reset() {
+        count = 0;
+    }
+
+    /**
+     * Make sure that the provided amount of characters can be appended into buffer, by writing
+     * the current characters into output stream or by growing the buffer.
+     *
+     * @param length the amount of characters to append.
+     * @throws IOException if any I/O error occurs.
+     */
+    protected void ensure(int length) throws IOException {
+        if (count + length <= buffer.length) {
+            return;
+        }
+        if (output != null) {
+            writeBuffer();
+            if (count + length <= buffer.length) {
+                return;
+            }
+        }
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, count + length));
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        if (count == buffer.length) {
+            ensure(1);
+        }
+        buffer[count++] = (char) c;
+    }
+
+    @Override
+    public void write(@NotNull char[] cbuf, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, cbuf.length);
+        if (output != null && len > buffer.length) {
+            while (len > 0) {
+                final int size = Math.min(len, buffer.length - count);
+                if (size <= 0) {
+                    writeBuffer();
+                    continue;
+                }
+                System.arraycopy(cbuf, off, buffer, count, size);
+                count += size;
+                off += size;
+                len -= size;
+            }
+            return;
+        }
+        ensure(len);
+        System.arraycopy(cbuf, off, buffer, count, len);
+        count += len;
+    }
+
+    @Override
+    public void write(@NotNull String str) throws IOException {
+        write(str, 0, str.length());
+    }
+
+    @Override
+    public void write(@NotNull String str, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, str.length());
+        if (output != null && len > buffer.length) {
+            while (len > 0) {
+                final int size = Math.min(len, buffer.length - count);
+                if (size <= 0) {
+                    writeBuffer();
+                    continue;
+                }
+                str.getChars(off, off + size, buffer, count);
+                count += size;
+                off += size;
+                len -= size;
+            }
+            return;
+        }
+        ensure(len);
+        str.getChars(off, off + len, buffer, count);
+        count += len;
+    }
+
+    /**
+     * Write the decimal representation of int value, without creating an intermediate string.
+     *
+     * @param i the int value to write.
+     * @throws IOException if any I/O error occurs.
+     */
+    public void writeInt(int i) throws IOException {
+        writeLong(i);
+    }
+
+    /**
+     * Write the decimal representation of long value, without creating an intermediate string.
+     *
+     * @param l the long value to write.
+     * @throws IOException if any I/O error occurs.
+     */
+    public void writeLong(long l) throws IOException {
+        if (count + MAX_LONG_SIZE > buffer.length) {
+            ensure(MAX_LONG_SIZE);
+        }
+        if (l == Long.MIN_VALUE) {
+            write("-9223372036854775808");
+            return;
+        }
+        if (l < 0) {
+            buffer[count++] = '-';
+            l = -l;
+        }
+        int size = 1;
+        for (long value = l; value >= 10; value /= 10) {
+            size++;
+        }
+        int index = count + size;
+        count = index;
+        do {
+            buffer[--index] = (char) ('0' + (int) (l % 10));
+            l /= 10;
+        } while (l != 0);
+    }
+
+    /**
+     * Write the decimal representation of every int value, separated by provided delimiter.
+     *
+     * @param ints      the int values to write.
+     * @param delimiter the char to write between values.
+     * @throws IOException if any I/O error occurs.
+     */
+    public void writeInts(@NotNull int[] ints, char delimiter) throws IOException {
+        if (output == null) {
+            // Reserve the worst case once for the whole array
+            ensure(ints.length * 12);
+        }
+        for (int i = 0; i < ints.length; i++) {
+            if (i > 0) {
+                write(delimiter);
+            }
+            writeLong(ints[i]);
+        }
+    }
+
+    /**
+     * Write the decimal representation of every long value followed by suffix, separated by provided delimiter.
+     *
+     * @param longs     the long values to write.
+     * @param delimiter the char to write between values.
+     * @param suffix    the char to write after every value.
+     * @throws IOException if any I/O error occurs.
+     */
+    public void writeLongs(@NotNull long[] longs, char delimiter, char suffix) throws IOException {
+        if (output == null) {
+            // Reserve the worst case once for the whole array
+            ensure(longs.length * 22);
+        }
+        for (int i = 0; i < longs.length; i++) {
+            if (i > 0) {
+                write(delimiter);
+            }
+            writeLong(longs[i]);
+            write(suffix);
+        }
+    }
+
+    @Override
+    public CharBufferWriter append(@Nullable CharSequence csq) throws IOException {
+        write(String.valueOf(csq));
+        return this;
+    }
+
+    @Override
+    public CharBufferWriter append(@Nullable CharSequence csq, int start, int end) throws IOException {
+        return append(Objects.requireNonNullElse(csq, "null").subSequence(start, end));
+    }
+
+    @Override
+    public CharBufferWriter append(char c) throws IOException {
+        write(c);
+        return this;
+    }
+
+    /**
+     * Encode the characters appended into buffer as UTF-8 bytes and write them into provided {@link OutputStream}.<br>
+     * This method doesn't discard the buffer content.
+     *
+     * @param out the output stream to write bytes.
+     * @throws IOException if any I/O error occurs.
+     */
+    public void writeTo(@NotNull OutputStream out) throws IOException {
+        final int length = encode(count);
+        out.write(bytes, 0, length);
+    }
+
+    /**
+     * Encode the current buffer into output stream and discard it, a trailing high surrogate is kept
+     * into buffer to be encoded together with its low surrogate.
+     *
+     * @throws IOException if any I/O error occurs.
+     */
+    private void writeBuffer() throws IOException {
+        int end = count;
+        if (end > 0 && Character.isHighSurrogate(buffer[end - 1])) {
+            end--;
+        }
+        final int length = encode(end);
+        output.write(bytes, 0, length);
+        if (end < count) {
+            buffer[0] = buffer[end];
+            count = 1;
+        } else {
+            count = 0;
+        }
+    }
+
+    private int encode(int end) {
+        if (bytes == null || bytes.length < end * 3) {
+            bytes = new byte[Math.max(end * 3, buffer.length)];
+        }
+        final byte[] bytes = this.bytes;
+        int index = 0;
+        for (int i = 0; i < end; i++) {
+            final char c = buffer[i];
+            if (c < 0x80) {
+                bytes[index++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[index++] = (byte) (0xC0 | (c >> 6));
+                bytes[index++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(buffer[i + 1])) {
+                    final int codePoint = Character.toCodePoint(c, buffer[++i]);
+                    bytes[index++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[index++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[index++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[index++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    // Same replacement as String#getBytes(UTF_8)
+                    bytes[index++] = '?';
+                }
+            } else {
+                bytes[index++] = (byte) (0xE0 | (c >> 12));
+                bytes[index++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[index++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, count);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (output != null) {
+            if (count > 0) {
+                writeBuffer();
+            }
+            output.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (output != null) {
+            // Write unpaired trailing surrogate as replacement
+            flush();
+            if (count > 0) {
+                final int length = encode(count);
+                output.write(bytes, 0, length);
+                count = 0;
+            }
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.saicone.nbt.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * <b>Instance Pool</b><br>
+ * A bounded and lock-free pool of reusable instances, used by static helpers to avoid the creation of
+ * readers and writers on every call.<br>
+ * Unlike a thread-local cache, the amount of pooled instances doesn't grow with the amount of threads,
+ * so it's safe to be used from virtual threads.
+ *
+ * @author Rubenicos
+ *
+ * @param <E> the pooled instance type.
+ */
+class InstancePool<E> {
+
+    private static final int DEFAULT_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private final int maxSize;
+    private final Supplier<E> supplier;
+    private final Queue<E> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Constructs an instance pool with default size.
+     *
+     * @param supplier the supplier to create instances when the pool is empty.
+     */
+    InstancePool(@NotNull Supplier<E> supplier) {
+        this(DEFAULT_SIZE, supplier);
+    }
+
+    /**
+     * Constructs an instance pool.
+     *
+     * @param maxSize  the maximum amount of pooled instances.
+     * @param supplier the supplier to create instances when the pool is empty.
+     */
+    InstancePool(int maxSize, @NotNull Supplier<E> supplier) {
+        this.maxSize = maxSize;
+        this.supplier = supplier;
+    }
+
+    /**
+     * Get a pooled instance or create a new one.
+     *
+     * @return an instance that is not used by any other caller.
+     */
+    @NotNull
+    E acquire() {
+        final E e = queue.poll();
+        if (e != null) {
+            size.decrementAndGet();
+            return e;
+        }
+        return supplier.get();
+    }
+
+    /**
+     * Return the provided instance to this pool, the instance must not be used after release.
+     *
+     * @param e the instance to release.
+     */
+    void release(@NotNull E e) {
+        if (size.incrementAndGet() > maxSize) {
+            size.decrementAndGet();
+            return;
+        }
+        queue.offer(e);
+    }
+}
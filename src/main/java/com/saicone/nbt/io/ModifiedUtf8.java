@@ -0,0 +1,182 @@
+package com.saicone.nbt.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.UTFDataFormatException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <b>Modified UTF-8</b><br>
+ * Utility class to encode and decode Strings with the modified UTF-8 format used by {@link java.io.DataInput#readUTF()}
+ * directly from byte arrays.<br>
+ * Unlike standard UTF-8, the null character is encoded with two bytes and supplementary characters are
+ * encoded as its surrogate pairs, three bytes each.<br>
+ * ASCII content is handled by a fast path that check 8 bytes at a time, since most nbt Strings are ASCII.
+ *
+ * @author Rubenicos
+ */
+public class ModifiedUtf8 {
+
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final long NON_ASCII = 0x8080808080808080L;
+
+    ModifiedUtf8() {
+    }
+
+    /**
+     * Get the amount of leading ASCII bytes from provided region.
+     *
+     * @param bytes  the byte array to check.
+     * @param offset the start index.
+     * @param length the region length.
+     * @return       the amount of ASCII bytes before the first non-ASCII byte.
+     */
+    public static int countAscii(byte[] bytes, int offset, int length) {
+        final int end = offset + length;
+        int i = offset;
+        while (i + Long.BYTES <= end) {
+            if (((long) LONG.get(bytes, i) & NON_ASCII) != 0) {
+                break;
+            }
+            i += Long.BYTES;
+        }
+        while (i < end && bytes[i] >= 0) {
+            i++;
+        }
+        return i - offset;
+    }
+
+    /**
+     * Decode the provided bytes as modified UTF-8 String.
+     *
+     * @param bytes  the byte array that contains the encoded String.
+     * @param offset the start index of String.
+     * @param length the amount of bytes used by String.
+     * @return       a decoded String.
+     * @throws UTFDataFormatException if the bytes don't represent a valid modified UTF-8 String.
+     */
+    @NotNull
+    public static String decode(byte[] bytes, int offset, int length) throws UTFDataFormatException {
+        final int ascii = countAscii(bytes, offset, length);
+        if (ascii == length) {
+            // Latin-1 is a direct byte copy for compact Strings
+            return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+        }
+
+        final char[] chars = new char[length];
+        for (int i = 0; i < ascii; i++) {
+            chars[i] = (char) bytes[offset + i];
+        }
+        final int end = offset + length;
+        int count = ascii;
+        int i = offset + ascii;
+        while (i < end) {
+            final int c = bytes[i] & 0xFF;
+            switch (c >> 4) {
+                case 0: case 1: case 2: case 3: case 4: case 5: case 6: case 7:
+                    // 0xxxxxxx
+                    i++;
+                    chars[count++] = (char) c;
+                    break;
+                case 12: case 13:
+                    // 110x xxxx   10xx xxxx
+                    if (i + 2 > end) {
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    }
+                    final int c2 = bytes[i + 1];
+                    if ((c2 & 0xC0) != 0x80) {
+                        throw new UTFDataFormatException("malformed input around byte " + (i + 1 - offset));
+                    }
+                    chars[count++] = (char) (((c & 0x1F) << 6) | (c2 & 0x3F));
+                    i += 2;
+                    break;
+                case 14:
+                    // 1110 xxxx  10xx xxxx  10xx xxxx
+                    if (i + 3 > end) {
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    }
+                    final int b2 = bytes[i + 1];
+                    final int b3 = bytes[i + 2];
+                    if ((b2 & 0xC0) != 0x80 || (b3 & 0xC0) != 0x80) {
+                        throw new UTFDataFormatException("malformed input around byte " + (i + 2 - offset));
+                    }
+                    chars[count++] = (char) (((c & 0x0F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F));
+                    i += 3;
+                    break;
+                default:
+                    // 10xx xxxx,  1111 xxxx
+                    throw new UTFDataFormatException("malformed input around byte " + (i - offset));
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    /**
+     * Get the amount of bytes required to encode the provided String as modified UTF-8.
+     *
+     * @param s the String to measure.
+     * @return  the encoded length in bytes.
+     */
+    public static int encodedLength(@NotNull String s) {
+        final int length = s.length();
+        int size = length;
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c >= 0x80 || c == 0) {
+                size += c >= 0x800 ? 2 : 1;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Encode the provided String as modified UTF-8 into a newly generated byte array.
+     *
+     * @param s the String to encode.
+     * @return  a byte array with encoded String.
+     */
+    public static byte[] encode(@NotNull String s) {
+        final byte[] bytes = new byte[encodedLength(s)];
+        encode(s, bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Encode the provided String as modified UTF-8 into the provided byte array, the array must
+     * have enough space to save {@link #encodedLength(String)} bytes.
+     *
+     * @param s      the String to encode.
+     * @param bytes  the destination byte array.
+     * @param offset the start index to write.
+     * @return       the index after the last written byte.
+     */
+    public static int encode(@NotNull String s, byte[] bytes, int offset) {
+        final int length = s.length();
+        int i = 0;
+        // ASCII fast path
+        for (; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c >= 0x80 || c == 0) {
+                break;
+            }
+            bytes[offset++] = (byte) c;
+        }
+        for (; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c < 0x80 && c != 0) {
+                bytes[offset++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[offset++] = (byte) (0xC0 | (c >> 6));
+                bytes[offset++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                bytes[offset++] = (byte) (0xE0 | (c >> 12));
+                bytes[offset++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[offset++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,388 @@
+package com.saicone.nbt.io;
+
+import com.saicone.nbt.Tag;
+import com.saicone.nbt.TagCodec;
+import com.saicone.nbt.TagMapper;
+import com.saicone.nbt.TagType;
+import com.saicone.nbt.nio.LazyTag;
+import com.saicone.nbt.nio.NetworkTagBuffer;
+import com.saicone.nbt.nio.TagBuffer;
+import com.saicone.nbt.util.CompactCompound;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <b>Tag Encoding</b><br>
+ * Binary encodings of NBT data that are supported by this library, used to check if
+ * raw tag bytes from one source can be copied into other destination without any
+ * decode/encode process.
+ *
+ * @author Rubenicos
+ */
+public enum TagEncoding {
+
+    /**
+     * Java edition encoding, big-endian numbers and modified UTF-8 strings.
+     */
+    JAVA(ByteOrder.BIG_ENDIAN),
+    /**
+     * Bedrock edition file encoding, little-endian numbers.
+     */
+    BEDROCK(ByteOrder.LITTLE_ENDIAN),
+    /**
+     * Bedrock edition network encoding, little-endian numbers with integers and longs as ZigZag VarInt.
+     */
+    NETWORK(ByteOrder.LITTLE_ENDIAN);
+
+    private final ByteOrder order;
+
+    TagEncoding(@NotNull ByteOrder order) {
+        this.order = order;
+    }
+
+    /**
+     * Get the byte order used by this encoding.
+     *
+     * @return a byte order.
+     */
+    @NotNull
+    public ByteOrder order() {
+        return order;
+    }
+
+    /**
+     * Create a tag buffer that read/write data with this encoding.
+     *
+     * @param buffer the buffer that will provide/receive data.
+     * @param mapper the mapper for tag object implementation.
+     * @return       a newly generated tag buffer.
+     * @param <T>    the tag object implementation.
+     */
+    @NotNull
+    public <T> TagBuffer<T> buffer(@NotNull ByteBuffer buffer, @NotNull TagMapper<T> mapper) {
+        if (this == NETWORK) {
+            return NetworkTagBuffer.of(buffer.order(order), mapper);
+        }
+        return TagBuffer.of(buffer.order(order), mapper);
+    }
+
+    /**
+     * Create a data output that write data with this encoding into provided {@link OutputStream}.
+     *
+     * @param out the output stream that will receive data.
+     * @return    a newly generated data output.
+     */
+    @NotNull
+    public DataOutput output(@NotNull OutputStream out) {
+        switch (this) {
+            case NETWORK:
+                return new NetworkDataOutputStream(out);
+            case BEDROCK:
+                return new ReverseDataOutputStream(out);
+            default:
+                return new DataOutputStream(out);
+        }
+    }
+
+    /**
+     * Get the exact amount of bytes used to write the provided tag object with any tag format,
+     * that consist of tag ID and tag value.
+     *
+     * @param t      the tag object to measure.
+     * @param mapper the mapper for tag object implementation.
+     * @return       an encoded size in bytes.
+     * @param <T>    the tag object implementation.
+     */
+    public <T> int sizeOfAny(@Nullable T t, @NotNull TagMapper<T> mapper) {
+        return Byte.BYTES + sizeOf(t, mapper);
+    }
+
+    /**
+     * Get the exact amount of bytes used to write the provided tag object with unnamed tag format,
+     * that consist of tag ID, empty name and tag value.
+     *
+     * @param t      the tag object to measure.
+     * @param mapper the mapper for tag object implementation.
+     * @return       an encoded size in bytes.
+     * @param <T>    the tag object implementation.
+     */
+    public <T> int sizeOfUnnamed(@Nullable T t, @NotNull TagMapper<T> mapper) {
+        if (mapper.type(t) == TagType.END) {
+            return Byte.BYTES;
+        }
+        return Byte.BYTES + sizeOfString("") + sizeOf(t, mapper);
+    }
+
+    /**
+     * Get the exact amount of bytes used to write the provided tag object value, without tag ID.
+     *
+     * @param t      the tag object to measure.
+     * @param mapper the mapper for tag object implementation.
+     * @return       an encoded size in bytes.
+     * @param <T>    the tag object implementation.
+     */
+    public <T> int sizeOf(@Nullable T t, @NotNull TagMapper<T> mapper) {
+        final TagCodec<T> codec = TagCodec.of(mapper);
+        return sizeOf(codec.type(t), codec.extract(t), codec);
+    }
+
+    /**
+     * Get the exact amount of bytes used to write the provided tag value with associated tag type, without tag ID.
+     *
+     * @param type   the tag type of value.
+     * @param object the tag value to measure.
+     * @param mapper the mapper for tag object implementation.
+     * @return       an encoded size in bytes.
+     * @param <T>    the tag object implementation.
+     */
+    public <T> int sizeOf(@NotNull TagType<?> type, @Nullable Object object, @NotNull TagMapper<T> mapper) {
+        return sizeOf(type, object, TagCodec.of(mapper));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> int sizeOf(@NotNull TagType<?> type, @Nullable Object object, @NotNull TagCodec<T> codec) {
+        if (type == TagType.END || object == null) {
+            return 0;
+        }
+        switch (type.id()) {
+            case Tag.BYTE:
+                return Byte.BYTES;
+            case Tag.SHORT:
+                return Short.BYTES;
+            case Tag.INT:
+                return sizeOfInt((int) object);
+            case Tag.LONG:
+                return sizeOfLong((long) object);
+            case Tag.FLOAT:
+                return Float.BYTES;
+            case Tag.DOUBLE:
+                return Double.BYTES;
+            case Tag.BYTE_ARRAY:
+                final int length = type == TagType.BOOLEAN_ARRAY ? ((boolean[]) object).length : ((byte[]) object).length;
+                return sizeOfInt(length) + length;
+            case Tag.STRING:
+                return sizeOfString((String) object);
+            case Tag.LIST:
+                return sizeOfList((List<T>) object, codec);
+            case Tag.COMPOUND:
+                return sizeOfCompound((Map<String, T>) object, codec);
+            case Tag.INT_ARRAY:
+                final int[] ints = (int[]) object;
+                if (this != NETWORK) {
+                    return Integer.BYTES + ints.length * Integer.BYTES;
+                }
+                int intSize = sizeOfInt(ints.length);
+                for (int i : ints) {
+                    intSize += sizeOfInt(i);
+                }
+                return intSize;
+            case Tag.LONG_ARRAY:
+                final long[] longs = (long[]) object;
+                if (this != NETWORK) {
+                    return Integer.BYTES + longs.length * Long.BYTES;
+                }
+                int longSize = sizeOfInt(longs.length);
+                for (long l : longs) {
+                    longSize += sizeOfLong(l);
+                }
+                return longSize;
+            default:
+                throw new IllegalArgumentException("Invalid tag type: " + type.name());
+        }
+    }
+
+    private <T> int sizeOfList(@NotNull List<T> list, @NotNull TagCodec<T> codec) {
+        if (list instanceof LazyTag && ((LazyTag) list).isCompatible(this) && !((LazyTag) list).isModified()) {
+            return ((LazyTag) list).raw().remaining();
+        }
+        int size = Byte.BYTES + sizeOfInt(list.size());
+        if (list.isEmpty()) {
+            return size;
+        }
+        final TagType<Object> type = codec.type(list.get(0));
+        for (T t : list) {
+            size += sizeOf(type, codec.extract(t), codec);
+        }
+        return size;
+    }
+
+    private <T> int sizeOfCompound(@NotNull Map<String, T> map, @NotNull TagCodec<T> codec) {
+        if (map instanceof LazyTag && ((LazyTag) map).isCompatible(this) && !((LazyTag) map).isModified()) {
+            return ((LazyTag) map).raw().remaining();
+        }
+        int size = Byte.BYTES;
+        if (map instanceof CompactCompound && codec.mapper() == (Object) TagMapper.DEFAULT) {
+            final CompactCompound compound = (CompactCompound) map;
+            for (int i = 0; i < compound.size(); i++) {
+                final byte id = compound.getPrimitiveType(i);
+                final TagType<Object> type = id == Tag.END ? TagType.getType(compound.getValue(i)) : TagType.getType(id);
+                size += Byte.BYTES;
+                if (type != TagType.END) {
+                    size += sizeOfString(compound.getKey(i));
+                    size += id == Tag.END ? sizeOf(type, compound.getValue(i), codec) : sizeOfPrimitive(id, compound.getPrimitive(i));
+                }
+            }
+            return size;
+        }
+        for (Map.Entry<String, T> entry : map.entrySet()) {
+            final TagType<Object> type = codec.type(entry.getValue());
+            size += Byte.BYTES;
+            if (type != TagType.END) {
+                size += sizeOfString(entry.getKey());
+                size += sizeOf(type, codec.extract(entry.getValue()), codec);
+            }
+        }
+        return size;
+    }
+
+    private int sizeOfPrimitive(byte id, long value) {
+        switch (id) {
+            case Tag.BYTE:
+                return Byte.BYTES;
+            case Tag.SHORT:
+                return Short.BYTES;
+            case Tag.INT:
+                return sizeOfInt((int) value);
+            case Tag.LONG:
+                return sizeOfLong(value);
+            case Tag.FLOAT:
+                return Float.BYTES;
+            default:
+                return Double.BYTES;
+        }
+    }
+
+    /**
+     * Get the exact amount of bytes used to write the provided integer.
+     *
+     * @param value the integer to measure.
+     * @return      an encoded size in bytes.
+     */
+    public int sizeOfInt(int value) {
+        if (this != NETWORK) {
+            return Integer.BYTES;
+        }
+        // ZigZag encode
+        return sizeOfVarInt32((value >> (Integer.SIZE - 1)) ^ (value << 1));
+    }
+
+    /**
+     * Get the exact amount of bytes used to write the provided long.
+     *
+     * @param value the long to measure.
+     * @return      an encoded size in bytes.
+     */
+    public int sizeOfLong(long value) {
+        if (this != NETWORK) {
+            return Long.BYTES;
+        }
+        // ZigZag encode
+        final long zigzag = (value >> (Long.SIZE - 1)) ^ (value << 1);
+        return zigzag == 0 ? 1 : (Long.SIZE - Long.numberOfLeadingZeros(zigzag) + 6) / 7;
+    }
+
+    /**
+     * Get the exact amount of bytes used to write the provided String, including its length.
+     *
+     * @param s the String to measure.
+     * @return  an encoded size in bytes.
+     */
+    public int sizeOfString(@NotNull String s) {
+        if (this == JAVA) {
+            return Short.BYTES + ModifiedUtf8.encodedLength(s);
+        }
+        final int length = utf8Length(s);
+        return (this == NETWORK ? sizeOfVarInt32(length) : Short.BYTES) + length;
+    }
+
+    private static int sizeOfVarInt32(int value) {
+        return value == 0 ? 1 : (Integer.SIZE - Integer.numberOfLeadingZeros(value) + 6) / 7;
+    }
+
+    private static int utf8Length(@NotNull String s) {
+        final int length = s.length();
+        int size = length;
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    size += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    // Surrogate pair use 4 bytes
+                    size += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    // Unpaired surrogates are replaced with a single byte
+                    size += 2;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Get the encoding used by provided data input.
+     *
+     * @param input the data input to check.
+     * @return      a tag encoding, null if the data input implementation is unknown.
+     */
+    @Nullable
+    public static TagEncoding of(@NotNull DataInput input) {
+        if (input instanceof NetworkDataInputStream) {
+            return NETWORK;
+        } else if (input instanceof ReverseDataInputStream) {
+            return BEDROCK;
+        } else if (input instanceof DataInputStream || input instanceof ObjectInput || input instanceof RandomAccessFile) {
+            return JAVA;
+        }
+        return null;
+    }
+
+    /**
+     * Get the encoding used by provided data output.
+     *
+     * @param output the data output to check.
+     * @return       a tag encoding, null if the data output implementation is unknown.
+     */
+    @Nullable
+    public static TagEncoding of(@NotNull DataOutput output) {
+        if (output instanceof NetworkDataOutputStream) {
+            return NETWORK;
+        } else if (output instanceof ReverseDataOutputStream) {
+            return BEDROCK;
+        } else if (output instanceof DataOutputStream || output instanceof ObjectOutput || output instanceof RandomAccessFile) {
+            return JAVA;
+        }
+        return null;
+    }
+
+    /**
+     * Get the encoding used by provided tag buffer.
+     *
+     * @param buffer the tag buffer to check.
+     * @return       a tag encoding, null if the tag buffer implementation is unknown.
+     */
+    @Nullable
+    public static TagEncoding of(@NotNull TagBuffer<?> buffer) {
+        final ByteOrder order = buffer.buffer().order();
+        if (buffer.getClass() == NetworkTagBuffer.class) {
+            return order == ByteOrder.LITTLE_ENDIAN ? NETWORK : null;
+        } else if (buffer.getClass() == TagBuffer.class) {
+            return order == ByteOrder.BIG_ENDIAN ? JAVA : BEDROCK;
+        }
+        return null;
+    }
+}
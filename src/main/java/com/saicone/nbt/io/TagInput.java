@@ -1,15 +1,29 @@
 package com.saicone.nbt.io;
 
 import com.saicone.nbt.Tag;
+import com.saicone.nbt.TagCodec;
 import com.saicone.nbt.TagMapper;
+import com.saicone.nbt.TagSelector;
 import com.saicone.nbt.TagType;
+import com.saicone.nbt.nio.LazyCompound;
+import com.saicone.nbt.nio.LazyList;
+import com.saicone.nbt.nio.TagBuffer;
+import com.saicone.nbt.util.CompactCompound;
+import com.saicone.nbt.util.TagKeyCache;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
 import java.io.DataInput;
 import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,12 +39,34 @@ import java.util.Map;
  */
 public class TagInput<T> implements Closeable {
 
+    private static final VarHandle INT_BE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final int ARRAY_CHUNK = 8192;
+    private static final int COMPOUND_FRAME = -1;
+
     private final DataInput input;
     private final TagMapper<T> mapper;
+    private final TagCodec<T> codec;
+    private final TagEncoding encoding;
 
     private long maxQuota = Tag.DEFAULT_NBT_QUOTA;
     private long remainingQuota = Tag.DEFAULT_NBT_QUOTA;
     private int remainingDepth = Tag.MAX_STACK_DEPTH;
+    private TagSelector selector;
+    private TagSelector node;
+    private boolean lazy = false;
+    private boolean compact = false;
+    private TagKeyCache keyCache;
+    private byte[] stringBytes;
+    private byte[] arrayBytes;
+    private boolean iterative = false;
+    private int frameCount;
+    private Object[] frameValues;
+    private String[] frameKeys;
+    private byte[] frameTypes;
+    private int[] frameRemaining;
 
     /**
      * Create a tag input that create nbt-represented java objects with provided {@link DataInput} and {@link TagMapper}.
@@ -65,6 +101,8 @@ public class TagInput<T> implements Closeable {
     public TagInput(@NotNull DataInput input, @NotNull TagMapper<T> mapper) {
         this.input = input;
         this.mapper = mapper;
+        this.codec = TagCodec.of(mapper);
+        this.encoding = TagEncoding.of(input);
     }
 
     /**
@@ -105,6 +143,96 @@ public class TagInput<T> implements Closeable {
         return this;
     }
 
+    /**
+     * Set the selector that will be used to decode only the selected compound paths,
+     * any other compound entry will be skipped.
+     *
+     * @param selector the selector to use, null to read everything.
+     * @return         this instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TagInput<T> select(@Nullable TagSelector selector) {
+        this.selector = selector;
+        this.node = selector;
+        return this;
+    }
+
+    /**
+     * Set the lazy mode of this instance, compounds and lists will be captured as raw bytes and read
+     * as views that only decode values when are requested, any unmodified view will be written back
+     * as raw bytes by {@link TagOutput} or {@link TagBuffer} with the same encoding.<br>
+     * This mode only takes effect if the delegated input has a known {@link TagEncoding}.
+     *
+     * @param lazy true to read containers as lazy views.
+     * @return     this instance.
+     * @see LazyCompound
+     * @see LazyList
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TagInput<T> lazy(boolean lazy) {
+        this.lazy = lazy;
+        return this;
+    }
+
+    /**
+     * Check if the current instance read compounds and lists as lazy views.
+     *
+     * @return true if lazy mode is enabled.
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Set the compact mode of this instance, compounds will be read as {@link CompactCompound}
+     * that store primitive values unboxed.<br>
+     * This mode only takes effect if the current mapper is {@link TagMapper#DEFAULT}.
+     *
+     * @param compact true to read compounds as compact maps.
+     * @return        this instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TagInput<T> compact(boolean compact) {
+        this.compact = compact;
+        return this;
+    }
+
+    /**
+     * Set the key cache of this instance, compound keys will be looked up by its raw bytes
+     * to reuse the same String instances across reads.<br>
+     * This mode only takes effect if the delegated input has a known {@link TagEncoding}.
+     *
+     * @param keyCache the key cache to use, null to decode every key.
+     * @return         this instance.
+     * @see TagKeyCache#SHARED
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TagInput<T> keyCache(@Nullable TagKeyCache keyCache) {
+        this.keyCache = keyCache;
+        return this;
+    }
+
+    /**
+     * Set the iterative mode of this instance, compounds and lists will be read using an explicit
+     * stack of frames instead of recursive method calls, so deeply nested values don't consume thread
+     * stack and can be read from threads with small stack size.<br>
+     * Quota and depth limits are checked in the same way, this mode doesn't take effect on selected
+     * reads or when compounds are read as lazy views or compact maps.
+     *
+     * @param iterative true to read containers without recursion.
+     * @return          this instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TagInput<T> iterative(boolean iterative) {
+        this.iterative = iterative;
+        return this;
+    }
+
     /**
      * Get the delegated data input.
      *
@@ -115,6 +243,16 @@ public class TagInput<T> implements Closeable {
         return input;
     }
 
+    /**
+     * Get the encoding of delegated data input.
+     *
+     * @return a tag encoding, null if the data input implementation is unknown.
+     */
+    @Nullable
+    public TagEncoding getEncoding() {
+        return encoding;
+    }
+
     /**
      * Get the mapper that is used to create tag objects.
      *
@@ -191,10 +329,11 @@ public class TagInput<T> implements Closeable {
      * @throws IOException if any I/O error occurs.
      */
     public <A extends T> A readUnnamed() throws IOException {
+        this.node = this.selector;
         final byte id = input.readByte();
         final TagType<Object> type = TagType.getType(id);
         if (type == TagType.END) {
-            return getMapper().buildAny(type, null);
+            return codec.build(type, null);
         }
         // Skip name
         // For network stream compatibility use:
@@ -212,10 +351,11 @@ public class TagInput<T> implements Closeable {
      * @throws IOException if any I/O error occurs.
      */
     public <A extends T> A readAny() throws IOException {
+        this.node = this.selector;
         final byte id = input.readByte();
         final TagType<Object> type = TagType.getType(id);
         if (type == TagType.END) {
-            return getMapper().buildAny(type, null);
+            return codec.build(type, null);
         }
         return readTag(type);
     }
@@ -253,19 +393,19 @@ public class TagInput<T> implements Closeable {
                 return null;
             case Tag.BYTE:
                 if (type == TagType.BOOLEAN) {
-                    return mapper.buildAny(type, input.readByte() > 0);
+                    return codec.build(type, input.readByte() > 0);
                 }
-                return mapper.buildAny(type, input.readByte());
+                return codec.build(type, input.readByte());
             case Tag.SHORT:
-                return mapper.buildAny(type, input.readShort());
+                return codec.build(type, input.readShort());
             case Tag.INT:
-                return mapper.buildAny(type, input.readInt());
+                return codec.build(type, input.readInt());
             case Tag.LONG:
-                return mapper.buildAny(type, input.readLong());
+                return codec.build(type, input.readLong());
             case Tag.FLOAT:
-                return mapper.buildAny(type, input.readFloat());
+                return codec.build(type, input.readFloat());
             case Tag.DOUBLE:
-                return mapper.buildAny(type, input.readDouble());
+                return codec.build(type, input.readDouble());
             case Tag.BYTE_ARRAY:
                 final Object array;
                 if (type == TagType.BOOLEAN_ARRAY) {
@@ -273,24 +413,369 @@ public class TagInput<T> implements Closeable {
                 } else {
                     array = readByteArray();
                 }
-                return mapper.buildAny(type, array);
+                return codec.build(type, array);
             case Tag.STRING:
-                final String s = input.readUTF();
+                final String s = readString();
                 useBytes(Short.BYTES, s.length());
-                return mapper.buildAny(type, s);
+                return codec.build(type, s);
             case Tag.LIST:
-                return mapper.buildAny(type, readList());
+                if (lazy && node == null && encoding != null) {
+                    return codec.build(type, new LazyList<>(readRaw(type)));
+                }
+                if (iterative && node == null && !(compact && mapper == (Object) TagMapper.DEFAULT)) {
+                    return readIterative(type);
+                }
+                return codec.build(type, readList());
             case Tag.COMPOUND:
-                return mapper.buildAny(type, readCompound());
+                if (lazy && node == null && encoding != null) {
+                    return codec.build(type, new LazyCompound<>(readRaw(type)));
+                }
+                if (compact && mapper == (Object) TagMapper.DEFAULT) {
+                    return codec.build(type, readCompactCompound());
+                }
+                if (iterative && node == null) {
+                    return readIterative(type);
+                }
+                return codec.build(type, readCompound());
             case Tag.INT_ARRAY:
-                return mapper.buildAny(type, readIntArray());
+                return codec.build(type, readIntArray());
             case Tag.LONG_ARRAY:
-                return mapper.buildAny(type, readLongArray());
+                return codec.build(type, readLongArray());
             default:
                 throw new IllegalArgumentException("Invalid tag type: " + type.name());
         }
     }
 
+    /**
+     * Read tag value as raw bytes by providing a tag type, and create a lazy tag buffer
+     * with the encoding of delegated input to read it.<br>
+     * This method assumes that tag ID was already skipped / read.
+     *
+     * @param type the type of tag to read.
+     * @return     a tag buffer that contains the tag value.
+     * @throws IOException if any I/O error occurs.
+     */
+    @NotNull
+    protected TagBuffer<T> readRaw(@NotNull TagType<?> type) throws IOException {
+        if (encoding == null) {
+            throw new IllegalStateException("Cannot read raw bytes from unknown data input");
+        }
+        final RawBytes raw = new RawBytes();
+        copyTag(type, raw);
+        useBytes(raw.size);
+        return encoding.buffer(ByteBuffer.wrap(raw.bytes, 0, raw.size), mapper).lazy(true);
+    }
+
+    private void copyTag(@NotNull TagType<?> type, @NotNull RawBytes raw) throws IOException {
+        switch (type.id()) {
+            case Tag.END:
+                break;
+            case Tag.BYTE:
+            case Tag.SHORT:
+            case Tag.FLOAT:
+            case Tag.DOUBLE:
+                copyBytes(raw, fixedSize(type));
+                break;
+            case Tag.INT:
+                copyInt(raw);
+                break;
+            case Tag.LONG:
+                copyLong(raw);
+                break;
+            case Tag.BYTE_ARRAY:
+                copyBytes(raw, copyInt(raw));
+                break;
+            case Tag.STRING:
+                copyBytes(raw, copyStringLength(raw));
+                break;
+            case Tag.LIST:
+                final byte listId = copyByte(raw);
+                final int size = copyInt(raw);
+                if (listId == Tag.END && size > 0) {
+                    throw new IllegalArgumentException("Cannot read list without tag type");
+                }
+                final TagType<?> listType = TagType.getType(listId);
+                final int fixedSize = fixedSize(listType);
+                if (fixedSize > 0) {
+                    copyBytes(raw, (long) fixedSize * size);
+                } else {
+                    incrementDepth();
+                    for (int i = 0; i < size; i++) {
+                        copyTag(listType, raw);
+                    }
+                    decrementDepth();
+                }
+                break;
+            case Tag.COMPOUND:
+                incrementDepth();
+                byte id;
+                while ((id = copyByte(raw)) != Tag.END) {
+                    copyBytes(raw, copyStringLength(raw));
+                    copyTag(TagType.getType(id), raw);
+                }
+                decrementDepth();
+                break;
+            case Tag.INT_ARRAY:
+                final int intSize = copyInt(raw);
+                if (isVarInt()) {
+                    for (int i = 0; i < intSize; i++) {
+                        copyInt(raw);
+                    }
+                } else {
+                    copyBytes(raw, (long) Integer.BYTES * intSize);
+                }
+                break;
+            case Tag.LONG_ARRAY:
+                final int longSize = copyInt(raw);
+                if (isVarInt()) {
+                    for (int i = 0; i < longSize; i++) {
+                        copyLong(raw);
+                    }
+                } else {
+                    copyBytes(raw, (long) Long.BYTES * longSize);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid tag type: " + type.name());
+        }
+    }
+
+    private byte copyByte(@NotNull RawBytes raw) throws IOException {
+        final byte b = input.readByte();
+        raw.write(b);
+        return b;
+    }
+
+    private void copyBytes(@NotNull RawBytes raw, long bytes) throws IOException {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Cannot read negative amount of bytes");
+        }
+        while (bytes > 0) {
+            final int length = (int) Math.min(bytes, 8192);
+            final int offset = raw.reserve(length);
+            input.readFully(raw.bytes, offset, length);
+            bytes -= length;
+        }
+    }
+
+    private int copyInt(@NotNull RawBytes raw) throws IOException {
+        if (isVarInt()) {
+            final int result = (int) copyVarInt(raw, Integer.SIZE);
+            // ZigZag decode
+            return (result >>> 1) ^ -(result & 1);
+        }
+        final int offset = raw.reserve(Integer.BYTES);
+        input.readFully(raw.bytes, offset, Integer.BYTES);
+        final byte[] b = raw.bytes;
+        if (encoding == TagEncoding.JAVA) {
+            return (b[offset] & 0xFF) << 24 | (b[offset + 1] & 0xFF) << 16 | (b[offset + 2] & 0xFF) << 8 | (b[offset + 3] & 0xFF);
+        } else {
+            return (b[offset + 3] & 0xFF) << 24 | (b[offset + 2] & 0xFF) << 16 | (b[offset + 1] & 0xFF) << 8 | (b[offset] & 0xFF);
+        }
+    }
+
+    private void copyLong(@NotNull RawBytes raw) throws IOException {
+        if (isVarInt()) {
+            copyVarInt(raw, Long.SIZE);
+        } else {
+            copyBytes(raw, Long.BYTES);
+        }
+    }
+
+    private int copyStringLength(@NotNull RawBytes raw) throws IOException {
+        if (isVarInt()) {
+            return (int) copyVarInt(raw, Integer.SIZE);
+        }
+        final int offset = raw.reserve(Short.BYTES);
+        input.readFully(raw.bytes, offset, Short.BYTES);
+        final byte[] b = raw.bytes;
+        if (encoding == TagEncoding.JAVA) {
+            return (b[offset] & 0xFF) << 8 | (b[offset + 1] & 0xFF);
+        } else {
+            return (b[offset + 1] & 0xFF) << 8 | (b[offset] & 0xFF);
+        }
+    }
+
+    private long copyVarInt(@NotNull RawBytes raw, int bits) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < bits; shift += 7) {
+            final byte value = copyByte(raw);
+            result |= (long) (value & 0x7F) << shift;
+            if ((value & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("VarInt exceeds " + bits + " bits");
+    }
+
+    /**
+     * Skip tag value by providing a tag type, without creating any tag object.<br>
+     * This method assumes that tag ID was already skipped / read.
+     *
+     * @param type the type of tag to skip.
+     * @throws IOException if any I/O error occurs.
+     */
+    public void skipTag(@NotNull TagType<?> type) throws IOException {
+        switch (type.id()) {
+            case Tag.END:
+                break;
+            case Tag.BYTE:
+            case Tag.SHORT:
+            case Tag.FLOAT:
+            case Tag.DOUBLE:
+                skipBytes(fixedSize(type));
+                break;
+            case Tag.INT:
+                if (isVarInt()) {
+                    input.readInt();
+                } else {
+                    skipBytes(Integer.BYTES);
+                }
+                break;
+            case Tag.LONG:
+                if (isVarInt()) {
+                    input.readLong();
+                } else {
+                    skipBytes(Long.BYTES);
+                }
+                break;
+            case Tag.BYTE_ARRAY:
+                skipBytes(input.readInt());
+                break;
+            case Tag.STRING:
+                skipString();
+                break;
+            case Tag.LIST:
+                skipList();
+                break;
+            case Tag.COMPOUND:
+                skipCompound();
+                break;
+            case Tag.INT_ARRAY:
+                skipElements(TagType.INT, input.readInt());
+                break;
+            case Tag.LONG_ARRAY:
+                skipElements(TagType.LONG, input.readInt());
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid tag type: " + type.name());
+        }
+    }
+
+    /**
+     * Skip string value.
+     *
+     * @throws IOException if any I/O error occurs.
+     */
+    protected void skipString() throws IOException {
+        if (input instanceof NetworkDataInputStream) {
+            skipBytes(((NetworkDataInputStream) input).readUnsignedVarInt32());
+        } else {
+            skipBytes(input.readUnsignedShort());
+        }
+    }
+
+    /**
+     * Skip list of tags value, including its header.
+     *
+     * @throws IOException if any I/O error occurs.
+     */
+    protected void skipList() throws IOException {
+        final byte id = input.readByte();
+        final int size = input.readInt();
+        if (id == Tag.END && size > 0) {
+            throw new IllegalArgumentException("Cannot read list without tag type");
+        }
+        skipElements(TagType.getType(id), size);
+    }
+
+    /**
+     * Skip an amount of list elements with the same tag type.
+     *
+     * @param type the type of elements.
+     * @param size the amount of elements to skip.
+     * @throws IOException if any I/O error occurs.
+     */
+    protected void skipElements(@NotNull TagType<?> type, int size) throws IOException {
+        final int fixedSize = fixedSize(type);
+        if (fixedSize > 0) {
+            skipBytes((long) fixedSize * size);
+            return;
+        }
+        incrementDepth();
+        for (int i = 0; i < size; i++) {
+            skipTag(type);
+        }
+        decrementDepth();
+    }
+
+    /**
+     * Skip map of string keys and tag object values.<br>
+     * This method assumes that compound tag ID was already skipped / read.
+     *
+     * @throws IOException if any I/O error occurs.
+     */
+    protected void skipCompound() throws IOException {
+        incrementDepth();
+
+        byte id;
+        while ((id = input.readByte()) != Tag.END) {
+            skipString();
+            skipTag(TagType.getType(id));
+        }
+
+        decrementDepth();
+    }
+
+    /**
+     * Skip the provided amount of bytes, unlike {@link DataInput#skipBytes(int)} this method
+     * will block until all the bytes are skipped or throw an exception if end of stream is reached.
+     *
+     * @param bytes the amount of bytes to skip.
+     * @throws IOException if any I/O error occurs.
+     */
+    protected void skipBytes(long bytes) throws IOException {
+        while (bytes > 0) {
+            final int skipped = input.skipBytes((int) Math.min(bytes, Integer.MAX_VALUE));
+            if (skipped > 0) {
+                bytes -= skipped;
+            } else {
+                // Force an EOFException if there's no more bytes to read
+                input.readByte();
+                bytes--;
+            }
+        }
+    }
+
+    /**
+     * Get the size in bytes of a value that is always written with the same amount of bytes by delegated input.
+     *
+     * @param type the type of tag.
+     * @return     a size of bytes, {@code -1} if the tag type doesn't have a fixed size.
+     */
+    protected int fixedSize(@NotNull TagType<?> type) {
+        switch (type.id()) {
+            case Tag.BYTE:
+                return Byte.BYTES;
+            case Tag.SHORT:
+                return Short.BYTES;
+            case Tag.INT:
+                return isVarInt() ? -1 : Integer.BYTES;
+            case Tag.LONG:
+                return isVarInt() ? -1 : Long.BYTES;
+            case Tag.FLOAT:
+                return Float.BYTES;
+            case Tag.DOUBLE:
+                return Double.BYTES;
+            default:
+                return -1;
+        }
+    }
+
+    private boolean isVarInt() {
+        return input instanceof NetworkDataInputStream;
+    }
+
     /**
      * Read tag array value.
      *
@@ -321,8 +806,21 @@ public class TagInput<T> implements Closeable {
         }
         useBytes(Integer.BYTES, size);
         final int[] array = new int[size];
-        for (int i = 0; i < size; i++) {
-            array[i] = input.readInt();
+        final VarHandle handle = encoding == TagEncoding.JAVA ? INT_BE : encoding == TagEncoding.BEDROCK ? INT_LE : null;
+        if (handle == null) {
+            for (int i = 0; i < size; i++) {
+                array[i] = input.readInt();
+            }
+            return array;
+        }
+        final byte[] bytes = chunkBytes((long) size * Integer.BYTES);
+        final int chunk = bytes.length / Integer.BYTES;
+        for (int start = 0; start < size; start += chunk) {
+            final int count = Math.min(chunk, size - start);
+            input.readFully(bytes, 0, count * Integer.BYTES);
+            for (int i = 0; i < count; i++) {
+                array[start + i] = (int) handle.get(bytes, i * Integer.BYTES);
+            }
         }
         return array;
     }
@@ -337,12 +835,32 @@ public class TagInput<T> implements Closeable {
         final int size = input.readInt();
         useBytes(Long.BYTES, size);
         final long[] array = new long[size];
-        for (int i = 0; i < size; i++) {
-            array[i] = input.readLong();
+        final VarHandle handle = encoding == TagEncoding.JAVA ? LONG_BE : encoding == TagEncoding.BEDROCK ? LONG_LE : null;
+        if (handle == null) {
+            for (int i = 0; i < size; i++) {
+                array[i] = input.readLong();
+            }
+            return array;
+        }
+        final byte[] bytes = chunkBytes((long) size * Long.BYTES);
+        final int chunk = bytes.length / Long.BYTES;
+        for (int start = 0; start < size; start += chunk) {
+            final int count = Math.min(chunk, size - start);
+            input.readFully(bytes, 0, count * Long.BYTES);
+            for (int i = 0; i < count; i++) {
+                array[start + i] = (long) handle.get(bytes, i * Long.BYTES);
+            }
         }
         return array;
     }
 
+    private byte[] chunkBytes(long length) {
+        if (arrayBytes == null || (arrayBytes.length < length && arrayBytes.length < ARRAY_CHUNK)) {
+            arrayBytes = new byte[(int) Math.min(length, ARRAY_CHUNK)];
+        }
+        return arrayBytes;
+    }
+
     /**
      * Read list of tags value.
      *
@@ -389,7 +907,15 @@ public class TagInput<T> implements Closeable {
             final TagType<?> type = TagType.getType(id);
 
             final String key = readKey();
-            final T value = readTag(type);
+            final T value;
+            if (node == null) {
+                value = readTag(type);
+            } else {
+                value = readSelected(type, key);
+                if (value == null) {
+                    continue;
+                }
+            }
             if (map.put(key, value) == null) {
                 useBytes(Tag.MAP_ENTRY_SIZE + Integer.BYTES);
             }
@@ -400,6 +926,206 @@ public class TagInput<T> implements Closeable {
         return map;
     }
 
+    /**
+     * Read compound or list value using an explicit stack of frames, every nested compound or list
+     * is pushed as a new frame and built into tag object once its last value is read.<br>
+     * Any other value is read with {@link #readTag(TagType)}, so nested values are never read by recursion.
+     *
+     * @param type the type of container to read.
+     * @return     a tag object.
+     * @param <A>  the implementation of tag object.
+     * @throws IOException if any I/O error occurs.
+     */
+    @SuppressWarnings("unchecked")
+    protected <A extends T> A readIterative(@NotNull TagType<?> type) throws IOException {
+        final int base = frameCount;
+        try {
+            pushFrame(type, null);
+            while (true) {
+                final int top = frameCount - 1;
+                final TagType<?> valueType;
+                String key = null;
+                if (frameRemaining[top] == COMPOUND_FRAME) {
+                    final byte id = input.readByte();
+                    if (id == Tag.END) {
+                        valueType = null;
+                    } else {
+                        valueType = TagType.getType(id);
+                        key = readKey();
+                    }
+                } else if (frameRemaining[top] > 0) {
+                    frameRemaining[top]--;
+                    valueType = TagType.getType(frameTypes[top]);
+                } else {
+                    valueType = null;
+                }
+
+                if (valueType == null) {
+                    // Frame completed
+                    final T value = popFrame();
+                    if (frameCount == base) {
+                        return (A) value;
+                    }
+                    addValue(frameKeys[top], value);
+                } else if (valueType.id() == Tag.LIST || valueType.id() == Tag.COMPOUND) {
+                    useBytes(valueType.size());
+                    pushFrame(valueType, key);
+                } else {
+                    addValue(key, readTag(valueType));
+                }
+            }
+        } finally {
+            for (int i = base; i < frameCount; i++) {
+                frameValues[i] = null;
+            }
+            frameCount = base;
+        }
+    }
+
+    private void pushFrame(@NotNull TagType<?> type, @Nullable String key) throws IOException {
+        incrementDepth();
+        final int index = frameCount;
+        if (frameValues == null) {
+            frameValues = new Object[16];
+            frameKeys = new String[16];
+            frameTypes = new byte[16];
+            frameRemaining = new int[16];
+        } else if (index == frameValues.length) {
+            frameValues = Arrays.copyOf(frameValues, index * 2);
+            frameKeys = Arrays.copyOf(frameKeys, index * 2);
+            frameTypes = Arrays.copyOf(frameTypes, index * 2);
+            frameRemaining = Arrays.copyOf(frameRemaining, index * 2);
+        }
+
+        if (type.id() == Tag.LIST) {
+            final byte id = input.readByte();
+            final int size = input.readInt();
+            if (id == Tag.END && size > 0) {
+                throw new IllegalArgumentException("Cannot read list without tag type");
+            }
+            useBytes(Integer.BYTES, size);
+            frameValues[index] = new ArrayList<T>(size);
+            frameTypes[index] = id;
+            frameRemaining[index] = size;
+        } else {
+            frameValues[index] = new HashMap<String, T>();
+            frameTypes[index] = Tag.COMPOUND;
+            frameRemaining[index] = COMPOUND_FRAME;
+        }
+        frameKeys[index] = key;
+        frameCount = index + 1;
+    }
+
+    @NotNull
+    private T popFrame() {
+        decrementDepth();
+        final int index = --frameCount;
+        final Object container = frameValues[index];
+        frameValues[index] = null;
+        return codec.build(frameRemaining[index] == COMPOUND_FRAME ? TagType.COMPOUND : TagType.LIST, container);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addValue(@Nullable String key, @Nullable T value) {
+        final Object container = frameValues[frameCount - 1];
+        if (key == null) {
+            ((List<T>) container).add(value);
+        } else if (((Map<String, T>) container).put(key, value) == null) {
+            useBytes(Tag.MAP_ENTRY_SIZE + Integer.BYTES);
+        }
+    }
+
+    /**
+     * Read map of string keys and tag object values as compact compound, primitive
+     * values are stored without any boxing.
+     *
+     * @return a compact compound.
+     * @throws IOException if any I/O error occurs.
+     */
+    @NotNull
+    protected CompactCompound readCompactCompound() throws IOException {
+        incrementDepth();
+
+        final CompactCompound compound = new CompactCompound();
+
+        byte id;
+        while ((id = input.readByte()) != Tag.END) {
+            final TagType<?> type = TagType.getType(id);
+
+            final String key = readKey();
+            final int size = compound.size();
+            if (node != null) {
+                final T value = readSelected(type, key);
+                if (value == null) {
+                    continue;
+                }
+                compound.put(key, value);
+            } else {
+                switch (id) {
+                    case Tag.BYTE:
+                        useBytes(type.size());
+                        compound.putByte(key, input.readByte());
+                        break;
+                    case Tag.SHORT:
+                        useBytes(type.size());
+                        compound.putShort(key, input.readShort());
+                        break;
+                    case Tag.INT:
+                        useBytes(type.size());
+                        compound.putInt(key, input.readInt());
+                        break;
+                    case Tag.LONG:
+                        useBytes(type.size());
+                        compound.putLong(key, input.readLong());
+                        break;
+                    case Tag.FLOAT:
+                        useBytes(type.size());
+                        compound.putFloat(key, input.readFloat());
+                        break;
+                    case Tag.DOUBLE:
+                        useBytes(type.size());
+                        compound.putDouble(key, input.readDouble());
+                        break;
+                    default:
+                        compound.put(key, readTag(type));
+                        break;
+                }
+            }
+            if (compound.size() > size) {
+                useBytes(Tag.MAP_ENTRY_SIZE + Integer.BYTES);
+            }
+        }
+
+        decrementDepth();
+
+        return compound;
+    }
+
+    /**
+     * Read compound entry value only if it's selected by current selector node,
+     * otherwise the value will be skipped.
+     *
+     * @param type the type of tag to read.
+     * @param key  the compound entry key.
+     * @return     a tag object, null if the value was skipped.
+     * @throws IOException if any I/O error occurs.
+     */
+    @Nullable
+    protected T readSelected(@NotNull TagType<?> type, @NotNull String key) throws IOException {
+        final TagSelector parent = this.node;
+        final TagSelector child = parent.get(key);
+        if (child == null) {
+            skipTag(type);
+            return null;
+        }
+        this.node = child.isFull() ? null : child;
+        try {
+            return readTag(type);
+        } finally {
+            this.node = parent;
+        }
+    }
+
     /**
      * Read map key and account its size into current instance.
      *
@@ -408,16 +1134,80 @@ public class TagInput<T> implements Closeable {
      */
     @NotNull
     protected String readKey() throws IOException {
-        final String key = input.readUTF();
+        final String key;
+        if (keyCache != null && encoding != null) {
+            final int length = readStringLength();
+            final byte[] bytes = readStringBytes(length);
+            final String cached = keyCache.get(bytes, 0, length);
+            key = cached != null ? cached : decodeString(bytes, length);
+        } else {
+            key = readString();
+        }
         useBytes(Tag.MAP_KEY_SIZE);
         useBytes(Short.BYTES, key.length());
         return key;
     }
 
+    /**
+     * Read String value from delegated input, with a fast path for modified UTF-8 if the
+     * encoding is known.
+     *
+     * @return a String value.
+     * @throws IOException if any I/O error occurs.
+     */
+    @NotNull
+    protected String readString() throws IOException {
+        if (encoding == null || encoding == TagEncoding.NETWORK) {
+            return input.readUTF();
+        }
+        final int length = input.readUnsignedShort();
+        return ModifiedUtf8.decode(readStringBytes(length), 0, length);
+    }
+
+    private int readStringLength() throws IOException {
+        return encoding == TagEncoding.NETWORK ? ((NetworkDataInputStream) input).readUnsignedVarInt32() : input.readUnsignedShort();
+    }
+
+    private byte[] readStringBytes(int length) throws IOException {
+        if (stringBytes == null || stringBytes.length < length) {
+            stringBytes = new byte[Math.max(length, 64)];
+        }
+        input.readFully(stringBytes, 0, length);
+        return stringBytes;
+    }
+
+    @NotNull
+    private String decodeString(byte[] bytes, int length) throws IOException {
+        if (encoding == TagEncoding.NETWORK) {
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+        return ModifiedUtf8.decode(bytes, 0, length);
+    }
+
     @Override
     public void close() throws IOException {
         if (input instanceof Closeable) {
             ((Closeable) input).close();
         }
     }
+
+    private static final class RawBytes {
+
+        private byte[] bytes = new byte[64];
+        private int size = 0;
+
+        void write(byte b) {
+            final int offset = reserve(1);
+            bytes[offset] = b;
+        }
+
+        int reserve(int length) {
+            final int offset = size;
+            if (offset + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, offset + length));
+            }
+            size = offset + length;
+            return offset;
+        }
+    }
 }
@@ -1,14 +1,25 @@
 package com.saicone.nbt.io;
 
 import com.saicone.nbt.Tag;
+import com.saicone.nbt.TagCodec;
 import com.saicone.nbt.TagMapper;
 import com.saicone.nbt.TagType;
+import com.saicone.nbt.nio.LazyCompound;
+import com.saicone.nbt.nio.LazyTag;
+import com.saicone.nbt.util.CompactCompound;
+import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -23,8 +34,21 @@ import java.util.Map;
  */
 public class TagOutput<T> implements Closeable {
 
+    private static final VarHandle INT_BE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
     private final DataOutput output;
     private final TagMapper<T> mapper;
+    private final TagCodec<T> codec;
+    private final TagEncoding encoding;
+
+    private byte[] rawBuffer;
+    private boolean iterative = false;
+    private int frameCount;
+    private Iterator<?>[] frameIterators;
+    private TagType<?>[] frameTypes;
 
     /**
      * Create a tag output that accepts nbt-represented java objects with provided {@link DataOutput}.
@@ -59,6 +83,23 @@ public class TagOutput<T> implements Closeable {
     public TagOutput(@NotNull DataOutput output, @NotNull TagMapper<T> mapper) {
         this.output = output;
         this.mapper = mapper;
+        this.codec = TagCodec.of(mapper);
+        this.encoding = TagEncoding.of(output);
+    }
+
+    /**
+     * Set the iterative mode of this instance, compounds and lists will be written using an explicit
+     * stack of frames instead of recursive method calls, so deeply nested values don't consume thread
+     * stack and can be written from threads with small stack size.
+     *
+     * @param iterative true to write containers without recursion.
+     * @return          this instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TagOutput<T> iterative(boolean iterative) {
+        this.iterative = iterative;
+        return this;
     }
 
     /**
@@ -71,6 +112,16 @@ public class TagOutput<T> implements Closeable {
         return output;
     }
 
+    /**
+     * Get the encoding of delegated data output.
+     *
+     * @return a tag encoding, null if the data output implementation is unknown.
+     */
+    @Nullable
+    public TagEncoding getEncoding() {
+        return encoding;
+    }
+
     /**
      * Get the mapper that is used to extract values.
      *
@@ -88,8 +139,8 @@ public class TagOutput<T> implements Closeable {
      * @throws IOException if any I/O error occurs.
      */
     public void writeUnnamed(@Nullable T t) throws IOException {
-        final Object value = t == null ? null : mapper.extract(t);
-        final TagType<Object> type = mapper.type(t);
+        final Object value = codec.extract(t);
+        final TagType<Object> type = codec.type(t);
         output.writeByte(type.id());
         if (type == TagType.END) {
             return;
@@ -107,8 +158,8 @@ public class TagOutput<T> implements Closeable {
      * @throws IOException if any I/O error occurs.
      */
     public void writeAny(@Nullable T t) throws IOException {
-        final Object value = t == null ? null : mapper.extract(t);
-        final TagType<Object> type = mapper.type(t);
+        final Object value = codec.extract(t);
+        final TagType<Object> type = codec.type(t);
         output.writeByte(type.id());
         writeTag(type, value);
     }
@@ -120,7 +171,7 @@ public class TagOutput<T> implements Closeable {
      * @throws IOException if any I/O error occurs.
      */
     public void writeBedrockFile(@Nullable T t) throws IOException {
-        writeBedrockFile(mapper.size(t), t);
+        writeBedrockFile(encoding == null ? mapper.size(t) : encoding.sizeOfAny(t, mapper), t);
     }
 
     /**
@@ -156,8 +207,8 @@ public class TagOutput<T> implements Closeable {
      * @throws IOException if any I/O error occurs.
      */
     public void writeTag(@Nullable T t) throws IOException {
-        final Object value = t == null ? null : mapper.extract(t);
-        final TagType<Object> type = mapper.type(t);
+        final Object value = codec.extract(t);
+        final TagType<Object> type = codec.type(t);
         writeTag(type, value);
     }
 
@@ -208,10 +259,18 @@ public class TagOutput<T> implements Closeable {
                 output.writeUTF((String) object);
                 break;
             case Tag.LIST:
-                writeList((List<T>) object);
+                if (iterative) {
+                    writeIterative(type, object);
+                } else {
+                    writeList((List<T>) object);
+                }
                 break;
             case Tag.COMPOUND:
-                writeCompound((Map<String, T>) object);
+                if (iterative) {
+                    writeIterative(type, object);
+                } else {
+                    writeCompound((Map<String, T>) object);
+                }
                 break;
             case Tag.INT_ARRAY:
                 writeIntArray((int[]) object);
@@ -243,8 +302,21 @@ public class TagOutput<T> implements Closeable {
      */
     protected void writeIntArray(int[] ints) throws IOException {
         output.writeInt(ints.length);
-        for (int i : ints) {
-            output.writeInt(i);
+        final VarHandle handle = encoding == TagEncoding.JAVA ? INT_BE : encoding == TagEncoding.BEDROCK ? INT_LE : null;
+        if (handle == null) {
+            for (int i : ints) {
+                output.writeInt(i);
+            }
+            return;
+        }
+        final byte[] bytes = rawBuffer();
+        final int chunk = bytes.length / Integer.BYTES;
+        for (int start = 0; start < ints.length; start += chunk) {
+            final int count = Math.min(chunk, ints.length - start);
+            for (int i = 0; i < count; i++) {
+                handle.set(bytes, i * Integer.BYTES, ints[start + i]);
+            }
+            output.write(bytes, 0, count * Integer.BYTES);
         }
     }
 
@@ -256,8 +328,21 @@ public class TagOutput<T> implements Closeable {
      */
     protected void writeLongArray(long[] longs) throws IOException {
         output.writeInt(longs.length);
-        for (long l : longs) {
-            output.writeLong(l);
+        final VarHandle handle = encoding == TagEncoding.JAVA ? LONG_BE : encoding == TagEncoding.BEDROCK ? LONG_LE : null;
+        if (handle == null) {
+            for (long l : longs) {
+                output.writeLong(l);
+            }
+            return;
+        }
+        final byte[] bytes = rawBuffer();
+        final int chunk = bytes.length / Long.BYTES;
+        for (int start = 0; start < longs.length; start += chunk) {
+            final int count = Math.min(chunk, longs.length - start);
+            for (int i = 0; i < count; i++) {
+                handle.set(bytes, i * Long.BYTES, longs[start + i]);
+            }
+            output.write(bytes, 0, count * Long.BYTES);
         }
     }
 
@@ -268,18 +353,22 @@ public class TagOutput<T> implements Closeable {
      * @throws IOException if any I/O error occurs.
      */
     protected void writeList(@NotNull List<T> list) throws IOException {
+        if (list instanceof LazyTag && ((LazyTag) list).isCompatible(encoding) && !((LazyTag) list).isModified()) {
+            writeRaw((LazyTag) list);
+            return;
+        }
         final TagType<Object> type;
         if (list.isEmpty()) {
             type = TagType.END;
         } else {
-            type = mapper.type(list.get(0));
+            type = codec.type(list.get(0));
         }
 
         output.writeByte(type.id());
         output.writeInt(list.size());
 
         for (T t : list) {
-            writeTag(type, t);
+            writeTag(type, codec.extract(t));
         }
     }
 
@@ -290,9 +379,31 @@ public class TagOutput<T> implements Closeable {
      * @throws IOException if any I/O exception occurs.
      */
     protected void writeCompound(@NotNull Map<String, T> map) throws IOException {
+        if (map instanceof CompactCompound && mapper == (Object) TagMapper.DEFAULT) {
+            writeCompactCompound((CompactCompound) map);
+            return;
+        }
+        LazyCompound<T> lazy = null;
+        if (map instanceof LazyCompound && ((LazyCompound<T>) map).isCompatible(encoding)) {
+            lazy = (LazyCompound<T>) map;
+            if (!lazy.isModified()) {
+                writeRaw(lazy);
+                return;
+            }
+        }
         for (Map.Entry<String, T> entry : map.entrySet()) {
-            final Object value = entry.getValue() == null ? null : mapper.extract(entry.getValue());
-            final TagType<Object> type = mapper.type(entry.getValue());
+            if (lazy != null) {
+                if (lazy.writeRaw(entry.getKey(), output)) {
+                    continue;
+                }
+                final ByteBuffer raw = lazy.getRaw(entry.getKey());
+                if (raw != null) {
+                    writeRaw(raw);
+                    continue;
+                }
+            }
+            final Object value = codec.extract(entry.getValue());
+            final TagType<Object> type = codec.type(entry.getValue());
             output.writeByte(type.id());
             if (type != TagType.END) {
                 output.writeUTF(entry.getKey());
@@ -302,6 +413,187 @@ public class TagOutput<T> implements Closeable {
         output.writeByte(Tag.END);
     }
 
+    /**
+     * Write compound or list value using an explicit stack of frames, every nested compound or list
+     * is pushed as a new frame that iterates over its values.<br>
+     * Any other value is written with {@link #writeTag(TagType, Object)}, lazy views and compact compounds
+     * are delegated to its own write methods.
+     *
+     * @param type   the type of container to write.
+     * @param object the container value to write.
+     * @throws IOException if any I/O error occurs.
+     */
+    @SuppressWarnings("unchecked")
+    protected void writeIterative(@NotNull TagType<?> type, @NotNull Object object) throws IOException {
+        final int base = frameCount;
+        try {
+            pushFrame(type, object);
+            while (frameCount > base) {
+                final int top = frameCount - 1;
+                final Iterator<?> iterator = frameIterators[top];
+                if (!iterator.hasNext()) {
+                    if (frameTypes[top] == null) {
+                        output.writeByte(Tag.END);
+                    }
+                    frameIterators[top] = null;
+                    frameCount = top;
+                    continue;
+                }
+
+                final TagType<Object> valueType;
+                final Object value;
+                if (frameTypes[top] == null) {
+                    final Map.Entry<String, T> entry = (Map.Entry<String, T>) iterator.next();
+                    valueType = codec.type(entry.getValue());
+                    value = codec.extract(entry.getValue());
+                    output.writeByte(valueType.id());
+                    if (valueType == TagType.END) {
+                        continue;
+                    }
+                    output.writeUTF(entry.getKey());
+                } else {
+                    valueType = (TagType<Object>) frameTypes[top];
+                    value = codec.extract((T) iterator.next());
+                }
+
+                if (value != null && (valueType.id() == Tag.LIST || valueType.id() == Tag.COMPOUND)) {
+                    pushFrame(valueType, value);
+                } else {
+                    writeTag(valueType, value);
+                }
+            }
+        } finally {
+            for (int i = base; i < frameCount; i++) {
+                frameIterators[i] = null;
+            }
+            frameCount = base;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void pushFrame(@NotNull TagType<?> type, @NotNull Object object) throws IOException {
+        final Iterator<?> iterator;
+        final TagType<?> elementType;
+        if (type.id() == Tag.LIST) {
+            final List<T> list = (List<T>) object;
+            if (list instanceof LazyTag && ((LazyTag) list).isCompatible(encoding) && !((LazyTag) list).isModified()) {
+                writeRaw((LazyTag) list);
+                return;
+            }
+            elementType = list.isEmpty() ? TagType.END : codec.type(list.get(0));
+            output.writeByte(elementType.id());
+            output.writeInt(list.size());
+            iterator = list.iterator();
+        } else {
+            if (object instanceof LazyCompound || (object instanceof CompactCompound && mapper == (Object) TagMapper.DEFAULT)) {
+                // Delegate views with its own write logic, nested values are written by a new iteration
+                writeCompound((Map<String, T>) object);
+                return;
+            }
+            elementType = null;
+            iterator = ((Map<String, T>) object).entrySet().iterator();
+        }
+
+        final int index = frameCount;
+        if (frameIterators == null) {
+            frameIterators = new Iterator<?>[16];
+            frameTypes = new TagType<?>[16];
+        } else if (index == frameIterators.length) {
+            frameIterators = Arrays.copyOf(frameIterators, index * 2);
+            frameTypes = Arrays.copyOf(frameTypes, index * 2);
+        }
+        frameIterators[index] = iterator;
+        frameTypes[index] = elementType;
+        frameCount = index + 1;
+    }
+
+    /**
+     * Write compact compound value without boxing its primitive values.
+     *
+     * @param compound the tag value to write.
+     * @throws IOException if any I/O exception occurs.
+     */
+    protected void writeCompactCompound(@NotNull CompactCompound compound) throws IOException {
+        for (int i = 0; i < compound.size(); i++) {
+            final byte id = compound.getPrimitiveType(i);
+            if (id == Tag.END) {
+                final Object value = compound.getValue(i);
+                final TagType<Object> type = TagType.getType(value);
+                output.writeByte(type.id());
+                if (type != TagType.END) {
+                    output.writeUTF(compound.getKey(i));
+                    writeTag(type, value);
+                }
+                continue;
+            }
+            output.writeByte(id);
+            output.writeUTF(compound.getKey(i));
+            final long value = compound.getPrimitive(i);
+            switch (id) {
+                case Tag.BYTE:
+                    output.writeByte((int) value);
+                    break;
+                case Tag.SHORT:
+                    output.writeShort((int) value);
+                    break;
+                case Tag.INT:
+                    output.writeInt((int) value);
+                    break;
+                case Tag.LONG:
+                    output.writeLong(value);
+                    break;
+                case Tag.FLOAT:
+                    output.writeFloat(Float.intBitsToFloat((int) value));
+                    break;
+                case Tag.DOUBLE:
+                    output.writeDouble(Double.longBitsToDouble(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid tag type: " + id);
+            }
+        }
+        output.writeByte(Tag.END);
+    }
+
+    /**
+     * Write the raw bytes of provided lazy tag, directly from its backing array if possible.
+     *
+     * @param lazy the lazy tag to write.
+     * @throws IOException if any I/O exception occurs.
+     */
+    protected void writeRaw(@NotNull LazyTag lazy) throws IOException {
+        if (!lazy.writeRaw(output)) {
+            writeRaw(lazy.raw());
+        }
+    }
+
+    /**
+     * Write the provided bytes without any encoding.
+     *
+     * @param bytes the bytes to write.
+     * @throws IOException if any I/O exception occurs.
+     */
+    protected void writeRaw(@NotNull ByteBuffer bytes) throws IOException {
+        if (bytes.hasArray()) {
+            output.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+            bytes.position(bytes.limit());
+            return;
+        }
+        final byte[] scratch = rawBuffer();
+        while (bytes.hasRemaining()) {
+            final int length = Math.min(bytes.remaining(), scratch.length);
+            bytes.get(scratch, 0, length);
+            output.write(scratch, 0, length);
+        }
+    }
+
+    private byte[] rawBuffer() {
+        if (rawBuffer == null) {
+            rawBuffer = new byte[8192];
+        }
+        return rawBuffer;
+    }
+
     @Override
     public void close() throws IOException {
         if (output instanceof Closeable) {
@@ -7,12 +7,11 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
-import java.io.StringReader;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,7 +21,10 @@ import java.util.function.Function;
 
 /**
  * Reads SNBT formated tag objects from delegated reader.<br>
- * The compatible format aims to be the same as Minecraft.
+ * The compatible format aims to be the same as Minecraft.<br>
+ * Characters are read into an internal buffer with an explicit cursor, that is refilled from delegated
+ * reader by blocks, so parsing doesn't rely on per-character calls on delegated reader. A tag reader created
+ * from a {@link CharSequence} uses its characters as the whole buffer without any refill.
  *
  * @author Rubenicos
  *
@@ -49,10 +51,37 @@ public class TagReader<T> extends Reader {
     public static final int V1_0 = 1;
 
     private static final int UNKNOWN_CHARACTER = -1;
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final InstancePool<TagReader<Object>> POOL = new InstancePool<>(() -> new TagReader<>("", TagMapper.DEFAULT));
+
+    // Limits to convert decimal numbers with a single correctly rounded operation
+    private static final long MAX_DOUBLE_MANTISSA = 1L << 53;
+    private static final long MAX_FLOAT_MANTISSA = 1L << 24;
+    private static final double[] DOUBLE_POWERS = new double[23];
+    private static final float[] FLOAT_POWERS = new float[11];
+
+    static {
+        double power = 1;
+        for (int i = 0; i < DOUBLE_POWERS.length; i++) {
+            DOUBLE_POWERS[i] = power;
+            if (i < FLOAT_POWERS.length) {
+                FLOAT_POWERS[i] = (float) power;
+            }
+            power *= 10;
+        }
+    }
 
-    private final Reader reader;
+    private Reader reader;
     private final TagMapper<T> mapper;
 
+    // Read window, characters before mark position are discarded on refill
+    private char[] buffer;
+    private int position;
+    private int limit;
+    private int markPosition = -1;
+    private int markLimit;
+    private boolean eof;
+
     private transient int version = LATEST;
 
     /**
@@ -76,7 +105,31 @@ public class TagReader<T> extends Reader {
      */
     @NotNull
     public static <T> TagReader<T> of(@NotNull String s, @NotNull TagMapper<T> mapper) {
-        return of(new StringReader(s), mapper);
+        return of((CharSequence) s, mapper);
+    }
+
+    /**
+     * Create a tag reader that create nbt-represented java objects with provided characters to read.
+     *
+     * @param chars the characters to read.
+     * @return      a newly generated tag reader.
+     */
+    @NotNull
+    public static TagReader<Object> of(@NotNull CharSequence chars) {
+        return of(chars, TagMapper.DEFAULT);
+    }
+
+    /**
+     * Create a tag reader with provided characters to read and {@link TagMapper}.
+     *
+     * @param chars  the characters to read.
+     * @param mapper the mapper to create tag objects by providing a value.
+     * @return       a newly generated tag reader.
+     * @param <T>    the tag object implementation
+     */
+    @NotNull
+    public static <T> TagReader<T> of(@NotNull CharSequence chars, @NotNull TagMapper<T> mapper) {
+        return new TagReader<>(chars, mapper);
     }
 
     /**
@@ -110,8 +163,53 @@ public class TagReader<T> extends Reader {
      * @param mapper the mapper to create tag objects by providing a value.
      */
     public TagReader(@NotNull Reader reader, @NotNull TagMapper<T> mapper) {
-        this.reader = reader.markSupported() ? reader : new BufferedReader(reader);
+        this.reader = reader;
+        this.mapper = mapper;
+        this.buffer = new char[DEFAULT_BUFFER_SIZE];
+    }
+
+    /**
+     * Constructs a tag reader with provided characters and {@link TagMapper}.
+     *
+     * @param chars  the characters to read.
+     * @param mapper the mapper to create tag objects by providing a value.
+     */
+    public TagReader(@NotNull CharSequence chars, @NotNull TagMapper<T> mapper) {
+        this.reader = Reader.nullReader();
         this.mapper = mapper;
+        this.buffer = chars.toString().toCharArray();
+        this.limit = buffer.length;
+        this.eof = true;
+    }
+
+    /**
+     * Reset this reader to read the provided characters, reusing the internal buffer if it's big enough.<br>
+     * Any previous delegated reader is replaced without being closed.
+     *
+     * @param chars the characters to read.
+     * @return      the reader itself.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TagReader<T> reset(@NotNull CharSequence chars) {
+        final int length = chars.length();
+        if (buffer.length < length) {
+            buffer = new char[length];
+        }
+        if (chars instanceof String) {
+            ((String) chars).getChars(0, length, buffer, 0);
+        } else {
+            for (int i = 0; i < length; i++) {
+                buffer[i] = chars.charAt(i);
+            }
+        }
+        this.reader = Reader.nullReader();
+        this.position = 0;
+        this.limit = length;
+        this.markPosition = -1;
+        this.markLimit = 0;
+        this.eof = true;
+        return this;
     }
 
     /**
@@ -322,9 +420,10 @@ public class TagReader<T> extends Reader {
     }
 
     /**
-     * Get the delegated reader.
+     * Get the delegated reader.<br>
+     * Take in count that characters may be already consumed from delegated reader into internal buffer.
      *
-     * @return a reader that is used to read character.
+     * @return a reader that is used to read character, or an empty reader if characters were provided directly.
      */
     @NotNull
     public Reader getReader() {
@@ -510,6 +609,19 @@ public class TagReader<T> extends Reader {
      */
     @NotNull
     protected <A extends T> A readUnquotedTag(int first) throws IOException {
+        // Try to read number directly from read window when first character is still buffered
+        if (isNumberStart(first) && position > 0 && buffer[position - 1] == first) {
+            markPosition = position - 1;
+            markLimit = Integer.MAX_VALUE;
+            scanUnquoted();
+            final A number = readNumber(buffer, markPosition, position);
+            if (number != null) {
+                markPosition = -1;
+                return number;
+            }
+            position = markPosition + 1;
+            markPosition = -1;
+        }
         final String unquoted = readUnquoted(first);
         // Early empty string check
         if (unquoted.isBlank()) {
@@ -603,14 +715,14 @@ public class TagReader<T> extends Reader {
                     // Parse integer number
                     if (end > 3) {
                         try {
-                            final long number = Long.parseLong(trim.substring(2, end).replace('_', '\0'), radix);
+                            final long number = Long.parseLong(trim.substring(2, end).replace("_", ""), radix);
                             trim = number + trim.substring(end);
                         } catch (NumberFormatException ignored) { }
                     }
                 }
             }
 
-            trim = trim.replace('_', '\0');
+            trim = trim.replace("_", "");
 
             type = getType(last);
             if (type != null) {
@@ -647,12 +759,12 @@ public class TagReader<T> extends Reader {
         switch (type.id()) {
             case Tag.BYTE:
                 if (unsigned) {
-                    return mapper.buildAny(TagType.BYTE, (byte) Integer.parseUnsignedInt(trim));
+                    return mapper.buildAny(TagType.BYTE, (byte) parseUnsigned(trim, 0xFF, "byte"));
                 }
                 return mapper.buildAny(TagType.BYTE, Byte.parseByte(trim));
             case Tag.SHORT:
                 if (unsigned) {
-                    return mapper.buildAny(TagType.SHORT, (short) Integer.parseUnsignedInt(trim));
+                    return mapper.buildAny(TagType.SHORT, (short) parseUnsigned(trim, 0xFFFF, "short"));
                 }
                 return mapper.buildAny(TagType.SHORT, Short.parseShort(trim));
             case Tag.INT:
@@ -671,6 +783,249 @@ public class TagReader<T> extends Reader {
         }
     }
 
+    /**
+     * Read number tag object from provided characters in a single pass, without creating
+     * any intermediary string.<br>
+     * This method only reads the number representations that can be converted in the exact same
+     * way as string-based parsing, any other value (or invalid number) must be read from its string.
+     *
+     * @param chars the characters to read.
+     * @param start the start index to read, inclusive.
+     * @param end   the end index to read, exclusive.
+     * @return      a tag object if the characters are a supported number, null otherwise.
+     * @param <A>   the implementation of tag object.
+     */
+    @Nullable
+    protected <A extends T> A readNumber(char[] chars, int start, int end) {
+        if (end - start < 1) {
+            return null;
+        }
+        final boolean modern = version >= V1_21_5;
+        final char last = chars[end - 1];
+        final char tolast = end - start > 1 ? chars[end - 2] : '\0';
+        if (chars[start] == '_' || last == '_') {
+            return null;
+        }
+
+        // Hexadecimal and binary numbers
+        if (modern && end - start >= 3 && chars[start] == '0') {
+            final char prefix = chars[start + 1];
+            if (prefix == 'x' || prefix == 'X') {
+                return readRadixNumber(chars, start, end, 16);
+            } else if (prefix == 'b' || prefix == 'B') {
+                return readRadixNumber(chars, start, end, 2);
+            }
+        }
+
+        // Suffixes
+        final TagType<?> type = getType(last);
+        boolean unsigned = false;
+        int numberEnd = end;
+        if (type != null) {
+            if (modern && type.isInteger() && isSignednessSuffix(tolast)) {
+                unsigned = tolast == 'u' || tolast == 'U';
+                numberEnd = end - 2;
+            } else {
+                numberEnd = end - 1;
+            }
+        } else if (modern && isSignednessSuffix(last)) {
+            return null;
+        }
+
+        int i = start;
+        final boolean negative = chars[i] == '-';
+        if (negative || chars[i] == '+') {
+            i++;
+        }
+        // Digits are accumulated while they fit on long, fraction digits are counted as negative scale
+        long value = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean decimal = false;
+        boolean exponent = false;
+        int exponentValue = 0;
+        boolean exponentNegative = false;
+        int exponentDigits = 0;
+        for (; i < numberEnd; i++) {
+            final char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                if (exponent) {
+                    if (exponentValue > 1000) {
+                        return null;
+                    }
+                    exponentValue = exponentValue * 10 + (c - '0');
+                    exponentDigits++;
+                    continue;
+                }
+                if (value > (Long.MAX_VALUE - 9) / 10) {
+                    return null;
+                }
+                value = value * 10 + (c - '0');
+                digits++;
+                if (decimal) {
+                    scale--;
+                }
+            } else if (c == '_') {
+                // Only allowed between digits
+                if (!modern || !isDigit(chars[i - 1]) || i + 1 >= numberEnd || !isDigit(chars[i + 1])) {
+                    return null;
+                }
+            } else if (c == '.' && !decimal && !exponent) {
+                decimal = true;
+            } else if ((c == 'e' || c == 'E') && modern && decimal && !exponent && digits > 0) {
+                exponent = true;
+                if (i + 1 < numberEnd && (chars[i + 1] == '-' || chars[i + 1] == '+')) {
+                    exponentNegative = chars[++i] == '-';
+                }
+            } else {
+                return null;
+            }
+        }
+        if (digits < 1 || (exponent && exponentDigits < 1)) {
+            return null;
+        }
+
+        if (!decimal) {
+            if (type != null && type.isDecimal()) {
+                return null;
+            }
+            return readInteger(type == null ? TagType.INT : type, unsigned, negative, negative ? -value : value);
+        }
+        if (unsigned || (type != null && !type.isDecimal())) {
+            return null;
+        }
+
+        final int power = scale + (exponentNegative ? -exponentValue : exponentValue);
+        if (type == TagType.FLOAT) {
+            if (value > MAX_FLOAT_MANTISSA || power < -10 || power > 10) {
+                return null;
+            }
+            float f = (float) value;
+            f = power >= 0 ? f * FLOAT_POWERS[power] : f / FLOAT_POWERS[-power];
+            return mapper.buildAny(TagType.FLOAT, negative ? -f : f);
+        } else {
+            if (value > MAX_DOUBLE_MANTISSA || power < -22 || power > 22) {
+                return null;
+            }
+            double d = (double) value;
+            d = power >= 0 ? d * DOUBLE_POWERS[power] : d / DOUBLE_POWERS[-power];
+            return mapper.buildAny(TagType.DOUBLE, negative ? -d : d);
+        }
+    }
+
+    /**
+     * Read hexadecimal or binary number tag object from provided characters, that start with
+     * number prefix.
+     *
+     * @param chars the characters to read.
+     * @param start the start index to read, inclusive.
+     * @param end   the end index to read, exclusive.
+     * @param radix the number radix.
+     * @return      a tag object if the characters are a supported number, null otherwise.
+     * @param <A>   the implementation of tag object.
+     */
+    @Nullable
+    protected <A extends T> A readRadixNumber(char[] chars, int start, int end, int radix) {
+        final char last = chars[end - 1];
+        final char tolast = chars[end - 2];
+        final int numberEnd;
+        final TagType<?> type;
+        boolean unsigned = false;
+        if (isIntegerSuffix(last)) {
+            type = getType(last);
+            if (isSignednessSuffix(tolast)) {
+                // Same as string-based parsing, signedness is only allowed on integer types
+                if (!type.isInteger()) {
+                    return null;
+                }
+                unsigned = tolast == 'u' || tolast == 'U';
+                numberEnd = end - 2;
+            } else {
+                numberEnd = end - 1;
+            }
+        } else if (isSignednessSuffix(last) || isDecimalSuffix(last)) {
+            return null;
+        } else {
+            type = TagType.INT;
+            numberEnd = end;
+        }
+        if (numberEnd - start <= 3) {
+            return null;
+        }
+        long value = 0;
+        int digits = 0;
+        for (int i = start + 2; i < numberEnd; i++) {
+            final char c = chars[i];
+            if (c == '_') {
+                continue;
+            }
+            final int digit = Character.digit(c, radix);
+            if (digit < 0 || value > (Long.MAX_VALUE - digit) / radix) {
+                return null;
+            }
+            value = value * radix + digit;
+            digits++;
+        }
+        if (digits < 1) {
+            return null;
+        }
+        return readInteger(type, unsigned, false, value);
+    }
+
+    @Nullable
+    private <A extends T> A readInteger(@NotNull TagType<?> type, boolean unsigned, boolean negative, long value) {
+        // Invalid unsigned values are rejected by string-based parsing
+        if (unsigned && (negative || value < 0)) {
+            return null;
+        }
+        switch (type.id()) {
+            case Tag.BYTE:
+                if (unsigned ? value > 0xFF : value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+                    return null;
+                }
+                return mapper.buildAny(TagType.BYTE, (byte) value);
+            case Tag.SHORT:
+                if (unsigned ? value > 0xFFFF : value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                    return null;
+                }
+                return mapper.buildAny(TagType.SHORT, (short) value);
+            case Tag.INT:
+                if (unsigned ? value > 0xFFFFFFFFL : value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                    return null;
+                }
+                return mapper.buildAny(TagType.INT, (int) value);
+            case Tag.LONG:
+                return mapper.buildAny(TagType.LONG, value);
+            default:
+                return null;
+        }
+    }
+
+    private static int parseUnsigned(@NotNull String s, int max, @NotNull String type) {
+        final int value = Integer.parseUnsignedInt(s);
+        if (Integer.compareUnsigned(value, max) > 0) {
+            throw new NumberFormatException("String value " + s + " exceeds range of unsigned " + type + ".");
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isNumberStart(int c) {
+        return c >= '0' && c <= '9' || c == '-' || c == '+' || c == '.';
+    }
+
+    // Move cursor after unquoted characters, the characters from mark position are kept on read window
+    private void scanUnquoted() throws IOException {
+        final boolean operations = version >= V1_21_5;
+        char c;
+        while ((position < limit || fill()) && (isUnquoted(c = buffer[position]) || ((c == '(' || c == ')') && operations))) {
+            position++;
+        }
+    }
+
     /**
      * Read unquoted value.
      *
@@ -698,17 +1053,18 @@ public class TagReader<T> extends Reader {
     protected String readUnquoted(int first) throws IOException {
         final StringBuilder builder = new StringBuilder();
         builder.append((char) first);
-        mark(1);
-        int i;
-        while ((i = read()) != UNKNOWN_CHARACTER) {
-            if (isUnquoted(i) || ((i == '(' || i == ')') && version >= V1_21_5)) {
-                mark(1);
-                builder.append((char) i);
-            } else {
+        final boolean operations = version >= V1_21_5;
+        while (fill()) {
+            final int start = position;
+            char c;
+            while (position < limit && (isUnquoted(c = buffer[position]) || ((c == '(' || c == ')') && operations))) {
+                position++;
+            }
+            builder.append(buffer, start, position - start);
+            if (position < limit) {
                 break;
             }
         }
-        reset();
         return builder.toString();
     }
 
@@ -849,6 +1205,13 @@ public class TagReader<T> extends Reader {
                 return builder.toString();
             } else {
                 builder.append((char) i);
+                // Append every plain character that is already buffered
+                final int start = position;
+                char c;
+                while (position < limit && (c = buffer[position]) != quote && c != '\\') {
+                    position++;
+                }
+                builder.append(buffer, start, position - start);
             }
         }
         throw new IOException("Non closed quoted string: " + builder);
@@ -918,16 +1281,135 @@ public class TagReader<T> extends Reader {
         if (type != null) {
             switch (type.id()) {
                 case Tag.BYTE_ARRAY:
-                    return readArrayTag(type, true, Byte::parseByte, mapper::byteArray);
+                    return readNumberArrayTag(type, true, Byte.MIN_VALUE, Byte.MAX_VALUE);
                 case Tag.INT_ARRAY:
-                    return readArrayTag(type, false, Integer::parseInt, mapper::intArray);
+                    return readNumberArrayTag(type, false, Integer.MIN_VALUE, Integer.MAX_VALUE);
                 case Tag.LONG_ARRAY:
-                    return readArrayTag(type, true, Long::parseLong, mapper::longArray);
+                    return readNumberArrayTag(type, true, Long.MIN_VALUE, Long.MAX_VALUE);
             }
         }
         throw new IOException("Cannot read invalid tag array for suffix: " + (char) id);
     }
 
+    /**
+     * Read number array tag with associated type, the values are parsed directly from read window
+     * into a primitive array.
+     *
+     * @param type   the type of tag array.
+     * @param suffix the accepted suffix value.
+     * @param min    the minimum value of array elements.
+     * @param max    the maximum value of array elements.
+     * @return       an array tag object.
+     * @param <A>    the implementation of tag object.
+     * @throws IOException if any I/O error occurs.
+     */
+    @NotNull
+    protected <A extends T> A readNumberArrayTag(@NotNull TagType<?> type, boolean suffix, long min, long max) throws IOException {
+        long[] array = new long[16];
+        int size = 0;
+        if (skip(']')) {
+            return mapper.buildAny(type, toArray(type, array, 0));
+        }
+        do {
+            skipSpaces();
+            markPosition = position;
+            markLimit = Integer.MAX_VALUE;
+            scanUnquoted();
+            final int start = markPosition;
+            final int end = position;
+            markPosition = -1;
+
+            boolean parsed = false;
+            long value = 0;
+            if (end > start) {
+                int i = start;
+                int last = end;
+                if (suffix && (buffer[last - 1] == type.suffix() || buffer[last - 1] == Character.toLowerCase(type.suffix()))) {
+                    last--;
+                }
+                final boolean negative = buffer[i] == '-';
+                if (negative || buffer[i] == '+') {
+                    i++;
+                }
+                parsed = i < last;
+                // Accumulate as negative value, so min value can be parsed
+                for (; i < last; i++) {
+                    final char c = buffer[i];
+                    if (c < '0' || c > '9' || value < (Long.MIN_VALUE + (c - '0')) / 10) {
+                        parsed = false;
+                        break;
+                    }
+                    value = value * 10 - (c - '0');
+                }
+                if (parsed) {
+                    if (!negative) {
+                        value = -value;
+                    }
+                    parsed = (negative || value >= 0) && value >= min && value <= max;
+                }
+            }
+            if (!parsed) {
+                position = start;
+                value = readArrayValue(type, suffix);
+            }
+
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2);
+            }
+            array[size++] = value;
+        } while (skip(','));
+        if (!skip(']')) {
+            throw new IOException("Array tag must end with ']': " + Arrays.toString(Arrays.copyOf(array, size)));
+        }
+
+        return mapper.buildAny(type, toArray(type, array, size));
+    }
+
+    @NotNull
+    private Object toArray(@NotNull TagType<?> type, long[] array, int size) throws IOException {
+        switch (type.id()) {
+            case Tag.BYTE_ARRAY:
+                final byte[] bytes = new byte[size];
+                for (int i = 0; i < size; i++) {
+                    bytes[i] = (byte) array[i];
+                }
+                return mapper.byteArray(bytes);
+            case Tag.INT_ARRAY:
+                final int[] ints = new int[size];
+                for (int i = 0; i < size; i++) {
+                    ints[i] = (int) array[i];
+                }
+                return mapper.intArray(ints);
+            case Tag.LONG_ARRAY:
+                return mapper.longArray(size == array.length ? array : Arrays.copyOf(array, size));
+            default:
+                throw new IOException("Invalid array tag type: " + type.name());
+        }
+    }
+
+    private long readArrayValue(@NotNull TagType<?> type, boolean suffix) throws IOException {
+        String unquoted = readUnquoted();
+        if (suffix) {
+            final char last = unquoted.charAt(unquoted.length() - 1);
+            if (last == type.suffix() || last == Character.toLowerCase(type.suffix())) {
+                unquoted = unquoted.substring(0, unquoted.length() - 1);
+            }
+        }
+        if (unquoted.equals("true")) {
+            unquoted = "1";
+        } else if (unquoted.equals("false")) {
+            unquoted = "0";
+        }
+        switch (type.id()) {
+            case Tag.BYTE_ARRAY:
+                return Byte.parseByte(unquoted);
+            case Tag.INT_ARRAY:
+                return Integer.parseInt(unquoted);
+            default:
+                return Long.parseLong(unquoted);
+        }
+    }
+
     /**
      * Read array tag with associated type.
      *
@@ -982,6 +1464,9 @@ public class TagReader<T> extends Reader {
             throw new IOException("List tag must start with '['");
         }
         final List<T> list = new ArrayList<>();
+        if (skip(']')) {
+            return mapper.buildAny(TagType.LIST, list);
+        }
         T value;
         boolean heterogenous = false;
         while ((value = readTag()) != null) {
@@ -1043,8 +1528,12 @@ public class TagReader<T> extends Reader {
     protected <A extends T> A readCompoundTag0() throws IOException {
         final Map<String, T> map = new HashMap<>();
         String key;
-        while (!(key = readKey()).isEmpty()) {
+        while (true) {
+            key = readKey();
             if (!skip(':')) {
+                if (key.isEmpty()) {
+                    break;
+                }
                 throw new IOException("Compound key must have colon separator: " + key);
             }
             final T value = readTag();
@@ -1064,19 +1553,81 @@ public class TagReader<T> extends Reader {
         return mapper.buildAny(TagType.COMPOUND, map);
     }
 
+    /**
+     * Make sure that at least one character is available on internal buffer, by reading
+     * the next block of characters from delegated reader if required.
+     *
+     * @return true if any character is available, false if the end of stream was reached.
+     * @throws IOException if any I/O error occurs.
+     */
+    protected boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        if (eof) {
+            return false;
+        }
+        // Keep marked characters while read-ahead limit is not exceeded
+        int start = position;
+        if (markPosition >= 0) {
+            if (position - markPosition > markLimit) {
+                markPosition = -1;
+            } else {
+                start = markPosition;
+            }
+        }
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, limit - start);
+            if (markPosition >= 0) {
+                markPosition -= start;
+            }
+            position -= start;
+            limit -= start;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read;
+        while ((read = reader.read(buffer, limit, buffer.length - limit)) == 0);
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
     @Override
     public int read() throws IOException {
-        return reader.read();
+        if (position < limit || fill()) {
+            return buffer[position++];
+        }
+        return UNKNOWN_CHARACTER;
     }
 
     @Override
     public int read(@NotNull char[] cbuf, int off, int len) throws IOException {
-        return reader.read(cbuf, off, len);
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        final int count = Math.min(len, limit - position);
+        System.arraycopy(buffer, position, cbuf, off, count);
+        position += count;
+        return count;
     }
 
     @Override
     public long skip(long n) throws IOException {
-        return reader.skip(n);
+        long skipped = 0;
+        while (skipped < n && fill()) {
+            final int count = (int) Math.min(n - skipped, limit - position);
+            position += count;
+            skipped += count;
+        }
+        return skipped;
     }
 
     /**
@@ -1087,16 +1638,12 @@ public class TagReader<T> extends Reader {
      * @throws IOException if any I/O error occurs.
      */
     public boolean skip(char c) throws IOException {
-        mark(1);
-        int i;
-        while (Character.isWhitespace((i = read()))) {
-            mark(1);
-        }
-        if (i != c) {
-            reset();
-            return false;
+        skipSpaces();
+        if (fill() && buffer[position] == c) {
+            position++;
+            return true;
         }
-        return true;
+        return false;
     }
 
     /**
@@ -1136,19 +1683,23 @@ public class TagReader<T> extends Reader {
      * @throws IOException if any I/O error occurs.
      */
     public long skipSpaces() throws IOException {
-        mark(1);
         long count = 0;
-        while (Character.isWhitespace(read())) {
-            count++;
-            mark(1);
+        while (fill()) {
+            final int start = position;
+            while (position < limit && Character.isWhitespace(buffer[position])) {
+                position++;
+            }
+            count += position - start;
+            if (position < limit) {
+                break;
+            }
         }
-        reset();
         return count;
     }
 
     @Override
     public boolean ready() throws IOException {
-        return reader.ready();
+        return position < limit || (!eof && reader.ready());
     }
 
     @Override
@@ -1158,12 +1709,16 @@ public class TagReader<T> extends Reader {
 
     @Override
     public void mark(int readAheadLimit) throws IOException {
-        reader.mark(readAheadLimit);
+        markPosition = position;
+        markLimit = readAheadLimit;
     }
 
     @Override
     public void reset() throws IOException {
-        reader.reset();
+        if (markPosition < 0) {
+            throw new IOException("Cannot reset reader without a valid mark");
+        }
+        position = markPosition;
     }
 
     @Override
@@ -1191,8 +1746,22 @@ public class TagReader<T> extends Reader {
      * @param <T>    the tag object implementation.
      * @param <A>    the implementation of tag object.
      */
+    @SuppressWarnings("unchecked")
     public static <T, A extends T> A fromString(@NotNull String s, @NotNull TagMapper<T> mapper) {
-        try (StringReader reader = new StringReader(s); TagReader<T> tagReader = new TagReader<>(reader, mapper)) {
+        if (mapper == TagMapper.DEFAULT) {
+            final TagReader<Object> tagReader = POOL.acquire();
+            try {
+                return (A) tagReader.reset(s).readTag();
+            } catch (IOException e) {
+                throw new RuntimeException("Cannot read object from SNBT", e);
+            } finally {
+                // Avoid to keep large buffers alive
+                if (tagReader.buffer.length <= DEFAULT_BUFFER_SIZE) {
+                    POOL.release(tagReader);
+                }
+            }
+        }
+        try (TagReader<T> tagReader = new TagReader<>(s, mapper)) {
             return tagReader.readTag();
         } catch (IOException e) {
             throw new RuntimeException("Cannot read object from SNBT", e);
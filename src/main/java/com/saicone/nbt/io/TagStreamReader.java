@@ -0,0 +1,603 @@
+package com.saicone.nbt.io;
+
+import com.saicone.nbt.Tag;
+import com.saicone.nbt.TagMapper;
+import com.saicone.nbt.TagType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * <b>Tag Stream Reader</b><br>
+ * A tag stream reader provides a pull-based way to read tags from a delegated {@link TagInput}
+ * as a sequence of events, without creating the whole tag object tree into memory.<br>
+ * Every compound entry produce a {@link Event#NAME} event followed by its value event, while list
+ * elements only produce value events, containers start with {@link Event#START_COMPOUND} or {@link Event#START_LIST}
+ * and finish with {@link Event#END}.<br>
+ * Primitive, string and array values are only read when any getter method is called, if
+ * the value was not consumed it will be skipped on next event.
+ *
+ * @author Rubenicos
+ *
+ * @param <T> the tag object implementation.
+ */
+public class TagStreamReader<T> implements Closeable {
+
+    private static final int COMPOUND_FRAME = -1;
+
+    private final TagInput<T> input;
+
+    // Stack of containers, compounds are represented with COMPOUND_FRAME on remaining elements
+    private byte[] frameTypes = new byte[16];
+    private int[] frameRemaining = new int[16];
+    private int depth = 0;
+
+    private boolean started = false;
+    private Event event;
+    private TagType<?> type;
+    private String name;
+    private int size;
+
+    private boolean valueNext = false;
+    private boolean pending = false;
+    private long bits;
+    private Object value;
+
+    /**
+     * Create a stream reader that read unlimited data from provided {@link DataInput}.
+     *
+     * @param input the input to read tags.
+     * @return      a newly generated stream reader.
+     */
+    @NotNull
+    public static TagStreamReader<Object> of(@NotNull DataInput input) {
+        return of(input, TagMapper.DEFAULT);
+    }
+
+    /**
+     * Create a stream reader that read unlimited data from provided {@link DataInput} and
+     * use a {@link TagMapper} to create tag objects.
+     *
+     * @param input  the input to read tags.
+     * @param mapper the mapper to create tag objects by providing a value.
+     * @return       a newly generated stream reader.
+     * @param <T>    the tag object implementation.
+     */
+    @NotNull
+    public static <T> TagStreamReader<T> of(@NotNull DataInput input, @NotNull TagMapper<T> mapper) {
+        return new TagStreamReader<>(new TagInput<>(input, mapper).unlimited());
+    }
+
+    /**
+     * Constructs a stream reader with provided {@link TagInput}.
+     *
+     * @param input the tag input to read tags.
+     */
+    public TagStreamReader(@NotNull TagInput<T> input) {
+        this.input = input;
+    }
+
+    /**
+     * Get the delegated tag input.
+     *
+     * @return the tag input used to read tags.
+     */
+    @NotNull
+    public TagInput<T> getInput() {
+        return input;
+    }
+
+    /**
+     * Get the current event.
+     *
+     * @return a stream event, null if reading is not started.
+     */
+    @Nullable
+    public Event getEvent() {
+        return event;
+    }
+
+    /**
+     * Get the type of the current tag, on {@link Event#END} this is the type of container that was closed.
+     *
+     * @return a tag type, null if reading is not started.
+     */
+    @Nullable
+    public TagType<?> getType() {
+        return type;
+    }
+
+    /**
+     * Get the name of the current compound entry or root tag.
+     *
+     * @return a tag name, null if current tag is a list element.
+     */
+    @Nullable
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the size of the current list.
+     *
+     * @return the amount of elements declared by list header, {@code -1} if current event is not {@link Event#START_LIST}.
+     */
+    public int getSize() {
+        return event == Event.START_LIST ? size : -1;
+    }
+
+    /**
+     * Get the current nested container depth.
+     *
+     * @return a container depth, {@code 0} if current tag is the root one.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Get the element type of the list that contains the current tag.
+     *
+     * @return a tag type, null if current tag is not inside a list.
+     */
+    @Nullable
+    public TagType<?> getListType() {
+        if (depth < 1 || frameRemaining[depth - 1] == COMPOUND_FRAME) {
+            return null;
+        }
+        return TagType.getType(frameTypes[depth - 1]);
+    }
+
+    /**
+     * Start reading with unnamed tag format.
+     *
+     * @return the first event.
+     * @throws IOException if any I/O error occurs.
+     */
+    @NotNull
+    public Event startUnnamed() throws IOException {
+        return start(true);
+    }
+
+    /**
+     * Start reading with any tag format.<br>
+     * This format is used primarily on network connections.
+     *
+     * @return the first event.
+     * @throws IOException if any I/O error occurs.
+     */
+    @NotNull
+    public Event startAny() throws IOException {
+        return start(false);
+    }
+
+    /**
+     * Start reading with bedrock file format.<br>
+     * This method will skip the header.
+     *
+     * @return the first event.
+     * @throws IOException if any I/O error occurs.
+     */
+    @NotNull
+    public Event startBedrockFile() throws IOException {
+        input.skipBytes(8);
+        return start(false);
+    }
+
+    private Event start(boolean named) throws IOException {
+        if (started) {
+            throw new IllegalStateException("The stream reader is already started");
+        }
+        started = true;
+        final byte id = input.getInput().readByte();
+        type = TagType.getType(id);
+        if (type == TagType.END) {
+            return event = Event.END;
+        }
+        if (named) {
+            name = input.getInput().readUTF();
+        }
+        return enter();
+    }
+
+    /**
+     * Check if the stream reader has more events to read.
+     *
+     * @return true if next event is available.
+     */
+    public boolean hasNext() {
+        return !started || valueNext || depth > 0;
+    }
+
+    /**
+     * Read the next event, if reading is not started the unnamed tag format will be used.
+     *
+     * @return the next event.
+     * @throws IOException if any I/O error occurs.
+     */
+    @NotNull
+    public Event next() throws IOException {
+        if (!started) {
+            return startUnnamed();
+        }
+        if (!hasNext()) {
+            throw new NoSuchElementException("The stream reader doesn't have more events");
+        }
+        skipValue();
+        if (valueNext) {
+            valueNext = false;
+            return enter();
+        }
+
+        final int top = depth - 1;
+        if (frameRemaining[top] == COMPOUND_FRAME) {
+            final byte id = input.getInput().readByte();
+            if (id == Tag.END) {
+                pop();
+                return event = Event.END;
+            }
+            type = TagType.getType(id);
+            name = input.readKey();
+            valueNext = true;
+            return event = Event.NAME;
+        }
+
+        if (frameRemaining[top] == 0) {
+            pop();
+            return event = Event.END;
+        }
+        frameRemaining[top]--;
+        type = TagType.getType(frameTypes[top]);
+        name = null;
+        return enter();
+    }
+
+    /**
+     * Skip the current value, including the compound entry value if the current event is {@link Event#NAME}
+     * or the rest of container if the current event is {@link Event#START_COMPOUND} or {@link Event#START_LIST}.<br>
+     * After calling this method, the next event will be the next element of parent container.
+     *
+     * @throws IOException if any I/O error occurs.
+     */
+    public void skip() throws IOException {
+        if (valueNext) {
+            valueNext = false;
+            input.skipTag(type);
+        } else if (pending) {
+            skipValue();
+        } else if (event == Event.START_COMPOUND) {
+            pop();
+            input.skipCompound();
+        } else if (event == Event.START_LIST) {
+            final int top = depth - 1;
+            final TagType<?> elementType = TagType.getType(frameTypes[top]);
+            final int remaining = frameRemaining[top];
+            pop();
+            input.skipElements(elementType, remaining);
+        }
+    }
+
+    /**
+     * Read the current value as tag object, if the current event is {@link Event#NAME} the entry value will be read,
+     * and if the current event is {@link Event#START_COMPOUND} or {@link Event#START_LIST} the rest of container will be read.<br>
+     * After calling this method, the next event will be the next element of parent container.
+     *
+     * @return    a tag object.
+     * @param <A> the implementation of tag object.
+     * @throws IOException if any I/O error occurs.
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends T> A readTag() throws IOException {
+        if (valueNext) {
+            valueNext = false;
+            return input.readTag(type);
+        } else if (pending) {
+            pending = false;
+            return input.readTag(type);
+        } else if (event == Event.START_COMPOUND) {
+            pop();
+            return (A) input.getMapper().buildAny(type, input.readCompound());
+        } else if (event == Event.START_LIST) {
+            final int top = depth - 1;
+            final TagType<?> elementType = TagType.getType(frameTypes[top]);
+            final int remaining = frameRemaining[top];
+            final List<T> list = new ArrayList<>(remaining);
+            for (int i = 0; i < remaining; i++) {
+                list.add(input.readTag(elementType));
+            }
+            pop();
+            return (A) input.getMapper().buildAny(type, list);
+        }
+        throw new IllegalStateException("Cannot read tag on " + event + " event");
+    }
+
+    /**
+     * Get the current value as byte.
+     *
+     * @return a byte value.
+     * @throws IOException if any I/O error occurs.
+     */
+    public byte getByte() throws IOException {
+        value(Tag.BYTE);
+        return (byte) bits;
+    }
+
+    /**
+     * Get the current value as boolean.
+     *
+     * @return a boolean value.
+     * @throws IOException if any I/O error occurs.
+     */
+    public boolean getBoolean() throws IOException {
+        value(Tag.BYTE);
+        return bits > 0;
+    }
+
+    /**
+     * Get the current value as short.
+     *
+     * @return a short value.
+     * @throws IOException if any I/O error occurs.
+     */
+    public short getShort() throws IOException {
+        value(Tag.SHORT);
+        return (short) bits;
+    }
+
+    /**
+     * Get the current value as integer.
+     *
+     * @return an integer value.
+     * @throws IOException if any I/O error occurs.
+     */
+    public int getInt() throws IOException {
+        value(Tag.INT);
+        return (int) bits;
+    }
+
+    /**
+     * Get the current value as long.
+     *
+     * @return a long value.
+     * @throws IOException if any I/O error occurs.
+     */
+    public long getLong() throws IOException {
+        value(Tag.LONG);
+        return bits;
+    }
+
+    /**
+     * Get the current value as float.
+     *
+     * @return a float value.
+     * @throws IOException if any I/O error occurs.
+     */
+    public float getFloat() throws IOException {
+        value(Tag.FLOAT);
+        return Float.intBitsToFloat((int) bits);
+    }
+
+    /**
+     * Get the current value as double.
+     *
+     * @return a double value.
+     * @throws IOException if any I/O error occurs.
+     */
+    public double getDouble() throws IOException {
+        value(Tag.DOUBLE);
+        return Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * Get the current numeric value, without any type check.
+     *
+     * @return a number value.
+     * @throws IOException if any I/O error occurs.
+     */
+    @NotNull
+    public Number getNumber() throws IOException {
+        switch (type.id()) {
+            case Tag.BYTE:
+                return getByte();
+            case Tag.SHORT:
+                return getShort();
+            case Tag.INT:
+                return getInt();
+            case Tag.LONG:
+                return getLong();
+            case Tag.FLOAT:
+                return getFloat();
+            case Tag.DOUBLE:
+                return getDouble();
+            default:
+                throw new IllegalStateException("The current value is not a number, it's " + type.name());
+        }
+    }
+
+    /**
+     * Get the current value as string.
+     *
+     * @return a string value.
+     * @throws IOException if any I/O error occurs.
+     */
+    @NotNull
+    public String getString() throws IOException {
+        value(Tag.STRING);
+        return (String) value;
+    }
+
+    /**
+     * Get the current value as byte array.
+     *
+     * @return a byte array value.
+     * @throws IOException if any I/O error occurs.
+     */
+    public byte[] getByteArray() throws IOException {
+        value(Tag.BYTE_ARRAY);
+        return (byte[]) value;
+    }
+
+    /**
+     * Get the current value as int array.
+     *
+     * @return an int array value.
+     * @throws IOException if any I/O error occurs.
+     */
+    public int[] getIntArray() throws IOException {
+        value(Tag.INT_ARRAY);
+        return (int[]) value;
+    }
+
+    /**
+     * Get the current value as long array.
+     *
+     * @return a long array value.
+     * @throws IOException if any I/O error occurs.
+     */
+    public long[] getLongArray() throws IOException {
+        value(Tag.LONG_ARRAY);
+        return (long[]) value;
+    }
+
+    private Event enter() throws IOException {
+        switch (type.id()) {
+            case Tag.BYTE:
+            case Tag.SHORT:
+            case Tag.INT:
+            case Tag.LONG:
+            case Tag.FLOAT:
+            case Tag.DOUBLE:
+            case Tag.BYTE_ARRAY:
+            case Tag.STRING:
+            case Tag.INT_ARRAY:
+            case Tag.LONG_ARRAY:
+                pending = true;
+                value = null;
+                return event = Event.VALUE;
+            case Tag.LIST:
+                final byte id = input.getInput().readByte();
+                final int size = input.getInput().readInt();
+                if (id == Tag.END && size > 0) {
+                    throw new IllegalArgumentException("Cannot read list without tag type");
+                }
+                if (size < 0) {
+                    throw new IllegalArgumentException("Cannot read list with negative size");
+                }
+                push(id, size);
+                this.size = size;
+                return event = Event.START_LIST;
+            case Tag.COMPOUND:
+                push(Tag.COMPOUND, COMPOUND_FRAME);
+                return event = Event.START_COMPOUND;
+            default:
+                throw new IllegalArgumentException("Invalid tag type: " + type.name());
+        }
+    }
+
+    private void value(byte id) throws IOException {
+        if (event != Event.VALUE || type.id() != id) {
+            throw new IllegalStateException("Cannot get " + TagType.getType(id).name() + " value from " + (event == Event.VALUE ? type.name() : event) + " event");
+        }
+        if (!pending) {
+            return;
+        }
+        pending = false;
+        final DataInput in = input.getInput();
+        switch (id) {
+            case Tag.BYTE:
+                bits = in.readByte();
+                break;
+            case Tag.SHORT:
+                bits = in.readShort();
+                break;
+            case Tag.INT:
+                bits = in.readInt();
+                break;
+            case Tag.LONG:
+                bits = in.readLong();
+                break;
+            case Tag.FLOAT:
+                bits = Float.floatToRawIntBits(in.readFloat());
+                break;
+            case Tag.DOUBLE:
+                bits = Double.doubleToRawLongBits(in.readDouble());
+                break;
+            case Tag.BYTE_ARRAY:
+                value = input.readByteArray();
+                break;
+            case Tag.STRING:
+                value = in.readUTF();
+                break;
+            case Tag.INT_ARRAY:
+                value = input.readIntArray();
+                break;
+            case Tag.LONG_ARRAY:
+                value = input.readLongArray();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void skipValue() throws IOException {
+        if (pending) {
+            pending = false;
+            input.skipTag(type);
+        }
+    }
+
+    private void push(byte id, int remaining) {
+        input.incrementDepth();
+        if (depth == frameTypes.length) {
+            frameTypes = Arrays.copyOf(frameTypes, depth * 2);
+            frameRemaining = Arrays.copyOf(frameRemaining, depth * 2);
+        }
+        frameTypes[depth] = id;
+        frameRemaining[depth] = remaining;
+        depth++;
+    }
+
+    private void pop() {
+        depth--;
+        input.decrementDepth();
+        type = frameRemaining[depth] == COMPOUND_FRAME ? TagType.COMPOUND : TagType.LIST;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Stream reader event.
+     */
+    public enum Event {
+        /**
+         * A compound tag was started.
+         */
+        START_COMPOUND,
+        /**
+         * A compound entry name was read, the next event will be its value.
+         */
+        NAME,
+        /**
+         * A primitive, string or array value is available.
+         */
+        VALUE,
+        /**
+         * A list tag was started.
+         */
+        START_LIST,
+        /**
+         * The current container was finished.
+         */
+        END
+    }
+}
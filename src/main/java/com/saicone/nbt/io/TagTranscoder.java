@@ -0,0 +1,431 @@
+package com.saicone.nbt.io;
+
+import com.saicone.nbt.Tag;
+import com.saicone.nbt.TagCodec;
+import com.saicone.nbt.TagMapper;
+import com.saicone.nbt.TagType;
+import com.saicone.nbt.nio.TagBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * <b>Tag Transcoder</b><br>
+ * Utility class to convert SNBT into binary tag format and vice versa, without creating the
+ * tag object tree in between.<br>
+ * SNBT is read with {@link TagReader} grammar and written value by value into binary format, only the
+ * elements of unfinished lists are kept as encoded bytes, since the list size must be written before its
+ * elements. Lists with different element types are written as compound lists, wrapping every non-compound
+ * element into a compound with empty key.<br>
+ * Binary tags are read as a sequence of {@link TagStreamReader} events and written with {@link TagWriter} format.
+ *
+ * @author Rubenicos
+ */
+public class TagTranscoder {
+
+    TagTranscoder() {
+    }
+
+    /**
+     * Convert the provided SNBT into unnamed binary tag format.
+     *
+     * @param snbt   the SNBT to convert.
+     * @param output the output to write binary data.
+     * @throws IOException if any I/O error occurs.
+     */
+    public static void toBinary(@NotNull String snbt, @NotNull DataOutput output) throws IOException {
+        toBinary(TagReader.of(snbt), output);
+    }
+
+    /**
+     * Convert the SNBT from provided {@link Reader} into unnamed binary tag format.
+     *
+     * @param snbt   the reader that provide SNBT to convert.
+     * @param output the output to write binary data.
+     * @throws IOException if any I/O error occurs.
+     */
+    public static void toBinary(@NotNull Reader snbt, @NotNull DataOutput output) throws IOException {
+        toBinary(TagReader.of(snbt), output);
+    }
+
+    /**
+     * Convert the SNBT from provided {@link TagReader} into unnamed binary tag format.<br>
+     * Any unknown data output implementation is handled with java encoding.
+     *
+     * @param reader the tag reader that provide SNBT to convert.
+     * @param output the output to write binary data.
+     * @param <T>    the tag object implementation.
+     * @throws IOException if any I/O error occurs.
+     */
+    public static <T> void toBinary(@NotNull TagReader<T> reader, @NotNull DataOutput output) throws IOException {
+        final TagEncoding encoding = TagEncoding.of(output);
+        new BinaryTranscoder<>(reader, encoding == null ? TagEncoding.JAVA : encoding).transcode(output);
+    }
+
+    /**
+     * Convert the SNBT from provided {@link TagReader} into unnamed binary tag format, that is written
+     * into provided {@link TagBuffer}.
+     *
+     * @param reader the tag reader that provide SNBT to convert.
+     * @param buffer the tag buffer to write binary data.
+     * @param <T>    the tag object implementation.
+     * @throws IOException if any I/O error occurs.
+     */
+    public static <T> void toBinary(@NotNull TagReader<T> reader, @NotNull TagBuffer<?> buffer) throws IOException {
+        final TagEncoding encoding = TagEncoding.of(buffer);
+        if (encoding == null) {
+            throw new IllegalArgumentException("Cannot transcode into unknown tag buffer implementation: " + buffer.getClass().getName());
+        }
+        new BinaryTranscoder<>(reader, encoding).transcode(encoding.output(new BufferOutputStream(buffer)));
+    }
+
+    /**
+     * Convert the unnamed binary tag from provided {@link DataInput} into SNBT.
+     *
+     * @param input  the input that provide binary data.
+     * @param writer the writer to write SNBT.
+     * @throws IOException if any I/O error occurs.
+     */
+    public static void toSnbt(@NotNull DataInput input, @NotNull Writer writer) throws IOException {
+        toSnbt(TagStreamReader.of(input), new TagWriter<>(writer, TagMapper.DEFAULT));
+        writer.flush();
+    }
+
+    /**
+     * Convert the tag from provided {@link TagStreamReader} into SNBT.<br>
+     * If the stream reader is not started, the unnamed tag format will be used.
+     *
+     * @param reader the stream reader that provide tag events.
+     * @param writer the tag writer to write SNBT.
+     * @throws IOException if any I/O error occurs.
+     */
+    public static void toSnbt(@NotNull TagStreamReader<?> reader, @NotNull TagWriter<?> writer) throws IOException {
+        // Containers that were started, true for compounds
+        boolean[] compounds = new boolean[16];
+        boolean[] delimiters = new boolean[16];
+        int depth = 0;
+        boolean named = false;
+
+        TagStreamReader.Event event = reader.getEvent() == null ? reader.startUnnamed() : reader.getEvent();
+        while (true) {
+            if (event == TagStreamReader.Event.END) {
+                if (depth > 0) {
+                    depth--;
+                    writer.write(compounds[depth] ? '}' : ']');
+                }
+            } else {
+                if (named) {
+                    named = false;
+                } else if (depth > 0) {
+                    if (delimiters[depth - 1]) {
+                        writer.write(',');
+                    }
+                    delimiters[depth - 1] = true;
+                }
+                switch (event) {
+                    case NAME:
+                        final String name = reader.getName();
+                        if (!name.isEmpty() && writer.isUnquoted(name)) {
+                            writer.write(name);
+                        } else {
+                            writer.writeStringTag(name);
+                        }
+                        writer.write(':');
+                        named = true;
+                        break;
+                    case VALUE:
+                        writeValue(reader, writer);
+                        break;
+                    case START_COMPOUND:
+                    case START_LIST:
+                        if (depth == compounds.length) {
+                            compounds = Arrays.copyOf(compounds, depth * 2);
+                            delimiters = Arrays.copyOf(delimiters, depth * 2);
+                        }
+                        compounds[depth] = event == TagStreamReader.Event.START_COMPOUND;
+                        delimiters[depth] = false;
+                        depth++;
+                        writer.write(event == TagStreamReader.Event.START_COMPOUND ? '{' : '[');
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (!reader.hasNext()) {
+                break;
+            }
+            event = reader.next();
+        }
+    }
+
+    private static void writeValue(@NotNull TagStreamReader<?> reader, @NotNull TagWriter<?> writer) throws IOException {
+        final TagType<?> type = reader.getType();
+        switch (type.id()) {
+            case Tag.BYTE:
+                writer.writePrimitiveTag(TagType.BYTE, reader.getByte());
+                break;
+            case Tag.SHORT:
+                writer.writePrimitiveTag(TagType.SHORT, reader.getShort());
+                break;
+            case Tag.INT:
+                writer.writePrimitiveTag(TagType.INT, reader.getInt());
+                break;
+            case Tag.LONG:
+                writer.writePrimitiveTag(TagType.LONG, reader.getLong());
+                break;
+            case Tag.FLOAT:
+                writer.writePrimitiveTag(TagType.FLOAT, reader.getFloat());
+                break;
+            case Tag.DOUBLE:
+                writer.writePrimitiveTag(TagType.DOUBLE, reader.getDouble());
+                break;
+            case Tag.BYTE_ARRAY:
+                writer.writeByteArrayTag(reader.getByteArray());
+                break;
+            case Tag.STRING:
+                writer.writeStringTag(reader.getString());
+                break;
+            case Tag.INT_ARRAY:
+                writer.writeIntArrayTag(reader.getIntArray());
+                break;
+            case Tag.LONG_ARRAY:
+                writer.writeLongArrayTag(reader.getLongArray());
+                break;
+            default:
+                throw new IOException("Cannot transcode invalid tag type: " + type.name());
+        }
+    }
+
+    private static final class BinaryTranscoder<T> {
+
+        private final TagReader<T> reader;
+        private final TagCodec<T> codec;
+        private final TagEncoding encoding;
+
+        // List scratch levels, indexed by the amount of unfinished lists
+        private ListLevel[] levels = new ListLevel[4];
+        private int depth = 0;
+
+        private Object value;
+
+        BinaryTranscoder(@NotNull TagReader<T> reader, @NotNull TagEncoding encoding) {
+            this.reader = reader;
+            this.codec = TagCodec.of(reader.getMapper());
+            this.encoding = encoding;
+        }
+
+        void transcode(@NotNull DataOutput output) throws IOException {
+            final TagType<?> type = next();
+            if (type == null) {
+                output.writeByte(Tag.END);
+                return;
+            }
+            output.writeByte(type.id());
+            // Write empty name
+            output.writeUTF("");
+            writePayload(type, new TagOutput<>(output, TagMapper.DEFAULT));
+        }
+
+        // Read the next value, compounds and lists are only started
+        @Nullable
+        private TagType<?> next() throws IOException {
+            reader.skipSpaces();
+            reader.mark(3);
+            final int first = reader.read();
+            if (first == '{') {
+                return TagType.COMPOUND;
+            } else if (first == '[') {
+                final int id = reader.read();
+                if (id == 'B' || id == 'I' || id == 'L') {
+                    final int separator = reader.read();
+                    if (separator == ';') {
+                        return leaf(reader.readArrayTag(id));
+                    }
+                }
+                reader.reset();
+                reader.read();
+                return TagType.LIST;
+            } else {
+                return leaf(reader.readValueTag(first));
+            }
+        }
+
+        @Nullable
+        private TagType<?> leaf(@Nullable T t) {
+            if (t == null) {
+                return null;
+            }
+            value = codec.extract(t);
+            return codec.type(t);
+        }
+
+        private void writePayload(@NotNull TagType<?> type, @NotNull TagOutput<Object> output) throws IOException {
+            if (type == TagType.COMPOUND) {
+                writeCompound(output);
+            } else if (type == TagType.LIST) {
+                writeList(output);
+            } else {
+                output.writeTag(type, value);
+            }
+        }
+
+        private void writeCompound(@NotNull TagOutput<Object> output) throws IOException {
+            final DataOutput data = output.getOutput();
+            String key;
+            while (true) {
+                key = reader.readKey();
+                if (!reader.skip(':')) {
+                    if (key.isEmpty()) {
+                        break;
+                    }
+                    throw new IOException("Compound key must have colon separator: " + key);
+                }
+                final TagType<?> type = next();
+                if (type == null) {
+                    break;
+                }
+                data.writeByte(type.id());
+                data.writeUTF(key);
+                writePayload(type, output);
+                if (reader.skip(',')) {
+                    reader.skipSpaces();
+                } else {
+                    break;
+                }
+            }
+            if (!reader.skip('}')) {
+                throw new IOException("Compound tag must end with '}'");
+            }
+            data.writeByte(Tag.END);
+        }
+
+        private void writeList(@NotNull TagOutput<Object> output) throws IOException {
+            if (reader.skip(']')) {
+                output.getOutput().writeByte(Tag.END);
+                output.getOutput().writeInt(0);
+                return;
+            }
+            if (depth == levels.length) {
+                levels = Arrays.copyOf(levels, depth * 2);
+            }
+            if (levels[depth] == null) {
+                levels[depth] = new ListLevel(encoding);
+            }
+            final ListLevel level = levels[depth++];
+            try {
+                TagType<?> type;
+                while ((type = next()) != null) {
+                    level.add(type);
+                    writePayload(type, level.output);
+                    if (reader.skip(',')) {
+                        reader.skipSpaces();
+                    } else {
+                        break;
+                    }
+                }
+                if (!reader.skip(']')) {
+                    throw new IOException("List tag must end with ']'");
+                }
+                level.writeTo(output.getOutput());
+            } finally {
+                depth--;
+                level.reset();
+            }
+        }
+    }
+
+    private static final class ListLevel {
+
+        private final ScratchOutputStream bytes = new ScratchOutputStream();
+        private final TagOutput<Object> output;
+
+        private int[] offsets = new int[16];
+        private byte[] types = new byte[16];
+        private int size = 0;
+        private boolean mixed = false;
+
+        ListLevel(@NotNull TagEncoding encoding) {
+            this.output = new TagOutput<>(encoding.output(bytes), TagMapper.DEFAULT);
+        }
+
+        void add(@NotNull TagType<?> type) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+                types = Arrays.copyOf(types, size * 2);
+            }
+            if (size > 0 && types[0] != type.id()) {
+                mixed = true;
+            }
+            offsets[size] = bytes.size();
+            types[size] = type.id();
+            size++;
+        }
+
+        void writeTo(@NotNull DataOutput parent) throws IOException {
+            final byte[] buf = bytes.array();
+            if (size == 0) {
+                parent.writeByte(Tag.END);
+                parent.writeInt(0);
+            } else if (!mixed) {
+                parent.writeByte(types[0]);
+                parent.writeInt(size);
+                parent.write(buf, 0, bytes.size());
+            } else {
+                parent.writeByte(Tag.COMPOUND);
+                parent.writeInt(size);
+                for (int i = 0; i < size; i++) {
+                    final int start = offsets[i];
+                    final int end = i + 1 < size ? offsets[i + 1] : bytes.size();
+                    if (types[i] == Tag.COMPOUND) {
+                        parent.write(buf, start, end - start);
+                    } else {
+                        parent.writeByte(types[i]);
+                        parent.writeUTF("");
+                        parent.write(buf, start, end - start);
+                        parent.writeByte(Tag.END);
+                    }
+                }
+            }
+        }
+
+        void reset() {
+            bytes.reset();
+            size = 0;
+            mixed = false;
+        }
+    }
+
+    private static final class ScratchOutputStream extends ByteArrayOutputStream {
+
+        byte[] array() {
+            return buf;
+        }
+    }
+
+    private static final class BufferOutputStream extends OutputStream {
+
+        private final TagBuffer<?> buffer;
+
+        BufferOutputStream(@NotNull TagBuffer<?> buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) {
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(@NotNull byte[] b, int off, int len) {
+            buffer.put(b, off, len);
+        }
+    }
+}
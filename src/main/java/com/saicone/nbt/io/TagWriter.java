@@ -3,10 +3,12 @@ package com.saicone.nbt.io;
 import com.saicone.nbt.Tag;
 import com.saicone.nbt.TagType;
 import com.saicone.nbt.TagMapper;
+import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.List;
 import java.util.Map;
@@ -15,7 +17,7 @@ import java.util.Map;
  * Writes tag objects into delegated {@link Writer} as SNBT format.<br>
  * The formatting method aims to be compatible with older Minecraft versions by avoiding the usage of single quotes.
  *
- * @see AsyncStringWriter
+ * @see CharBufferWriter
  *
  * @author Rubenicos
  *
@@ -23,8 +25,13 @@ import java.util.Map;
  */
 public class TagWriter<T> extends Writer {
 
-    private final Writer writer;
+    private static final int MAX_POOLED_SIZE = 8192;
+    private static final InstancePool<TagWriter<Object>> POOL = new InstancePool<>(() -> new TagWriter<>(new CharBufferWriter(), TagMapper.DEFAULT));
+
+    private Writer writer;
     private final TagMapper<T> mapper;
+    // Delegated writer as buffer, if applicable
+    private CharBufferWriter buffer;
 
     /**
      * Create a tag writer that accepts nbt-represented java objects with provided {@link Writer}.
@@ -37,6 +44,30 @@ public class TagWriter<T> extends Writer {
         return of(writer, TagMapper.DEFAULT);
     }
 
+    /**
+     * Create a tag writer that accepts nbt-represented java objects and emit UTF-8 bytes into provided {@link OutputStream}.
+     *
+     * @param output the output stream to write bytes.
+     * @return       a newly generated tag writer.
+     */
+    @NotNull
+    public static TagWriter<Object> of(@NotNull OutputStream output) {
+        return of(output, TagMapper.DEFAULT);
+    }
+
+    /**
+     * Create a tag writer with provided {@link OutputStream} and {@link TagMapper}, the SNBT is emitted as UTF-8 bytes.
+     *
+     * @param output the output stream to write bytes.
+     * @param mapper the mapper to extract values from tags
+     * @return       a newly generated tag writer.
+     * @param <T>    the tag object implementation.
+     */
+    @NotNull
+    public static <T> TagWriter<T> of(@NotNull OutputStream output, @NotNull TagMapper<T> mapper) {
+        return new TagWriter<>(new CharBufferWriter(output), mapper);
+    }
+
     /**
      * Create a tag writer with provided {@link Writer} and {@link TagMapper}.
      *
@@ -59,6 +90,22 @@ public class TagWriter<T> extends Writer {
     public TagWriter(@NotNull Writer writer, @NotNull TagMapper<T> mapper) {
         this.writer = writer;
         this.mapper = mapper;
+        this.buffer = writer instanceof CharBufferWriter ? (CharBufferWriter) writer : null;
+    }
+
+    /**
+     * Reset this writer to append characters into provided {@link Writer}.<br>
+     * Any previous delegated writer is replaced without being flushed or closed.
+     *
+     * @param writer the delegated writer to append characters.
+     * @return       the writer itself.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TagWriter<T> reset(@NotNull Writer writer) {
+        this.writer = writer;
+        this.buffer = writer instanceof CharBufferWriter ? (CharBufferWriter) writer : null;
+        return this;
     }
 
     /**
@@ -175,10 +222,13 @@ public class TagWriter<T> extends Writer {
      * @throws IOException if any I/O exception occurs.
      */
     public <V> void writePrimitiveTag(@NotNull TagType<V> type, @NotNull V v) throws IOException {
-        if (type == TagType.DOUBLE || type == TagType.INT) {
-            write(String.valueOf(v));
+        if (buffer != null && (v instanceof Integer || v instanceof Long || v instanceof Short || v instanceof Byte)) {
+            buffer.writeLong(((Number) v).longValue());
         } else {
-            write(String.valueOf(v) + type.suffix());
+            write(String.valueOf(v));
+        }
+        if (type != TagType.DOUBLE && type != TagType.INT) {
+            write(type.suffix());
         }
     }
 
@@ -189,7 +239,17 @@ public class TagWriter<T> extends Writer {
      * @throws IOException if any I/O exception occurs.
      */
     public void writeStringTag(@NotNull String s) throws IOException {
-        write("\"" + s.replace("\"", "\\\"") + "\"");
+        write('"');
+        int start = 0;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) == '"') {
+                write(s, start, i - start);
+                write("\\\"");
+                start = i + 1;
+            }
+        }
+        write(s, start, s.length() - start);
+        write('"');
     }
 
     /**
@@ -206,7 +266,12 @@ public class TagWriter<T> extends Writer {
                 write(',');
             }
 
-            write(String.valueOf(b) + TagType.BYTE_ARRAY.suffix());
+            if (buffer != null) {
+                buffer.writeInt(b);
+            } else {
+                write(String.valueOf(b));
+            }
+            write(TagType.BYTE_ARRAY.suffix());
 
             delimiter = true;
         }
@@ -242,6 +307,11 @@ public class TagWriter<T> extends Writer {
      */
     public void writeIntArrayTag(int[] ints) throws IOException {
         write("[" + TagType.INT_ARRAY.suffix() + ";");
+        if (buffer != null) {
+            buffer.writeInts(ints, ',');
+            write(']');
+            return;
+        }
         boolean delimiter = false;
         for (int i : ints) {
             if (delimiter) {
@@ -263,13 +333,19 @@ public class TagWriter<T> extends Writer {
      */
     public void writeLongArrayTag(long[] longs) throws IOException {
         write("[" + TagType.LONG_ARRAY.suffix() + ";");
+        if (buffer != null) {
+            buffer.writeLongs(longs, ',', TagType.LONG_ARRAY.suffix());
+            write(']');
+            return;
+        }
         boolean delimiter = false;
         for (long l : longs) {
             if (delimiter) {
                 write(',');
             }
 
-            write(String.valueOf(l) + TagType.LONG_ARRAY.suffix());
+            write(String.valueOf(l));
+            write(TagType.LONG_ARRAY.suffix());
 
             delimiter = true;
         }
@@ -311,7 +387,7 @@ public class TagWriter<T> extends Writer {
                 write(',');
             }
 
-            if (isUnquoted(entry.getKey())) {
+            if (!entry.getKey().isEmpty() && isUnquoted(entry.getKey())) {
                 write(entry.getKey());
             } else {
                 writeStringTag(entry.getKey());
@@ -324,11 +400,26 @@ public class TagWriter<T> extends Writer {
         write('}');
     }
 
+    @Override
+    public void write(int c) throws IOException {
+        writer.write(c);
+    }
+
     @Override
     public void write(@NotNull char[] cbuf, int off, int len) throws IOException {
         writer.write(cbuf, off, len);
     }
 
+    @Override
+    public void write(@NotNull String str) throws IOException {
+        writer.write(str);
+    }
+
+    @Override
+    public void write(@NotNull String str, int off, int len) throws IOException {
+        writer.write(str, off, len);
+    }
+
     @Override
     public void flush() throws IOException {
         writer.flush();
@@ -359,8 +450,25 @@ public class TagWriter<T> extends Writer {
      * @param <T>    the tag object implementation.
      */
     @NotNull
+    @SuppressWarnings("unchecked")
     public static <T> String toString(@Nullable T t, @NotNull TagMapper<T> mapper) {
-        try (AsyncStringWriter writer = new AsyncStringWriter(); TagWriter<T> tagWriter = new TagWriter<>(writer, mapper)) {
+        if (mapper == TagMapper.DEFAULT) {
+            final TagWriter<Object> tagWriter = POOL.acquire();
+            final CharBufferWriter writer = tagWriter.buffer;
+            try {
+                writer.reset();
+                tagWriter.writeTag(t);
+                return writer.toString();
+            } catch (IOException e) {
+                throw new RuntimeException("Cannot write object to SNBT", e);
+            } finally {
+                // Avoid to keep large buffers alive
+                if (writer.capacity() <= MAX_POOLED_SIZE) {
+                    POOL.release(tagWriter);
+                }
+            }
+        }
+        try (CharBufferWriter writer = new CharBufferWriter(); TagWriter<T> tagWriter = new TagWriter<>(writer, mapper)) {
             tagWriter.writeTag(t);
             return writer.toString();
         } catch (IOException e) {
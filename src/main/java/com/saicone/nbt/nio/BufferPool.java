@@ -0,0 +1,143 @@
+package com.saicone.nbt.nio;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <b>Buffer Pool</b><br>
+ * A buffer pool provides {@link ByteBuffer} instances to growable tag buffers, the
+ * released buffers can be reused by subsequent encodes to avoid allocations.
+ *
+ * @author Rubenicos
+ */
+public interface BufferPool {
+
+    /**
+     * A buffer pool that always allocate heap buffers without any reuse.
+     */
+    BufferPool HEAP = new BufferPool() {
+        @Override
+        public @NotNull ByteBuffer acquire(int capacity) {
+            return ByteBuffer.allocate(capacity);
+        }
+
+        @Override
+        public void release(@NotNull ByteBuffer buffer) {
+            // empty default method
+        }
+    };
+
+    /**
+     * Create a thread-safe buffer pool that reuse heap buffers.
+     *
+     * @param maxPerSize the maximum amount of pooled buffers for each size class.
+     * @return           a newly generated buffer pool.
+     */
+    @NotNull
+    static BufferPool heap(int maxPerSize) {
+        return new Pooled(false, maxPerSize);
+    }
+
+    /**
+     * Create a thread-safe buffer pool that reuse direct buffers.
+     *
+     * @param maxPerSize the maximum amount of pooled buffers for each size class.
+     * @return           a newly generated buffer pool.
+     */
+    @NotNull
+    static BufferPool direct(int maxPerSize) {
+        return new Pooled(true, maxPerSize);
+    }
+
+    /**
+     * Get a buffer with at least the provided capacity, cleared and with big-endian byte order.
+     *
+     * @param capacity the minimum capacity.
+     * @return         a byte buffer ready to be written.
+     */
+    @NotNull
+    ByteBuffer acquire(int capacity);
+
+    /**
+     * Return the provided buffer to this pool, the buffer must not be used after release.
+     *
+     * @param buffer the buffer to release.
+     */
+    void release(@NotNull ByteBuffer buffer);
+
+    /**
+     * Pooled buffer implementation that group buffers by power of two size classes.
+     */
+    final class Pooled implements BufferPool {
+
+        private static final int MIN_SHIFT = 8;
+        private static final int MAX_SHIFT = 24;
+
+        private final boolean direct;
+        private final int maxPerSize;
+        private final Queue<ByteBuffer>[] queues;
+        private final AtomicIntegerArray sizes;
+
+        /**
+         * Constructs a pooled buffer pool.
+         *
+         * @param direct     true to allocate direct buffers.
+         * @param maxPerSize the maximum amount of pooled buffers for each size class.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Pooled(boolean direct, int maxPerSize) {
+            this.direct = direct;
+            this.maxPerSize = maxPerSize;
+            this.queues = new Queue[MAX_SHIFT - MIN_SHIFT + 1];
+            for (int i = 0; i < queues.length; i++) {
+                queues[i] = new ConcurrentLinkedQueue<>();
+            }
+            this.sizes = new AtomicIntegerArray(queues.length);
+        }
+
+        private static int sizeClass(int capacity) {
+            if (capacity <= 1 << MIN_SHIFT) {
+                return 0;
+            }
+            return Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1) - MIN_SHIFT;
+        }
+
+        @Override
+        public @NotNull ByteBuffer acquire(int capacity) {
+            final int sizeClass = sizeClass(capacity);
+            if (sizeClass >= queues.length) {
+                // Too big to be pooled
+                return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+            }
+            final ByteBuffer buffer = queues[sizeClass].poll();
+            if (buffer != null) {
+                sizes.decrementAndGet(sizeClass);
+                return buffer;
+            }
+            final int size = 1 << (sizeClass + MIN_SHIFT);
+            return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        }
+
+        @Override
+        public void release(@NotNull ByteBuffer buffer) {
+            if (buffer.isDirect() != direct || buffer.isReadOnly() || Integer.bitCount(buffer.capacity()) != 1) {
+                return;
+            }
+            final int sizeClass = sizeClass(buffer.capacity());
+            if (sizeClass >= queues.length || buffer.capacity() < 1 << MIN_SHIFT) {
+                return;
+            }
+            if (sizes.incrementAndGet(sizeClass) > maxPerSize) {
+                sizes.decrementAndGet(sizeClass);
+                return;
+            }
+            buffer.clear().order(ByteOrder.BIG_ENDIAN);
+            queues[sizeClass].offer(buffer);
+        }
+    }
+}
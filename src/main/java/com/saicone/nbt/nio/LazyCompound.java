@@ -0,0 +1,327 @@
+package com.saicone.nbt.nio;
+
+import com.saicone.nbt.Tag;
+import com.saicone.nbt.TagType;
+import com.saicone.nbt.io.TagEncoding;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * <b>Lazy Compound</b><br>
+ * A compound map view backed by the raw bytes of a compound tag value, the entry keys are
+ * indexed on first access and the values are only decoded when they are requested.<br>
+ * Untouched entries are written back as raw bytes by {@link TagBuffer#putCompound(Map)} or
+ * {@link com.saicone.nbt.io.TagOutput} if they are compatible with the encoding used to read this compound.<br>
+ * This view shares memory with the buffer that was used to read it, so that buffer
+ * must not be modified while this compound is in use.
+ *
+ * @author Rubenicos
+ *
+ * @param <T> the tag object implementation.
+ */
+public class LazyCompound<T> extends AbstractMap<String, T> implements LazyTag {
+
+    private final TagBuffer<T> reader;
+    private final ByteBuffer data;
+    private final ByteOrder order;
+    private final TagEncoding encoding;
+
+    private Map<String, Slot<T>> slots;
+    private boolean modified = false;
+    private Set<Entry<String, T>> entrySet;
+
+    /**
+     * Constructs a lazy compound with provided tag buffer and compound value bytes.
+     *
+     * @param reader the tag buffer used to read the compound, its buffer must contain the compound value.
+     */
+    public LazyCompound(@NotNull TagBuffer<T> reader) {
+        this.reader = reader;
+        this.data = reader.buffer().duplicate();
+        this.order = reader.buffer().order();
+        this.encoding = TagEncoding.of(reader);
+    }
+
+    @Override
+    public @NotNull ByteBuffer raw() {
+        return data.asReadOnlyBuffer().order(order);
+    }
+
+    @Override
+    public boolean writeRaw(@NotNull DataOutput output) throws IOException {
+        return writeRaw(data, data.position(), data.limit(), output);
+    }
+
+    @Override
+    public @Nullable TagEncoding encoding() {
+        return encoding;
+    }
+
+    @Override
+    public boolean isModified() {
+        if (slots == null) {
+            return false;
+        }
+        if (modified) {
+            return true;
+        }
+        for (Slot<T> slot : slots.values()) {
+            if (!slot.isRaw()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Index compound entries if they are not indexed yet.
+     */
+    protected void index() {
+        if (slots != null) {
+            return;
+        }
+        final Map<String, Slot<T>> slots = new LinkedHashMap<>();
+        final ByteBuffer buffer = reader.buffer();
+        buffer.position(0);
+        int start = 0;
+        byte id;
+        while ((id = reader.get()) != Tag.END) {
+            final String key = reader.getKey();
+            final int offset = buffer.position();
+            reader.skipTag(TagType.getType(id));
+            slots.put(key, new Slot<>(id, start, offset, buffer.position() - offset));
+            start = buffer.position();
+        }
+        this.slots = slots;
+    }
+
+    @Nullable
+    private T value(@Nullable Slot<T> slot) {
+        if (slot == null) {
+            return null;
+        }
+        if (!slot.decoded) {
+            slot.value = reader.getTag(TagType.getType(slot.id), slot.offset, slot.length);
+            slot.decoded = true;
+        }
+        return slot.value;
+    }
+
+    /**
+     * Get the raw bytes of an unmodified compound entry, including tag ID, key and value.
+     *
+     * @param key the compound entry key.
+     * @return    a read-only buffer with entry bytes, null if the entry doesn't exist or was modified.
+     */
+    @Nullable
+    public ByteBuffer getRaw(@NotNull String key) {
+        index();
+        final Slot<T> slot = slots.get(key);
+        if (slot == null || !slot.isRaw()) {
+            return null;
+        }
+        final ByteBuffer raw = raw();
+        raw.position(slot.start).limit(slot.offset + slot.length);
+        return raw;
+    }
+
+    /**
+     * Write the raw bytes of an unmodified compound entry into provided output, including tag ID, key and value.<br>
+     * Unlike {@link #getRaw(String)}, the bytes are written directly from the backing array.
+     *
+     * @param key    the compound entry key.
+     * @param output the output to write bytes.
+     * @return       true if the bytes were written, false if the entry can't be written from an accessible array.
+     * @throws IOException if any I/O error occurs.
+     */
+    public boolean writeRaw(@NotNull String key, @NotNull DataOutput output) throws IOException {
+        if (!data.hasArray()) {
+            return false;
+        }
+        index();
+        final Slot<T> slot = slots.get(key);
+        if (slot == null || !slot.isRaw()) {
+            return false;
+        }
+        return writeRaw(data, slot.start, slot.offset + slot.length, output);
+    }
+
+    static boolean writeRaw(@NotNull ByteBuffer data, int start, int end, @NotNull DataOutput output) throws IOException {
+        if (!data.hasArray()) {
+            return false;
+        }
+        output.write(data.array(), data.arrayOffset() + start, end - start);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        index();
+        return slots.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        index();
+        return slots.containsKey(key);
+    }
+
+    @Override
+    public T get(Object key) {
+        index();
+        return value(slots.get(key));
+    }
+
+    @Override
+    public T put(String key, T value) {
+        index();
+        modified = true;
+        return value(slots.put(key, new Slot<>(value)));
+    }
+
+    @Override
+    public T remove(Object key) {
+        index();
+        final Slot<T> slot = slots.remove(key);
+        if (slot != null) {
+            modified = true;
+        }
+        return value(slot);
+    }
+
+    @Override
+    public void clear() {
+        index();
+        if (!slots.isEmpty()) {
+            modified = true;
+            slots.clear();
+        }
+    }
+
+    @Override
+    public @NotNull Set<Entry<String, T>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, T>> {
+        @Override
+        public int size() {
+            return LazyCompound.this.size();
+        }
+
+        @Override
+        public @NotNull Iterator<Entry<String, T>> iterator() {
+            index();
+            final Iterator<Entry<String, Slot<T>>> iterator = slots.entrySet().iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Entry<String, T> next() {
+                    return new LazyEntry(iterator.next());
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    modified = true;
+                }
+            };
+        }
+    }
+
+    private final class LazyEntry implements Entry<String, T> {
+
+        private final Entry<String, Slot<T>> entry;
+
+        LazyEntry(@NotNull Entry<String, Slot<T>> entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public String getKey() {
+            return entry.getKey();
+        }
+
+        @Override
+        public T getValue() {
+            return value(entry.getValue());
+        }
+
+        @Override
+        public T setValue(T value) {
+            final T old = getValue();
+            modified = true;
+            entry.setValue(new Slot<>(value));
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            final Entry<?, ?> entry = (Entry<?, ?>) o;
+            return getKey().equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    private static final class Slot<T> {
+
+        private final byte id;
+        private final int start;
+        private final int offset;
+        private final int length;
+
+        private T value;
+        private boolean decoded;
+
+        Slot(byte id, int start, int offset, int length) {
+            this.id = id;
+            this.start = start;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        Slot(T value) {
+            this.id = Tag.END;
+            this.start = -1;
+            this.offset = -1;
+            this.length = -1;
+            this.value = value;
+            this.decoded = true;
+        }
+
+        boolean isRaw() {
+            return offset >= 0 && (!decoded || LazyTag.isRaw(value));
+        }
+    }
+}
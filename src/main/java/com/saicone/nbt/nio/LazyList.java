@@ -0,0 +1,190 @@
+package com.saicone.nbt.nio;
+
+import com.saicone.nbt.Tag;
+import com.saicone.nbt.TagType;
+import com.saicone.nbt.io.TagEncoding;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * <b>Lazy List</b><br>
+ * A list view backed by the raw bytes of a list tag value, the element offsets are
+ * indexed on first access and the elements are only decoded when they are requested.<br>
+ * Any modification will decode the full list and stop using the raw bytes, while an unmodified
+ * list is written back as raw bytes by {@link TagBuffer#putList(List)} or {@link com.saicone.nbt.io.TagOutput}
+ * if they are compatible with the encoding used to read this list.<br>
+ * This view shares memory with the buffer that was used to read it, so that buffer
+ * must not be modified while this list is in use.
+ *
+ * @author Rubenicos
+ *
+ * @param <T> the tag object implementation.
+ */
+public class LazyList<T> extends AbstractList<T> implements LazyTag, RandomAccess {
+
+    private final TagBuffer<T> reader;
+    private final ByteBuffer data;
+    private final ByteOrder order;
+    private final TagEncoding encoding;
+
+    private final byte id;
+    private final int size;
+    private final int start;
+
+    private int[] offsets;
+    private Object[] values;
+    private List<T> elements;
+
+    /**
+     * Constructs a lazy list with provided tag buffer and list value bytes.
+     *
+     * @param reader the tag buffer used to read the list, its buffer must contain the list value.
+     */
+    public LazyList(@NotNull TagBuffer<T> reader) {
+        this.reader = reader;
+        this.data = reader.buffer().duplicate();
+        this.order = reader.buffer().order();
+        this.encoding = TagEncoding.of(reader);
+        reader.buffer().position(0);
+        this.id = reader.get();
+        this.size = reader.getInt();
+        if (id == Tag.END && size > 0) {
+            throw new IllegalArgumentException("Cannot read list without tag type");
+        }
+        this.start = reader.buffer().position();
+    }
+
+    @Override
+    public @NotNull ByteBuffer raw() {
+        return data.asReadOnlyBuffer().order(order);
+    }
+
+    @Override
+    public boolean writeRaw(@NotNull DataOutput output) throws IOException {
+        return LazyCompound.writeRaw(data, data.position(), data.limit(), output);
+    }
+
+    @Override
+    public @Nullable TagEncoding encoding() {
+        return encoding;
+    }
+
+    @Override
+    public boolean isModified() {
+        if (elements != null) {
+            return true;
+        }
+        if (values != null) {
+            for (Object value : values) {
+                if (!LazyTag.isRaw(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the element type of this list.
+     *
+     * @return a tag type.
+     */
+    @NotNull
+    public TagType<?> elementType() {
+        return TagType.getType(id);
+    }
+
+    /**
+     * Index list elements if they are not indexed yet.
+     */
+    protected void index() {
+        if (offsets != null) {
+            return;
+        }
+        final int[] offsets = new int[size + 1];
+        final ByteBuffer buffer = reader.buffer();
+        final TagType<?> type = TagType.getType(id);
+        buffer.position(start);
+        offsets[0] = start;
+        for (int i = 0; i < size; i++) {
+            reader.skipTag(type);
+            offsets[i + 1] = buffer.position();
+        }
+        this.offsets = offsets;
+        this.values = new Object[size];
+    }
+
+    /**
+     * Decode the full list into a mutable list, after calling this method the raw bytes
+     * will not be used anymore.
+     *
+     * @return a mutable list.
+     */
+    @NotNull
+    protected List<T> elements() {
+        if (elements == null) {
+            final List<T> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(get(i));
+            }
+            elements = list;
+            values = null;
+        }
+        return elements;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (elements != null) {
+            return elements.get(index);
+        }
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        index();
+        Object value = values[index];
+        if (value == null) {
+            value = reader.getTag(TagType.getType(id), offsets[index], offsets[index + 1] - offsets[index]);
+            values[index] = value;
+        }
+        return (T) value;
+    }
+
+    @Override
+    public int size() {
+        return elements != null ? elements.size() : size;
+    }
+
+    @Override
+    public T set(int index, T element) {
+        return elements().set(index, element);
+    }
+
+    @Override
+    public void add(int index, T element) {
+        modCount++;
+        elements().add(index, element);
+    }
+
+    @Override
+    public T remove(int index) {
+        modCount++;
+        return elements().remove(index);
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        elements().clear();
+    }
+}
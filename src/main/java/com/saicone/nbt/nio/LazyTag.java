@@ -0,0 +1,88 @@
+package com.saicone.nbt.nio;
+
+import com.saicone.nbt.io.TagEncoding;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * <b>Lazy Tag</b><br>
+ * A lazy tag is a container view backed by the raw bytes that represents its value,
+ * the contained values are only decoded when they are accessed.<br>
+ * Any unmodified lazy tag can be written back as the original byte range.
+ *
+ * @author Rubenicos
+ */
+public interface LazyTag {
+
+    /**
+     * Check if the provided value can be written as raw bytes if it was decoded from a lazy tag.
+     *
+     * @param value the decoded value.
+     * @return      true if the value is immutable or an unmodified lazy tag.
+     */
+    static boolean isRaw(@Nullable Object value) {
+        if (value instanceof LazyTag) {
+            return !((LazyTag) value).isModified();
+        }
+        return value == null || value instanceof Number || value instanceof String || value instanceof Boolean;
+    }
+
+    /**
+     * Get the raw bytes that represent this tag value, without the tag ID.
+     *
+     * @return a read-only buffer positioned at the start of tag value.
+     */
+    @NotNull
+    ByteBuffer raw();
+
+    /**
+     * Write the raw bytes that represent this tag value into provided output, without the tag ID.<br>
+     * Unlike {@link #raw()}, the bytes are written directly from the backing array if the tag is heap-backed.
+     *
+     * @param output the output to write bytes.
+     * @return       true if the bytes were written, false if the raw bytes are not backed by an accessible array.
+     * @throws IOException if any I/O error occurs.
+     */
+    default boolean writeRaw(@NotNull DataOutput output) throws IOException {
+        return false;
+    }
+
+    /**
+     * Get the encoding of raw bytes.
+     *
+     * @return a tag encoding, null if the encoding is unknown.
+     */
+    @Nullable
+    TagEncoding encoding();
+
+    /**
+     * Check if this tag or any nested tag was modified since it was read.
+     *
+     * @return true if the tag was modified.
+     */
+    boolean isModified();
+
+    /**
+     * Check if the raw bytes of this tag can be written with provided encoding.
+     *
+     * @param encoding the encoding to check.
+     * @return         true if the encoding is the same as raw bytes.
+     */
+    default boolean isCompatible(@Nullable TagEncoding encoding) {
+        return encoding != null && encoding == encoding();
+    }
+
+    /**
+     * Check if the raw bytes of this tag can be written into provided tag buffer.
+     *
+     * @param buffer the tag buffer to write.
+     * @return       true if the tag buffer use the same encoding.
+     */
+    default boolean isCompatible(@NotNull TagBuffer<?> buffer) {
+        return isCompatible(TagEncoding.of(buffer));
+    }
+}
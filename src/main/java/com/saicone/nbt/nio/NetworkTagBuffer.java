@@ -5,6 +5,7 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -59,6 +60,50 @@ public class NetworkTagBuffer<T> extends TagBuffer<T> {
         super(buffer, mapper);
     }
 
+    /**
+     * Create a growable network tag buffer that use nbt-represented java objects and take its
+     * {@link ByteBuffer} instances from provided pool.<br>
+     * The delegated buffers use little-endian byte order.
+     *
+     * @param pool the pool that provide byte buffers.
+     * @return     a newly generated tag buffer.
+     */
+    @NotNull
+    public static TagBuffer<Object> growable(@NotNull BufferPool pool) {
+        return growable(pool, TagMapper.DEFAULT);
+    }
+
+    /**
+     * Create a growable network tag buffer with provided {@link TagMapper} that take its
+     * {@link ByteBuffer} instances from provided pool.<br>
+     * The delegated buffers use little-endian byte order.
+     *
+     * @param pool   the pool that provide byte buffers.
+     * @param mapper the mapper for tag object implementation.
+     * @return       a newly generated tag buffer.
+     * @param <T>    the tag object implementation.
+     */
+    @NotNull
+    public static <T> TagBuffer<T> growable(@NotNull BufferPool pool, @NotNull TagMapper<T> mapper) {
+        return new NetworkTagBuffer<>(pool, DEFAULT_CAPACITY, mapper).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Construct a growable network tag buffer with provided {@link BufferPool} and {@link TagMapper}.
+     *
+     * @param pool     the pool that provide byte buffers.
+     * @param capacity the initial capacity.
+     * @param mapper   the mapper for tag object implementation.
+     */
+    public NetworkTagBuffer(@NotNull BufferPool pool, int capacity, @NotNull TagMapper<T> mapper) {
+        super(pool, capacity, mapper);
+    }
+
+    @Override
+    protected @NotNull TagBuffer<T> duplicate(@NotNull ByteBuffer buffer) {
+        return new NetworkTagBuffer<>(buffer, mapper()).lazy(isLazy()).compact(isCompact()).keyCache(getKeyCache()).iterative(isIterative());
+    }
+
     /**
      * Reads an unsigned VarInt32 as integer.
      *
@@ -108,11 +153,62 @@ public class NetworkTagBuffer<T> extends TagBuffer<T> {
     }
 
     @Override
-    public @NotNull String getString() {
+    protected int getStringLength() {
         // The Strings use an unsigned VarInt32 without ZigZag decode for length
-        final byte[] bytes = new byte[getUnsignedVarInt32()];
-        this.buffer().get(bytes);
-        return new String(bytes, StandardCharsets.UTF_8);
+        return getUnsignedVarInt32();
+    }
+
+    @Override
+    protected @NotNull String decodeString(byte[] bytes, int offset, int length) {
+        // Network Strings are always standard UTF-8, no matter the buffer order
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected byte[] encodeString(@NotNull String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void getInts(int[] array) {
+        for (int i = 0; i < array.length; i++) {
+            array[i] = getInt();
+        }
+    }
+
+    @Override
+    protected void getLongs(long[] array) {
+        for (int i = 0; i < array.length; i++) {
+            array[i] = getLong();
+        }
+    }
+
+    @Override
+    protected void putInts(int[] array) {
+        for (int i : array) {
+            putInt(i);
+        }
+    }
+
+    @Override
+    protected void putLongs(long[] array) {
+        for (long l : array) {
+            putLong(l);
+        }
+    }
+
+    @Override
+    protected void skipInts(int amount) {
+        for (int i = 0; i < amount; i++) {
+            getUnsignedVarInt32();
+        }
+    }
+
+    @Override
+    protected void skipLongs(int amount) {
+        for (int i = 0; i < amount; i++) {
+            getUnsignedVarInt64();
+        }
     }
 
     /**
@@ -243,8 +339,9 @@ public class NetworkTagBuffer<T> extends TagBuffer<T> {
     @Override
     public @NotNull TagBuffer<T> putString(@NotNull String value) {
         // The Strings use an unsigned VarInt32 without ZigZag encode for length
-        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        final byte[] bytes = encodeString(value);
         putUnsignedVarInt32(bytes.length);
+        ensureWritable(bytes.length);
         this.buffer().put(bytes);
         return this;
     }
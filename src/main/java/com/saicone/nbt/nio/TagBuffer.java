@@ -1,17 +1,26 @@
 package com.saicone.nbt.nio;
 
 import com.saicone.nbt.Tag;
+import com.saicone.nbt.TagCodec;
 import com.saicone.nbt.TagMapper;
+import com.saicone.nbt.TagSelector;
 import com.saicone.nbt.TagType;
+import com.saicone.nbt.io.ModifiedUtf8;
+import com.saicone.nbt.io.TagEncoding;
+import com.saicone.nbt.util.CompactCompound;
+import com.saicone.nbt.util.TagKeyCache;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.UTFDataFormatException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -51,10 +60,61 @@ public class TagBuffer<T> {
         return new TagBuffer<>(buffer, mapper);
     }
 
-    private final ByteBuffer buffer;
+    /**
+     * Create a growable tag buffer that use nbt-represented java objects and take its
+     * {@link ByteBuffer} instances from provided pool.
+     *
+     * @param pool the pool that provide byte buffers.
+     * @return     a newly generated tag buffer.
+     * @see #release()
+     */
+    @NotNull
+    public static TagBuffer<Object> growable(@NotNull BufferPool pool) {
+        return growable(pool, TagMapper.DEFAULT);
+    }
+
+    /**
+     * Create a growable tag buffer with provided {@link TagMapper} that take its
+     * {@link ByteBuffer} instances from provided pool.
+     *
+     * @param pool   the pool that provide byte buffers.
+     * @param mapper the mapper for tag object implementation.
+     * @return       a newly generated tag buffer.
+     * @param <T>    the tag object implementation.
+     * @see #release()
+     */
+    @NotNull
+    public static <T> TagBuffer<T> growable(@NotNull BufferPool pool, @NotNull TagMapper<T> mapper) {
+        return new TagBuffer<>(pool, DEFAULT_CAPACITY, mapper);
+    }
+
+    /**
+     * The initial capacity used by growable tag buffers.
+     */
+    protected static final int DEFAULT_CAPACITY = 256;
+
+    private static final int COMPOUND_FRAME = -1;
+
+    private ByteBuffer buffer;
     private final TagMapper<T> mapper;
+    private final TagCodec<T> codec;
+    private final BufferPool pool;
 
     private int remainingDepth = Tag.MAX_STACK_DEPTH;
+    private TagSelector selector;
+    private TagSelector node;
+    private boolean lazy = false;
+    private boolean compact = false;
+    private TagKeyCache keyCache;
+    private boolean iterative = false;
+    private int frameCount;
+    private Object[] frameValues;
+    private String[] frameKeys;
+    private byte[] frameTypes;
+    private int[] frameRemaining;
+    private int putCount;
+    private Iterator<?>[] putIterators;
+    private TagType<?>[] putTypes;
 
     /**
      * Construct a tag buffer with provided {@link ByteBuffer} and {@link TagMapper}.
@@ -65,10 +125,29 @@ public class TagBuffer<T> {
     public TagBuffer(@NotNull ByteBuffer buffer, @NotNull TagMapper<T> mapper) {
         this.buffer = buffer;
         this.mapper = mapper;
+        this.codec = TagCodec.of(mapper);
+        this.pool = null;
     }
 
     /**
-     * Get delegated byte buffer.
+     * Construct a growable tag buffer with provided {@link BufferPool} and {@link TagMapper}.<br>
+     * The delegated buffer is replaced by a bigger one from the pool when there is not
+     * enough space to write, and the previous buffer is released into the pool.
+     *
+     * @param pool     the pool that provide byte buffers.
+     * @param capacity the initial capacity.
+     * @param mapper   the mapper for tag object implementation.
+     */
+    public TagBuffer(@NotNull BufferPool pool, int capacity, @NotNull TagMapper<T> mapper) {
+        this.buffer = pool.acquire(capacity);
+        this.mapper = mapper;
+        this.codec = TagCodec.of(mapper);
+        this.pool = pool;
+    }
+
+    /**
+     * Get delegated byte buffer.<br>
+     * On growable tag buffers the returned instance can change after any write.
      *
      * @return a buffer that will provide/receive data.
      */
@@ -77,6 +156,48 @@ public class TagBuffer<T> {
         return buffer;
     }
 
+    /**
+     * Check if the current instance replace its delegated buffer when there is not enough space to write.
+     *
+     * @return true if the buffer is growable.
+     */
+    public boolean isGrowable() {
+        return pool != null;
+    }
+
+    /**
+     * Make sure the delegated buffer can receive the provided amount of bytes, growable
+     * tag buffers take a bigger buffer from its pool if required.
+     *
+     * @param bytes the amount of bytes to write.
+     */
+    protected void ensureWritable(int bytes) {
+        if (pool == null || buffer.remaining() >= bytes) {
+            return;
+        }
+        final int required = buffer.position() + bytes;
+        if (required < 0) {
+            throw new IllegalArgumentException("Cannot grow buffer to more than 2GB of data");
+        }
+        final ByteBuffer grown = pool.acquire(Math.max(required, (int) Math.min(Integer.MAX_VALUE, buffer.capacity() * 2L)));
+        grown.order(buffer.order());
+        buffer.flip();
+        grown.put(buffer);
+        pool.release(buffer);
+        buffer = grown;
+    }
+
+    /**
+     * Return the delegated buffer into the pool of growable tag buffers, the current instance
+     * and any buffer obtained from {@link #buffer()} must not be used after release.
+     */
+    public void release() {
+        if (pool != null && buffer != null) {
+            pool.release(buffer);
+            buffer = null;
+        }
+    }
+
     /**
      * Get the mapper for tag object implementation.
      *
@@ -122,6 +243,148 @@ public class TagBuffer<T> {
         return this;
     }
 
+    /**
+     * Set the selector that will be used to read only the selected compound paths,
+     * any other compound entry will be skipped.
+     *
+     * @param selector the selector to use, null to read everything.
+     * @return         this instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TagBuffer<T> select(@Nullable TagSelector selector) {
+        this.selector = selector;
+        this.node = selector;
+        return this;
+    }
+
+    /**
+     * Set the lazy mode of this instance, compounds and lists will be read as views backed by
+     * the raw bytes of delegated buffer, that only decode values when are requested.
+     *
+     * @param lazy true to read containers as lazy views.
+     * @return     this instance.
+     * @see LazyCompound
+     * @see LazyList
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TagBuffer<T> lazy(boolean lazy) {
+        this.lazy = lazy;
+        return this;
+    }
+
+    /**
+     * Check if the current instance read compounds and lists as lazy views.
+     *
+     * @return true if lazy mode is enabled.
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Set the compact mode of this instance, compounds will be read as {@link CompactCompound}
+     * that store primitive values unboxed.<br>
+     * This mode only takes effect if the current mapper is {@link TagMapper#DEFAULT}.
+     *
+     * @param compact true to read compounds as compact maps.
+     * @return        this instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TagBuffer<T> compact(boolean compact) {
+        this.compact = compact;
+        return this;
+    }
+
+    /**
+     * Check if the current instance read compounds as compact maps.
+     *
+     * @return true if compact mode is enabled.
+     */
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * Set the key cache of this instance, compound keys will be looked up by its raw bytes
+     * to reuse the same String instances across reads.
+     *
+     * @param keyCache the key cache to use, null to decode every key.
+     * @return         this instance.
+     * @see TagKeyCache#SHARED
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TagBuffer<T> keyCache(@Nullable TagKeyCache keyCache) {
+        this.keyCache = keyCache;
+        return this;
+    }
+
+    /**
+     * Set the iterative mode of this instance, compounds and lists will be read and written using
+     * an explicit stack of frames instead of recursive method calls, so deeply nested values don't
+     * consume thread stack and can be handled from threads with small stack size.<br>
+     * Depth limits are checked in the same way, this mode doesn't take effect on selected
+     * reads or when compounds are read as lazy views or compact maps.
+     *
+     * @param iterative true to handle containers without recursion.
+     * @return          this instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TagBuffer<T> iterative(boolean iterative) {
+        this.iterative = iterative;
+        return this;
+    }
+
+    /**
+     * Check if the current instance handle compounds and lists without recursion.
+     *
+     * @return true if iterative mode is enabled.
+     */
+    public boolean isIterative() {
+        return iterative;
+    }
+
+    /**
+     * Get the key cache used by this instance.
+     *
+     * @return a key cache, null if keys are not cached.
+     */
+    @Nullable
+    public TagKeyCache getKeyCache() {
+        return keyCache;
+    }
+
+    /**
+     * Create a tag buffer with the same format and configuration of this instance, but using
+     * the provided {@link ByteBuffer}.<br>
+     * Any subclass that change the tag format must override this method.
+     *
+     * @param buffer the buffer that will provide/receive data.
+     * @return       a newly generated tag buffer.
+     */
+    @NotNull
+    protected TagBuffer<T> duplicate(@NotNull ByteBuffer buffer) {
+        return new TagBuffer<>(buffer, mapper).lazy(lazy).compact(compact).keyCache(keyCache).iterative(iterative);
+    }
+
+    /**
+     * Create a byte buffer that share the provided region of delegated buffer.
+     *
+     * @param index  the start index.
+     * @param length the region length.
+     * @return       a byte buffer slice with the same byte order.
+     */
+    @NotNull
+    protected ByteBuffer slice(int index, int length) {
+        final ByteBuffer slice = buffer.duplicate();
+        slice.position(index).limit(index + length);
+        return slice.slice().order(buffer.order());
+    }
+
     /**
      * Increment nested value depth usage.
      */
@@ -208,9 +471,87 @@ public class TagBuffer<T> {
      */
     @NotNull
     public String getString() {
-        final byte[] bytes = new byte[buffer.getShort()];
+        final int length = getStringLength();
+        if (buffer.hasArray()) {
+            final int position = buffer.position();
+            buffer.position(position + length);
+            return decodeString(buffer.array(), buffer.arrayOffset() + position, length);
+        }
+        final byte[] bytes = new byte[length];
         buffer.get(bytes);
-        return new String(bytes, StandardCharsets.UTF_8);
+        return decodeString(bytes, 0, length);
+    }
+
+    /**
+     * Reads a compound key from delegated byte buffer according nbt format, using the
+     * current key cache if any.
+     *
+     * @return the String key at buffer position.
+     */
+    @NotNull
+    public String getKey() {
+        if (keyCache == null) {
+            return getString();
+        }
+        final int length = getStringLength();
+        final byte[] bytes;
+        final int offset;
+        if (buffer.hasArray()) {
+            bytes = buffer.array();
+            offset = buffer.arrayOffset() + buffer.position();
+            buffer.position(buffer.position() + length);
+        } else {
+            bytes = new byte[length];
+            offset = 0;
+            buffer.get(bytes);
+        }
+        final String key = keyCache.get(bytes, offset, length);
+        return key != null ? key : decodeString(bytes, offset, length);
+    }
+
+    /**
+     * Reads the length of String from delegated byte buffer according nbt format.
+     *
+     * @return the amount of bytes used by String.
+     */
+    protected int getStringLength() {
+        return Short.toUnsignedInt(buffer.getShort());
+    }
+
+    /**
+     * Decode a String from the provided bytes according nbt format.<br>
+     * Big-endian buffers use the modified UTF-8 format of Java Edition, while
+     * little-endian buffers use standard UTF-8.
+     *
+     * @param bytes  the byte array that contains the encoded String.
+     * @param offset the start index of String.
+     * @param length the amount of bytes used by String.
+     * @return       a decoded String.
+     */
+    @NotNull
+    protected String decodeString(byte[] bytes, int offset, int length) {
+        if (buffer.order() == ByteOrder.BIG_ENDIAN) {
+            try {
+                return ModifiedUtf8.decode(bytes, offset, length);
+            } catch (UTFDataFormatException e) {
+                throw new IllegalArgumentException("Cannot read String: " + e.getMessage(), e);
+            }
+        }
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encode the provided String into bytes according nbt format.
+     *
+     * @param value the String to encode.
+     * @return      a byte array with encoded String.
+     * @see #decodeString(byte[], int, int)
+     */
+    protected byte[] encodeString(@NotNull String value) {
+        if (buffer.order() == ByteOrder.BIG_ENDIAN) {
+            return ModifiedUtf8.encode(value);
+        }
+        return value.getBytes(StandardCharsets.UTF_8);
     }
 
     /**
@@ -239,9 +580,7 @@ public class TagBuffer<T> {
             throw new IllegalArgumentException("Cannot read int array with more than 64MB of data");
         }
         final int[] array = new int[size];
-        for (int i = 0; i < size; i++) {
-            array[i] = this.getInt();
-        }
+        getInts(array);
         return array;
     }
 
@@ -253,12 +592,32 @@ public class TagBuffer<T> {
     public long[] getLongArray() {
         final int size = this.getInt();
         final long[] array = new long[size];
-        for (int i = 0; i < size; i++) {
-            array[i] = this.getLong();
-        }
+        getLongs(array);
         return array;
     }
 
+    /**
+     * Reads integers from delegated byte buffer to fill the provided array, the
+     * default implementation use a bulk read with the current byte order.
+     *
+     * @param array the array to fill.
+     */
+    protected void getInts(int[] array) {
+        buffer.asIntBuffer().get(array);
+        buffer.position(buffer.position() + array.length * Integer.BYTES);
+    }
+
+    /**
+     * Reads longs from delegated byte buffer to fill the provided array, the
+     * default implementation use a bulk read with the current byte order.
+     *
+     * @param array the array to fill.
+     */
+    protected void getLongs(long[] array) {
+        buffer.asLongBuffer().get(array);
+        buffer.position(buffer.position() + array.length * Long.BYTES);
+    }
+
     /**
      * Reads a list full of tag objects from delegated byte buffer according nbt format.
      *
@@ -301,9 +660,15 @@ public class TagBuffer<T> {
         while ((id = this.get()) != Tag.END) {
             final TagType<?> type = TagType.getType(id);
 
-            final String key = this.getString();
-            final T value = this.getTag(type);
-            map.put(key, value);
+            final String key = this.getKey();
+            if (node == null) {
+                map.put(key, this.getTag(type));
+            } else {
+                final T value = this.getSelected(type, key);
+                if (value != null) {
+                    map.put(key, value);
+                }
+            }
         }
 
         decrementDepth();
@@ -311,6 +676,214 @@ public class TagBuffer<T> {
         return map;
     }
 
+    /**
+     * Reads a compound or list from delegated byte buffer using an explicit stack of frames, every
+     * nested compound or list is pushed as a new frame and built into tag object once its last value is read.<br>
+     * Any other value is read with {@link #getTag(TagType)}, so nested values are never read by recursion.
+     *
+     * @param type the type of container to read.
+     * @return     a tag object.
+     * @param <A>  the implementation of tag object.
+     */
+    @SuppressWarnings("unchecked")
+    protected <A extends T> A getIterative(@NotNull TagType<?> type) {
+        final int base = frameCount;
+        try {
+            pushFrame(type, null);
+            while (true) {
+                final int top = frameCount - 1;
+                final TagType<?> valueType;
+                String key = null;
+                if (frameRemaining[top] == COMPOUND_FRAME) {
+                    final byte id = this.get();
+                    if (id == Tag.END) {
+                        valueType = null;
+                    } else {
+                        valueType = TagType.getType(id);
+                        key = this.getKey();
+                    }
+                } else if (frameRemaining[top] > 0) {
+                    frameRemaining[top]--;
+                    valueType = TagType.getType(frameTypes[top]);
+                } else {
+                    valueType = null;
+                }
+
+                if (valueType == null) {
+                    // Frame completed
+                    final T value = popFrame();
+                    if (frameCount == base) {
+                        return (A) value;
+                    }
+                    addValue(frameKeys[top], value);
+                } else if (valueType.id() == Tag.LIST || valueType.id() == Tag.COMPOUND) {
+                    pushFrame(valueType, key);
+                } else {
+                    addValue(key, this.getTag(valueType));
+                }
+            }
+        } finally {
+            for (int i = base; i < frameCount; i++) {
+                frameValues[i] = null;
+            }
+            frameCount = base;
+        }
+    }
+
+    private void pushFrame(@NotNull TagType<?> type, @Nullable String key) {
+        incrementDepth();
+        final int index = frameCount;
+        if (frameValues == null) {
+            frameValues = new Object[16];
+            frameKeys = new String[16];
+            frameTypes = new byte[16];
+            frameRemaining = new int[16];
+        } else if (index == frameValues.length) {
+            frameValues = Arrays.copyOf(frameValues, index * 2);
+            frameKeys = Arrays.copyOf(frameKeys, index * 2);
+            frameTypes = Arrays.copyOf(frameTypes, index * 2);
+            frameRemaining = Arrays.copyOf(frameRemaining, index * 2);
+        }
+
+        if (type.id() == Tag.LIST) {
+            final byte id = this.get();
+            final int size = this.getInt();
+            if (id == Tag.END && size > 0) {
+                throw new IllegalArgumentException("Cannot read list without tag type");
+            }
+            frameValues[index] = new ArrayList<T>(size);
+            frameTypes[index] = id;
+            frameRemaining[index] = size;
+        } else {
+            frameValues[index] = new HashMap<String, T>();
+            frameTypes[index] = Tag.COMPOUND;
+            frameRemaining[index] = COMPOUND_FRAME;
+        }
+        frameKeys[index] = key;
+        frameCount = index + 1;
+    }
+
+    @NotNull
+    private T popFrame() {
+        decrementDepth();
+        final int index = --frameCount;
+        final Object container = frameValues[index];
+        frameValues[index] = null;
+        return codec.build(frameRemaining[index] == COMPOUND_FRAME ? TagType.COMPOUND : TagType.LIST, container);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addValue(@Nullable String key, @Nullable T value) {
+        final Object container = frameValues[frameCount - 1];
+        if (key == null) {
+            ((List<T>) container).add(value);
+        } else {
+            ((Map<String, T>) container).put(key, value);
+        }
+    }
+
+    /**
+     * Reads a compound as compact compound from delegated byte buffer, primitive
+     * values are stored without any boxing.
+     *
+     * @return the compound tag map at buffer position.
+     */
+    @NotNull
+    public CompactCompound getCompactCompound() {
+        incrementDepth();
+
+        final CompactCompound compound = new CompactCompound();
+
+        byte id;
+        while ((id = this.get()) != Tag.END) {
+            final TagType<?> type = TagType.getType(id);
+
+            final String key = this.getKey();
+            if (node != null) {
+                final T value = this.getSelected(type, key);
+                if (value != null) {
+                    compound.put(key, value);
+                }
+                continue;
+            }
+            switch (id) {
+                case Tag.BYTE:
+                    compound.putByte(key, this.get());
+                    break;
+                case Tag.SHORT:
+                    compound.putShort(key, this.getShort());
+                    break;
+                case Tag.INT:
+                    compound.putInt(key, this.getInt());
+                    break;
+                case Tag.LONG:
+                    compound.putLong(key, this.getLong());
+                    break;
+                case Tag.FLOAT:
+                    compound.putFloat(key, this.getFloat());
+                    break;
+                case Tag.DOUBLE:
+                    compound.putDouble(key, this.getDouble());
+                    break;
+                default:
+                    compound.put(key, this.getTag(type));
+                    break;
+            }
+        }
+
+        decrementDepth();
+
+        return compound;
+    }
+
+    /**
+     * Reads a list as lazy view backed by the raw bytes of delegated buffer.
+     *
+     * @return the list tag value at buffer position.
+     */
+    @NotNull
+    public List<T> getLazyList() {
+        final int start = buffer.position();
+        skipTag(TagType.LIST);
+        return new LazyList<>(duplicate(slice(start, buffer.position() - start)));
+    }
+
+    /**
+     * Reads a compound as lazy view backed by the raw bytes of delegated buffer.
+     *
+     * @return the compound tag map at buffer position.
+     */
+    @NotNull
+    public Map<String, T> getLazyCompound() {
+        final int start = buffer.position();
+        skipTag(TagType.COMPOUND);
+        return new LazyCompound<>(duplicate(slice(start, buffer.position() - start)));
+    }
+
+    /**
+     * Reads a compound entry value only if it's selected by current selector node,
+     * otherwise the value will be skipped.
+     *
+     * @param type the type of tag to read.
+     * @param key  the compound entry key.
+     * @return     a tag object, null if the value was skipped.
+     */
+    @Nullable
+    protected T getSelected(@NotNull TagType<?> type, @NotNull String key) {
+        final TagSelector parent = this.node;
+        final TagSelector child = parent.get(key);
+        if (child == null) {
+            skipTag(type);
+            return null;
+        }
+        this.node = child.isFull() ? null : child;
+        try {
+            return getTag(type);
+        } finally {
+            this.node = parent;
+        }
+    }
+
     /**
      * Reads a tag by providing a tag type.<br>
      * This method assumes that tag ID was already skipped / read.
@@ -325,19 +898,19 @@ public class TagBuffer<T> {
                 return null;
             case Tag.BYTE:
                 if (type == TagType.BOOLEAN) {
-                    return mapper.buildAny(type, this.getBoolean());
+                    return codec.build(type, this.getBoolean());
                 }
-                return mapper.buildAny(type, this.get());
+                return codec.build(type, this.get());
             case Tag.SHORT:
-                return mapper.buildAny(type, this.getShort());
+                return codec.build(type, this.getShort());
             case Tag.INT:
-                return mapper.buildAny(type, this.getInt());
+                return codec.build(type, this.getInt());
             case Tag.LONG:
-                return mapper.buildAny(type, this.getLong());
+                return codec.build(type, this.getLong());
             case Tag.FLOAT:
-                return mapper.buildAny(type, this.getFloat());
+                return codec.build(type, this.getFloat());
             case Tag.DOUBLE:
-                return mapper.buildAny(type, this.getDouble());
+                return codec.build(type, this.getDouble());
             case Tag.BYTE_ARRAY:
                 final Object array;
                 if (type == TagType.BOOLEAN_ARRAY) {
@@ -345,22 +918,196 @@ public class TagBuffer<T> {
                 } else {
                     array = this.getByteArray();
                 }
-                return mapper.buildAny(type, array);
+                return codec.build(type, array);
+            case Tag.STRING:
+                return codec.build(type, this.getString());
+            case Tag.LIST:
+                if (lazy && node == null) {
+                    return codec.build(type, this.getLazyList());
+                }
+                if (iterative && node == null && !(compact && mapper == (Object) TagMapper.DEFAULT)) {
+                    return this.getIterative(type);
+                }
+                return codec.build(type, this.getList());
+            case Tag.COMPOUND:
+                if (lazy && node == null) {
+                    return codec.build(type, this.getLazyCompound());
+                }
+                if (compact && mapper == (Object) TagMapper.DEFAULT) {
+                    return codec.build(type, this.getCompactCompound());
+                }
+                if (iterative && node == null) {
+                    return this.getIterative(type);
+                }
+                return codec.build(type, this.getCompound());
+            case Tag.INT_ARRAY:
+                return codec.build(type, this.getIntArray());
+            case Tag.LONG_ARRAY:
+                return codec.build(type, this.getLongArray());
+            default:
+                throw new IllegalArgumentException("Invalid tag type: " + type.name());
+        }
+    }
+
+    /**
+     * Reads a tag located at provided region of delegated buffer, compounds and lists
+     * will be read as lazy views.
+     *
+     * @param type   the type of tag to read.
+     * @param index  the start index of tag value.
+     * @param length the byte length of tag value.
+     * @return       a tag object.
+     * @param <A>    the implementation of tag object.
+     */
+    protected <A extends T> A getTag(@NotNull TagType<?> type, int index, int length) {
+        switch (type.id()) {
+            case Tag.LIST:
+                return codec.build(type, new LazyList<>(duplicate(slice(index, length))));
+            case Tag.COMPOUND:
+                return codec.build(type, new LazyCompound<>(duplicate(slice(index, length))));
+            default:
+                buffer.position(index);
+                return getTag(type);
+        }
+    }
+
+    /**
+     * Skips a tag value by providing a tag type, without creating any tag object.<br>
+     * This method assumes that tag ID was already skipped / read.
+     *
+     * @param type the type of tag to skip.
+     */
+    public void skipTag(@NotNull TagType<?> type) {
+        switch (type.id()) {
+            case Tag.END:
+                break;
+            case Tag.BYTE:
+                skip(Byte.BYTES);
+                break;
+            case Tag.SHORT:
+                skip(Short.BYTES);
+                break;
+            case Tag.INT:
+                skipInts(1);
+                break;
+            case Tag.LONG:
+                skipLongs(1);
+                break;
+            case Tag.FLOAT:
+                skip(Float.BYTES);
+                break;
+            case Tag.DOUBLE:
+                skip(Double.BYTES);
+                break;
+            case Tag.BYTE_ARRAY:
+                skip(this.getInt());
+                break;
             case Tag.STRING:
-                return mapper.buildAny(type, this.getString());
+                skipString();
+                break;
             case Tag.LIST:
-                return mapper.buildAny(type, this.getList());
+                final byte id = this.get();
+                final int size = this.getInt();
+                if (id == Tag.END && size > 0) {
+                    throw new IllegalArgumentException("Cannot read list without tag type");
+                }
+                skipElements(TagType.getType(id), size);
+                break;
             case Tag.COMPOUND:
-                return mapper.buildAny(type, this.getCompound());
+                incrementDepth();
+                byte entryId;
+                while ((entryId = this.get()) != Tag.END) {
+                    skipString();
+                    skipTag(TagType.getType(entryId));
+                }
+                decrementDepth();
+                break;
             case Tag.INT_ARRAY:
-                return mapper.buildAny(type, this.getIntArray());
+                skipInts(this.getInt());
+                break;
             case Tag.LONG_ARRAY:
-                return mapper.buildAny(type, this.getLongArray());
+                skipLongs(this.getInt());
+                break;
             default:
                 throw new IllegalArgumentException("Invalid tag type: " + type.name());
         }
     }
 
+    /**
+     * Skips an amount of list elements with the same tag type.
+     *
+     * @param type the type of elements.
+     * @param size the amount of elements to skip.
+     */
+    protected void skipElements(@NotNull TagType<?> type, int size) {
+        switch (type.id()) {
+            case Tag.END:
+                break;
+            case Tag.BYTE:
+                skip((long) Byte.BYTES * size);
+                break;
+            case Tag.SHORT:
+                skip((long) Short.BYTES * size);
+                break;
+            case Tag.FLOAT:
+                skip((long) Float.BYTES * size);
+                break;
+            case Tag.DOUBLE:
+                skip((long) Double.BYTES * size);
+                break;
+            case Tag.INT:
+                skipInts(size);
+                break;
+            case Tag.LONG:
+                skipLongs(size);
+                break;
+            default:
+                incrementDepth();
+                for (int i = 0; i < size; i++) {
+                    skipTag(type);
+                }
+                decrementDepth();
+                break;
+        }
+    }
+
+    /**
+     * Skips an amount of integer values.
+     *
+     * @param amount the amount of integers to skip.
+     */
+    protected void skipInts(int amount) {
+        skip((long) Integer.BYTES * amount);
+    }
+
+    /**
+     * Skips an amount of long values.
+     *
+     * @param amount the amount of longs to skip.
+     */
+    protected void skipLongs(int amount) {
+        skip((long) Long.BYTES * amount);
+    }
+
+    /**
+     * Skips a String value.
+     */
+    protected void skipString() {
+        skip(getStringLength());
+    }
+
+    /**
+     * Skips the provided amount of bytes by moving the delegated buffer position.
+     *
+     * @param bytes the amount of bytes to skip.
+     */
+    protected void skip(long bytes) {
+        if (bytes < 0 || bytes > buffer.remaining()) {
+            throw new IllegalArgumentException("Cannot skip " + bytes + " bytes with " + buffer.remaining() + " remaining bytes");
+        }
+        buffer.position(buffer.position() + (int) bytes);
+    }
+
     /**
      * Reads a tag with unnamed tag format.
      *
@@ -368,15 +1115,14 @@ public class TagBuffer<T> {
      * @param <A> the implementation of tag object.
      */
     public <A extends T> A getUnnamedTag() {
+        this.node = this.selector;
         final byte id = this.get();
         final TagType<Object> type = TagType.getType(id);
         if (type == TagType.END) {
-            return mapper.buildAny(type, null);
+            return codec.build(type, null);
         }
         // Skip name
-        // For network stream compatibility use:
-        // this.getString();
-        buffer.position(buffer.position() + Short.toUnsignedInt(buffer.getShort()));
+        skipString();
         return getTag(type);
     }
 
@@ -388,10 +1134,11 @@ public class TagBuffer<T> {
      * @param <A> the implementation of tag object.
      */
     public <A extends T> A getAnyTag() {
+        this.node = this.selector;
         final byte id = this.get();
         final TagType<Object> type = TagType.getType(id);
         if (type == TagType.END) {
-            return mapper.buildAny(type, null);
+            return codec.build(type, null);
         }
         return getTag(type);
     }
@@ -421,10 +1168,27 @@ public class TagBuffer<T> {
     @NotNull
     @Contract("_ -> this")
     public TagBuffer<T> put(byte b) {
+        ensureWritable(Byte.BYTES);
         buffer.put(b);
         return this;
     }
 
+    /**
+     * Writes the provided bytes without any encoding into delegated byte buffer.
+     *
+     * @param bytes  the bytes to write.
+     * @param offset the start offset in the bytes.
+     * @param length the number of bytes to write.
+     * @return       this instance.
+     */
+    @NotNull
+    @Contract("_, _, _ -> this")
+    public TagBuffer<T> put(byte[] bytes, int offset, int length) {
+        ensureWritable(length);
+        buffer.put(bytes, offset, length);
+        return this;
+    }
+
     /**
      * Writes the provided boolean into delegated byte buffer according nbt format.
      *
@@ -446,6 +1210,7 @@ public class TagBuffer<T> {
     @NotNull
     @Contract("_ -> this")
     public TagBuffer<T> putShort(short value) {
+        ensureWritable(Short.BYTES);
         buffer.putShort(value);
         return this;
     }
@@ -459,6 +1224,7 @@ public class TagBuffer<T> {
     @NotNull
     @Contract("_ -> this")
     public TagBuffer<T> putInt(int value) {
+        ensureWritable(Integer.BYTES);
         buffer.putInt(value);
         return this;
     }
@@ -472,6 +1238,7 @@ public class TagBuffer<T> {
     @NotNull
     @Contract("_ -> this")
     public TagBuffer<T> putLong(long value) {
+        ensureWritable(Long.BYTES);
         buffer.putLong(value);
         return this;
     }
@@ -485,6 +1252,7 @@ public class TagBuffer<T> {
     @NotNull
     @Contract("_ -> this")
     public TagBuffer<T> putFloat(float value) {
+        ensureWritable(Float.BYTES);
         buffer.putFloat(value);
         return this;
     }
@@ -498,6 +1266,7 @@ public class TagBuffer<T> {
     @NotNull
     @Contract("_ -> this")
     public TagBuffer<T> putDouble(double value) {
+        ensureWritable(Double.BYTES);
         buffer.putDouble(value);
         return this;
     }
@@ -511,8 +1280,26 @@ public class TagBuffer<T> {
     @NotNull
     @Contract("_ -> this")
     public TagBuffer<T> putString(@NotNull String value) {
-        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        final byte[] bytes = encodeString(value);
+        if (bytes.length > 65535) {
+            throw new IllegalArgumentException("Cannot write String with " + bytes.length + " bytes, the limit is 65535");
+        }
         this.putShort((short) bytes.length);
+        ensureWritable(bytes.length);
+        buffer.put(bytes);
+        return this;
+    }
+
+    /**
+     * Writes the provided bytes without any encoding into delegated byte buffer.
+     *
+     * @param bytes the bytes to write.
+     * @return      this instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    protected TagBuffer<T> putRaw(@NotNull ByteBuffer bytes) {
+        ensureWritable(bytes.remaining());
         buffer.put(bytes);
         return this;
     }
@@ -527,6 +1314,7 @@ public class TagBuffer<T> {
     @Contract("_ -> this")
     public TagBuffer<T> putByteArray(byte[] value) {
         this.putInt(value.length);
+        ensureWritable(value.length);
         buffer.put(value);
         return this;
     }
@@ -541,9 +1329,7 @@ public class TagBuffer<T> {
     @Contract("_ -> this")
     public TagBuffer<T> putIntArray(int[] value) {
         this.putInt(value.length);
-        for (int i : value) {
-            this.putInt(i);
-        }
+        putInts(value);
         return this;
     }
 
@@ -557,12 +1343,34 @@ public class TagBuffer<T> {
     @Contract("_ -> this")
     public TagBuffer<T> putLongArray(long[] value) {
         this.putInt(value.length);
-        for (long l : value) {
-            this.putLong(l);
-        }
+        putLongs(value);
         return this;
     }
 
+    /**
+     * Writes the provided integers into delegated byte buffer, the default
+     * implementation use a bulk write with the current byte order.
+     *
+     * @param array the integers to write.
+     */
+    protected void putInts(int[] array) {
+        ensureWritable(array.length * Integer.BYTES);
+        buffer.asIntBuffer().put(array);
+        buffer.position(buffer.position() + array.length * Integer.BYTES);
+    }
+
+    /**
+     * Writes the provided longs into delegated byte buffer, the default
+     * implementation use a bulk write with the current byte order.
+     *
+     * @param array the longs to write.
+     */
+    protected void putLongs(long[] array) {
+        ensureWritable(array.length * Long.BYTES);
+        buffer.asLongBuffer().put(array);
+        buffer.position(buffer.position() + array.length * Long.BYTES);
+    }
+
     /**
      * Writes the provided list of tags into delegated byte buffer according nbt format.
      *
@@ -572,18 +1380,21 @@ public class TagBuffer<T> {
     @NotNull
     @Contract("_ -> this")
     public TagBuffer<T> putList(@NotNull List<T> list) {
+        if (list instanceof LazyTag && ((LazyTag) list).isCompatible(this) && !((LazyTag) list).isModified()) {
+            return this.putRaw(((LazyTag) list).raw());
+        }
         final TagType<Object> type;
         if (list.isEmpty()) {
             type = TagType.END;
         } else {
-            type = mapper.type(list.get(0));
+            type = codec.type(list.get(0));
         }
 
         this.put(type.id());
         this.putInt(list.size());
 
         for (T t : list) {
-            this.putTag(type, t);
+            this.putTag(type, codec.extract(t));
         }
         return this;
     }
@@ -597,9 +1408,26 @@ public class TagBuffer<T> {
     @NotNull
     @Contract("_ -> this")
     public TagBuffer<T> putCompound(@NotNull Map<String, T> map) {
+        if (map instanceof CompactCompound && mapper == (Object) TagMapper.DEFAULT) {
+            return this.putCompactCompound((CompactCompound) map);
+        }
+        LazyCompound<T> lazy = null;
+        if (map instanceof LazyCompound && ((LazyCompound<T>) map).isCompatible(this)) {
+            lazy = (LazyCompound<T>) map;
+            if (!lazy.isModified()) {
+                return this.putRaw(lazy.raw());
+            }
+        }
         for (Map.Entry<String, T> entry : map.entrySet()) {
-            final Object value = entry.getValue() == null ? null : mapper.extract(entry.getValue());
-            final TagType<Object> type = mapper.type(entry.getValue());
+            if (lazy != null) {
+                final ByteBuffer raw = lazy.getRaw(entry.getKey());
+                if (raw != null) {
+                    this.putRaw(raw);
+                    continue;
+                }
+            }
+            final Object value = codec.extract(entry.getValue());
+            final TagType<Object> type = codec.type(entry.getValue());
             this.put(type.id());
             if (type != TagType.END) {
                 this.putString(entry.getKey());
@@ -610,6 +1438,155 @@ public class TagBuffer<T> {
         return this;
     }
 
+    /**
+     * Writes a compound or list into delegated byte buffer using an explicit stack of frames, every
+     * nested compound or list is pushed as a new frame that iterates over its values.<br>
+     * Any other value is written with {@link #putTag(TagType, Object)}, lazy views and compact compounds
+     * are delegated to its own put methods.
+     *
+     * @param type the type of container to write.
+     * @param tag  the container value to write.
+     * @return     this instance.
+     */
+    @NotNull
+    @Contract("_, _ -> this")
+    @SuppressWarnings("unchecked")
+    protected TagBuffer<T> putIterative(@NotNull TagType<?> type, @NotNull Object tag) {
+        final int base = putCount;
+        try {
+            pushPutFrame(type, tag);
+            while (putCount > base) {
+                final int top = putCount - 1;
+                final Iterator<?> iterator = putIterators[top];
+                if (!iterator.hasNext()) {
+                    if (putTypes[top] == null) {
+                        this.put(Tag.END);
+                    }
+                    putIterators[top] = null;
+                    putCount = top;
+                    continue;
+                }
+
+                final TagType<Object> valueType;
+                final Object value;
+                if (putTypes[top] == null) {
+                    final Map.Entry<String, T> entry = (Map.Entry<String, T>) iterator.next();
+                    valueType = codec.type(entry.getValue());
+                    value = codec.extract(entry.getValue());
+                    this.put(valueType.id());
+                    if (valueType == TagType.END) {
+                        continue;
+                    }
+                    this.putString(entry.getKey());
+                } else {
+                    valueType = (TagType<Object>) putTypes[top];
+                    value = codec.extract((T) iterator.next());
+                }
+
+                if (value != null && (valueType.id() == Tag.LIST || valueType.id() == Tag.COMPOUND)) {
+                    pushPutFrame(valueType, value);
+                } else {
+                    this.putTag(valueType, value);
+                }
+            }
+        } finally {
+            for (int i = base; i < putCount; i++) {
+                putIterators[i] = null;
+            }
+            putCount = base;
+        }
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void pushPutFrame(@NotNull TagType<?> type, @NotNull Object tag) {
+        final Iterator<?> iterator;
+        final TagType<?> elementType;
+        if (type.id() == Tag.LIST) {
+            final List<T> list = (List<T>) tag;
+            if (list instanceof LazyTag && ((LazyTag) list).isCompatible(this) && !((LazyTag) list).isModified()) {
+                this.putRaw(((LazyTag) list).raw());
+                return;
+            }
+            elementType = list.isEmpty() ? TagType.END : codec.type(list.get(0));
+            this.put(elementType.id());
+            this.putInt(list.size());
+            iterator = list.iterator();
+        } else {
+            if (tag instanceof LazyCompound || (tag instanceof CompactCompound && mapper == (Object) TagMapper.DEFAULT)) {
+                // Delegate views with its own put logic, nested values are written by a new iteration
+                this.putCompound((Map<String, T>) tag);
+                return;
+            }
+            elementType = null;
+            iterator = ((Map<String, T>) tag).entrySet().iterator();
+        }
+
+        final int index = putCount;
+        if (putIterators == null) {
+            putIterators = new Iterator<?>[16];
+            putTypes = new TagType<?>[16];
+        } else if (index == putIterators.length) {
+            putIterators = Arrays.copyOf(putIterators, index * 2);
+            putTypes = Arrays.copyOf(putTypes, index * 2);
+        }
+        putIterators[index] = iterator;
+        putTypes[index] = elementType;
+        putCount = index + 1;
+    }
+
+    /**
+     * Writes the provided compact compound into delegated byte buffer according nbt format,
+     * without boxing its primitive values.
+     *
+     * @param compound the compact compound to write.
+     * @return         this instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TagBuffer<T> putCompactCompound(@NotNull CompactCompound compound) {
+        for (int i = 0; i < compound.size(); i++) {
+            final byte id = compound.getPrimitiveType(i);
+            if (id == Tag.END) {
+                final Object value = compound.getValue(i);
+                final TagType<Object> type = TagType.getType(value);
+                this.put(type.id());
+                if (type != TagType.END) {
+                    this.putString(compound.getKey(i));
+                    this.putTag(type, value);
+                }
+                continue;
+            }
+            this.put(id);
+            this.putString(compound.getKey(i));
+            final long value = compound.getPrimitive(i);
+            switch (id) {
+                case Tag.BYTE:
+                    this.put((byte) value);
+                    break;
+                case Tag.SHORT:
+                    this.putShort((short) value);
+                    break;
+                case Tag.INT:
+                    this.putInt((int) value);
+                    break;
+                case Tag.LONG:
+                    this.putLong(value);
+                    break;
+                case Tag.FLOAT:
+                    this.putFloat(Float.intBitsToFloat((int) value));
+                    break;
+                case Tag.DOUBLE:
+                    this.putDouble(Double.longBitsToDouble(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid tag type: " + id);
+            }
+        }
+        this.put(Tag.END);
+        return this;
+    }
+
     /**
      * Writes a tag object.<br>
      * This method doesn't perform any tag ID write, it only writes a tag value.
@@ -620,8 +1597,8 @@ public class TagBuffer<T> {
     @NotNull
     @Contract("_ -> this")
     public TagBuffer<T> putTag(@Nullable T tag) {
-        final Object value = tag == null ? null : mapper.extract(tag);
-        final TagType<Object> type = mapper.type(tag);
+        final Object value = codec.extract(tag);
+        final TagType<Object> type = codec.type(tag);
         this.putTag(type, value);
         return this;
     }
@@ -667,8 +1644,14 @@ public class TagBuffer<T> {
             case Tag.STRING:
                 return this.putString((String) tag);
             case Tag.LIST:
+                if (iterative) {
+                    return this.putIterative(type, tag);
+                }
                 return this.putList((List<T>) tag);
             case Tag.COMPOUND:
+                if (iterative) {
+                    return this.putIterative(type, tag);
+                }
                 return this.putCompound((Map<String, T>) tag);
             case Tag.INT_ARRAY:
                 return this.putIntArray((int[]) tag);
@@ -688,8 +1671,8 @@ public class TagBuffer<T> {
     @NotNull
     @Contract("_ -> this")
     public TagBuffer<T> putUnnamedTag(@Nullable T tag) {
-        final Object value = tag == null ? null : mapper.extract(tag);
-        final TagType<Object> type = mapper.type(tag);
+        final Object value = codec.extract(tag);
+        final TagType<Object> type = codec.type(tag);
         this.put(type.id());
         if (type == TagType.END) {
             return this;
@@ -708,8 +1691,8 @@ public class TagBuffer<T> {
     @NotNull
     @Contract("_ -> this")
     public TagBuffer<T> putAnyTag(@Nullable T tag) {
-        final Object value = tag == null ? null : mapper.extract(tag);
-        final TagType<Object> type = mapper.type(tag);
+        final Object value = codec.extract(tag);
+        final TagType<Object> type = codec.type(tag);
         this.put(type.id());
         return this.putTag(type, value);
     }
@@ -723,7 +1706,8 @@ public class TagBuffer<T> {
     @NotNull
     @Contract("_ -> this")
     public TagBuffer<T> putBedrockFile(@Nullable T tag) {
-        return putBedrockFile(mapper.size(tag), tag);
+        final TagEncoding encoding = TagEncoding.of(this);
+        return putBedrockFile(encoding == null ? mapper.size(tag) : encoding.sizeOfAny(tag, mapper), tag);
     }
 
     /**
@@ -0,0 +1,438 @@
+package com.saicone.nbt.region;
+
+import com.saicone.nbt.TagMapper;
+import com.saicone.nbt.TagSelector;
+import com.saicone.nbt.io.TagInput;
+import com.saicone.nbt.nio.TagBuffer;
+import com.saicone.nbt.util.zip.ZipFormat;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <b>Region Reader</b><br>
+ * A region reader provides random access to the chunks saved on Anvil region files (.mca) by
+ * mapping the whole file into memory, the offset and timestamp header is read directly from the
+ * mapped buffer and every chunk is decompressed and decoded only when is requested.<br>
+ * Chunks saved without compression are read directly from mapped buffer without any copy, and
+ * chunks saved on external files (.mcc) are read from the same directory of region file.<br>
+ * Every read method can be used concurrently from multiple threads.
+ *
+ * @author Rubenicos
+ */
+public class RegionReader implements Closeable {
+
+    /**
+     * The size in bytes of every region sector.
+     */
+    public static final int SECTOR_SIZE = 4096;
+    /**
+     * The size in bytes of region header, that contains chunk locations and timestamps.
+     */
+    public static final int HEADER_SIZE = SECTOR_SIZE * 2;
+    /**
+     * The amount of chunks on every axis of region.
+     */
+    public static final int REGION_SIZE = 32;
+    /**
+     * Chunk compression ID for gzip.
+     */
+    public static final int GZIP = 1;
+    /**
+     * Chunk compression ID for zlib.
+     */
+    public static final int ZLIB = 2;
+    /**
+     * Chunk compression ID for uncompressed data.
+     */
+    public static final int NONE = 3;
+    /**
+     * Chunk compression ID for lz4 block streams.
+     */
+    public static final int LZ4 = 4;
+    /**
+     * Chunk compression flag to save chunk data on external file.
+     */
+    public static final int EXTERNAL = 0x80;
+
+    private final Path path;
+    private final int regionX;
+    private final int regionZ;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * Create a region reader for provided path, the region coordinates are parsed from file name.
+     *
+     * @param path the region file path.
+     * @return     a newly generated region reader.
+     * @throws IOException if any I/O error occurs.
+     */
+    @NotNull
+    public static RegionReader of(@NotNull Path path) throws IOException {
+        final int[] coordinates = getCoordinates(path);
+        return new RegionReader(path, coordinates[0], coordinates[1]);
+    }
+
+    /**
+     * Get the region coordinates from the file name of provided path, with r.X.Z.mca format.
+     *
+     * @param path the region file path.
+     * @return     an array with region X and Z coordinates, 0 is used if the name cannot be parsed.
+     */
+    public static int[] getCoordinates(@NotNull Path path) {
+        final String[] split = path.getFileName().toString().split("\\.");
+        if (split.length == 4) {
+            try {
+                return new int[] { Integer.parseInt(split[1]), Integer.parseInt(split[2]) };
+            } catch (NumberFormatException ignored) { }
+        }
+        return new int[] { 0, 0 };
+    }
+
+    /**
+     * Get the zip format of provided chunk compression ID.
+     *
+     * @param compression the compression ID, without external flag.
+     * @return            a zip format implementation.
+     */
+    @NotNull
+    public static ZipFormat getFormat(int compression) {
+        switch (compression) {
+            case GZIP:
+                return ZipFormat.gzip();
+            case ZLIB:
+                return ZipFormat.zlib();
+            case NONE:
+                return ZipFormat.empty();
+            case LZ4:
+                // Region files use lz4 block streams, not lz4 frames
+                if (!ZipFormat.lz4Block().isLoaded()) {
+                    throw new IllegalArgumentException("Cannot read lz4 compressed chunk without lz4 library");
+                }
+                return ZipFormat.lz4Block();
+            default:
+                throw new IllegalArgumentException("Cannot read chunk with unknown compression type: " + compression);
+        }
+    }
+
+    /**
+     * Get the header index of provided chunk coordinates.
+     *
+     * @param x the chunk X coordinate, absolute or relative to region.
+     * @param z the chunk Z coordinate, absolute or relative to region.
+     * @return  a header index from 0 to 1023.
+     */
+    public static int index(int x, int z) {
+        return (x & (REGION_SIZE - 1)) + (z & (REGION_SIZE - 1)) * REGION_SIZE;
+    }
+
+    /**
+     * Constructs a region reader for provided path and region coordinates.
+     *
+     * @param path    the region file path.
+     * @param regionX the region X coordinate.
+     * @param regionZ the region Z coordinate.
+     * @throws IOException if any I/O error occurs.
+     */
+    public RegionReader(@NotNull Path path, int regionX, int regionZ) throws IOException {
+        this.path = path;
+        this.regionX = regionX;
+        this.regionZ = regionZ;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        final long size = channel.size();
+        if (size > 0 && size < HEADER_SIZE) {
+            channel.close();
+            throw new IllegalArgumentException("Cannot read region file with incomplete header: " + path);
+        } else if (size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IllegalArgumentException("Cannot read region file bigger than 2GB: " + path);
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Get the region file path.
+     *
+     * @return a file path.
+     */
+    @NotNull
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Get the region X coordinate.
+     *
+     * @return an integer coordinate.
+     */
+    public int getRegionX() {
+        return regionX;
+    }
+
+    /**
+     * Get the region Z coordinate.
+     *
+     * @return an integer coordinate.
+     */
+    public int getRegionZ() {
+        return regionZ;
+    }
+
+    /**
+     * Get the raw location of provided chunk, that contains the sector offset and sector count.
+     *
+     * @param x the chunk X coordinate.
+     * @param z the chunk Z coordinate.
+     * @return  a location value, 0 if the chunk doesn't exist.
+     */
+    public int getLocation(int x, int z) {
+        if (buffer.capacity() < HEADER_SIZE) {
+            return 0;
+        }
+        return buffer.getInt(index(x, z) * Integer.BYTES);
+    }
+
+    /**
+     * Get the sector offset of provided chunk.
+     *
+     * @param x the chunk X coordinate.
+     * @param z the chunk Z coordinate.
+     * @return  a sector offset, 0 if the chunk doesn't exist.
+     */
+    public int getSectorOffset(int x, int z) {
+        return getLocation(x, z) >>> 8;
+    }
+
+    /**
+     * Get the amount of sectors used by provided chunk.
+     *
+     * @param x the chunk X coordinate.
+     * @param z the chunk Z coordinate.
+     * @return  a sector count, 0 if the chunk doesn't exist.
+     */
+    public int getSectorCount(int x, int z) {
+        return getLocation(x, z) & 0xFF;
+    }
+
+    /**
+     * Get the last modification time of provided chunk.
+     *
+     * @param x the chunk X coordinate.
+     * @param z the chunk Z coordinate.
+     * @return  an epoch time in seconds.
+     */
+    public int getTimestamp(int x, int z) {
+        if (buffer.capacity() < HEADER_SIZE) {
+            return 0;
+        }
+        return buffer.getInt(SECTOR_SIZE + index(x, z) * Integer.BYTES);
+    }
+
+    /**
+     * Check if the provided chunk exists on region file.
+     *
+     * @param x the chunk X coordinate.
+     * @param z the chunk Z coordinate.
+     * @return  true if the chunk exists.
+     */
+    public boolean hasChunk(int x, int z) {
+        return getLocation(x, z) != 0;
+    }
+
+    /**
+     * Get the amount of chunks saved on region file.
+     *
+     * @return a chunk count.
+     */
+    public int getChunkCount() {
+        if (buffer.capacity() < HEADER_SIZE) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = 0; i < REGION_SIZE * REGION_SIZE; i++) {
+            if (buffer.getInt(i * Integer.BYTES) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the compression type of provided chunk, including the {@link #EXTERNAL} flag.
+     *
+     * @param x the chunk X coordinate.
+     * @param z the chunk Z coordinate.
+     * @return  a compression ID, -1 if the chunk doesn't exist.
+     */
+    public int getCompression(int x, int z) {
+        final int position = getChunkPosition(x, z);
+        if (position < 0) {
+            return -1;
+        }
+        return buffer.get(position + Integer.BYTES) & 0xFF;
+    }
+
+    private int getChunkPosition(int x, int z) {
+        final int location = getLocation(x, z);
+        if (location == 0) {
+            return -1;
+        }
+        final long position = (long) (location >>> 8) * SECTOR_SIZE;
+        final long end = position + (long) (location & 0xFF) * SECTOR_SIZE;
+        if (position < HEADER_SIZE || position + Integer.BYTES + 1 > buffer.capacity()) {
+            throw new IllegalArgumentException("Cannot read chunk [" + x + ", " + z + "] outside of region file: " + path);
+        }
+        final int length = buffer.getInt((int) position);
+        if (length <= 0 || position + Integer.BYTES + length > Math.min(end, buffer.capacity())) {
+            throw new IllegalArgumentException("Cannot read chunk [" + x + ", " + z + "] with invalid length " + length + ": " + path);
+        }
+        return (int) position;
+    }
+
+    /**
+     * Get the compressed data of provided chunk, without the chunk header.<br>
+     * The returned buffer is a read-only view of mapped region file, or the full content
+     * of external chunk file if the chunk is saved externally.
+     *
+     * @param x the chunk X coordinate.
+     * @param z the chunk Z coordinate.
+     * @return  a byte buffer with chunk data, null if the chunk doesn't exist.
+     * @throws IOException if any I/O error occurs.
+     */
+    @Nullable
+    public ByteBuffer getChunkData(int x, int z) throws IOException {
+        final int position = getChunkPosition(x, z);
+        if (position < 0) {
+            return null;
+        }
+        final int compression = buffer.get(position + Integer.BYTES) & 0xFF;
+        if ((compression & EXTERNAL) != 0) {
+            return ByteBuffer.wrap(Files.readAllBytes(getExternalPath(x, z))).asReadOnlyBuffer();
+        }
+        final int length = buffer.getInt(position) - 1;
+        final ByteBuffer data = buffer.asReadOnlyBuffer();
+        data.position(position + Integer.BYTES + 1).limit(position + Integer.BYTES + 1 + length);
+        return data.slice();
+    }
+
+    /**
+     * Get the path of external chunk file for provided chunk, with c.X.Z.mcc format.
+     *
+     * @param x the chunk X coordinate.
+     * @param z the chunk Z coordinate.
+     * @return  a file path that is located next to region file.
+     */
+    @NotNull
+    public Path getExternalPath(int x, int z) {
+        return getExternalPath(path, regionX, regionZ, x, z);
+    }
+
+    @NotNull
+    static Path getExternalPath(@NotNull Path path, int regionX, int regionZ, int x, int z) {
+        final int chunkX = regionX * REGION_SIZE + (x & (REGION_SIZE - 1));
+        final int chunkZ = regionZ * REGION_SIZE + (z & (REGION_SIZE - 1));
+        return path.resolveSibling("c." + chunkX + "." + chunkZ + ".mcc");
+    }
+
+    /**
+     * Open a decompressed input stream of provided chunk data.
+     *
+     * @param x the chunk X coordinate.
+     * @param z the chunk Z coordinate.
+     * @return  an input stream with uncompressed chunk data, null if the chunk doesn't exist.
+     * @throws IOException if any I/O error occurs.
+     */
+    @Nullable
+    public InputStream openChunk(int x, int z) throws IOException {
+        final ByteBuffer data = getChunkData(x, z);
+        if (data == null) {
+            return null;
+        }
+        final int compression = getCompression(x, z) & ~EXTERNAL;
+        final InputStream input = getFormat(compression).newInputStream(data);
+        if (compression == NONE) {
+            return input;
+        }
+        return new BufferedInputStream(input);
+    }
+
+    /**
+     * Read the provided chunk as nbt-represented java object.
+     *
+     * @param x the chunk X coordinate.
+     * @param z the chunk Z coordinate.
+     * @return  a chunk tag object, null if the chunk doesn't exist.
+     * @throws IOException if any I/O error occurs.
+     */
+    @Nullable
+    public Object readChunk(int x, int z) throws IOException {
+        return readChunk(x, z, TagMapper.DEFAULT, null);
+    }
+
+    /**
+     * Read the provided chunk as tag object.
+     *
+     * @param x      the chunk X coordinate.
+     * @param z      the chunk Z coordinate.
+     * @param mapper the mapper to create tag objects.
+     * @return       a chunk tag object, null if the chunk doesn't exist.
+     * @param <T>    the tag object implementation.
+     * @throws IOException if any I/O error occurs.
+     */
+    @Nullable
+    public <T> T readChunk(int x, int z, @NotNull TagMapper<T> mapper) throws IOException {
+        return readChunk(x, z, mapper, null);
+    }
+
+    /**
+     * Read the provided chunk as tag object, only decoding the paths that are included on provided selector.
+     *
+     * @param x        the chunk X coordinate.
+     * @param z        the chunk Z coordinate.
+     * @param mapper   the mapper to create tag objects.
+     * @param selector the selector to use, null to read everything.
+     * @return         a chunk tag object, null if the chunk doesn't exist.
+     * @param <T>      the tag object implementation.
+     * @throws IOException if any I/O error occurs.
+     */
+    @Nullable
+    public <T> T readChunk(int x, int z, @NotNull TagMapper<T> mapper, @Nullable TagSelector selector) throws IOException {
+        final ByteBuffer data = getChunkData(x, z);
+        if (data == null) {
+            return null;
+        }
+        final int compression = getCompression(x, z) & ~EXTERNAL;
+        if (compression == NONE) {
+            // Read directly from mapped buffer
+            return TagBuffer.of(data, mapper).select(selector).getUnnamedTag();
+        }
+        // The mapped buffer is provided directly to the inflater
+        final InputStream input = new BufferedInputStream(getFormat(compression).newInputStream(data));
+        try (TagInput<T> tagInput = TagInput.of(new DataInputStream(input), mapper).unlimited().select(selector)) {
+            return tagInput.readUnnamed();
+        }
+    }
+
+    /**
+     * Close the file channel of this instance, the mapped region is released
+     * once the reader is garbage collected.
+     *
+     * @throws IOException if any I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,293 @@
+package com.saicone.nbt.region;
+
+import com.saicone.nbt.TagMapper;
+import com.saicone.nbt.TagSelector;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.saicone.nbt.region.RegionReader.*;
+
+/**
+ * <b>Region Scanner</b><br>
+ * A region scanner provides a parallel way to read every chunk from the region files (.mca) of
+ * a world directory, the region files and its chunks are split across a {@link ForkJoinPool} and
+ * every chunk result is reduced with a {@link Collector}.<br>
+ * Each chunk is decoded only with the paths included on selector (if any), so large worlds can be
+ * analyzed without creating the full chunk objects.
+ *
+ * @author Rubenicos
+ *
+ * @param <T> the tag object implementation.
+ */
+public class RegionScanner<T> {
+
+    private static final int CHUNK_BATCH = 64;
+
+    private final Path directory;
+    private final TagMapper<T> mapper;
+
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private TagSelector selector;
+    private ErrorHandler errorHandler;
+
+    /**
+     * Create a region scanner that read nbt-represented java objects from provided directory.
+     *
+     * @param directory the directory that contains region files.
+     * @return          a newly generated region scanner.
+     */
+    @NotNull
+    public static RegionScanner<Object> of(@NotNull Path directory) {
+        return of(directory, TagMapper.DEFAULT);
+    }
+
+    /**
+     * Create a region scanner that read tag objects from provided directory.
+     *
+     * @param directory the directory that contains region files.
+     * @param mapper    the mapper to create tag objects.
+     * @return          a newly generated region scanner.
+     * @param <T>       the tag object implementation.
+     */
+    @NotNull
+    public static <T> RegionScanner<T> of(@NotNull Path directory, @NotNull TagMapper<T> mapper) {
+        return new RegionScanner<>(directory, mapper);
+    }
+
+    /**
+     * Constructs a region scanner with provided directory and {@link TagMapper}.
+     *
+     * @param directory the directory that contains region files.
+     * @param mapper    the mapper to create tag objects.
+     */
+    public RegionScanner(@NotNull Path directory, @NotNull TagMapper<T> mapper) {
+        this.directory = directory;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Set the pool that will execute the scan tasks.
+     *
+     * @param pool the fork join pool to use.
+     * @return     this instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public RegionScanner<T> pool(@NotNull ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Set the selector that will be used to decode only the selected chunk paths.
+     *
+     * @param selector the selector to use, null to read everything.
+     * @return         this instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public RegionScanner<T> select(@Nullable TagSelector selector) {
+        this.selector = selector;
+        return this;
+    }
+
+    /**
+     * Set the handler that will receive the chunks that cannot be read.<br>
+     * If a handler is set, any chunk with invalid data or compression is skipped and reported
+     * to the handler, otherwise the first invalid chunk aborts the scan.
+     *
+     * @param errorHandler the handler to use, null to abort on the first invalid chunk.
+     * @return             this instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public RegionScanner<T> onError(@Nullable ErrorHandler errorHandler) {
+        this.errorHandler = errorHandler;
+        return this;
+    }
+
+    /**
+     * Get the region files of scanned directory, sorted by name.
+     *
+     * @return a list of region file paths.
+     * @throws IOException if any I/O error occurs.
+     */
+    @NotNull
+    public List<Path> getRegions() throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.filter(path -> {
+                final String name = path.getFileName().toString();
+                return name.startsWith("r.") && name.endsWith(".mca") && Files.isRegularFile(path);
+            }).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Scan every chunk of directory region files, the result of provided function for
+     * every chunk is reduced with provided collector.<br>
+     * The function and collector are called concurrently from pool threads.
+     *
+     * @param function  the function to apply on every chunk, null results are ignored.
+     * @param collector the collector to reduce results.
+     * @return          the collector result.
+     * @param <R>       the type of chunk result.
+     * @param <A>       the mutable accumulation type of collector.
+     * @param <C>       the type of collector result.
+     * @throws IOException if any I/O error occurs.
+     */
+    public <R, A, C> C scan(@NotNull ChunkFunction<T, R> function, @NotNull Collector<? super R, A, C> collector) throws IOException {
+        final List<Path> regions = getRegions();
+        final A result;
+        try {
+            result = pool.invoke(new RegionTask<>(regions, 0, regions.size(), function, collector));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return collector.finisher().apply(result);
+    }
+
+    /**
+     * Function that is applied on every scanned chunk.
+     *
+     * @param <T> the tag object implementation.
+     * @param <R> the type of chunk result.
+     */
+    @FunctionalInterface
+    public interface ChunkFunction<T, R> {
+
+        /**
+         * Apply this function to provided chunk.
+         *
+         * @param x     the absolute chunk X coordinate.
+         * @param z     the absolute chunk Z coordinate.
+         * @param chunk the chunk tag object.
+         * @return      a chunk result, null to ignore it.
+         */
+        @Nullable
+        R apply(int x, int z, @NotNull T chunk);
+    }
+
+    /**
+     * Handler that receives the chunks that cannot be read while scanning.
+     */
+    @FunctionalInterface
+    public interface ErrorHandler {
+
+        /**
+         * Handle the error of provided chunk, this method is called concurrently from pool threads.
+         *
+         * @param region the region file path.
+         * @param x      the absolute chunk X coordinate.
+         * @param z      the absolute chunk Z coordinate.
+         * @param error  the error thrown while reading the chunk.
+         */
+        void handle(@NotNull Path region, int x, int z, @NotNull Exception error);
+    }
+
+    private final class RegionTask<R, A> extends RecursiveTask<A> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> regions;
+        private final int from;
+        private final int to;
+        private final ChunkFunction<T, R> function;
+        private final Collector<? super R, A, ?> collector;
+
+        RegionTask(@NotNull List<Path> regions, int from, int to, @NotNull ChunkFunction<T, R> function, @NotNull Collector<? super R, A, ?> collector) {
+            this.regions = regions;
+            this.from = from;
+            this.to = to;
+            this.function = function;
+            this.collector = collector;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= 1) {
+                if (from == to) {
+                    return collector.supplier().get();
+                }
+                try (RegionReader reader = RegionReader.of(regions.get(from))) {
+                    return new ChunkTask<>(reader, 0, REGION_SIZE * REGION_SIZE, function, collector).compute();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            final int middle = (from + to) >>> 1;
+            final RegionTask<R, A> left = new RegionTask<>(regions, from, middle, function, collector);
+            left.fork();
+            final A right = new RegionTask<>(regions, middle, to, function, collector).compute();
+            return collector.combiner().apply(left.join(), right);
+        }
+    }
+
+    private final class ChunkTask<R, A> extends RecursiveTask<A> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RegionReader reader;
+        private final int from;
+        private final int to;
+        private final ChunkFunction<T, R> function;
+        private final Collector<? super R, A, ?> collector;
+
+        ChunkTask(@NotNull RegionReader reader, int from, int to, @NotNull ChunkFunction<T, R> function, @NotNull Collector<? super R, A, ?> collector) {
+            this.reader = reader;
+            this.from = from;
+            this.to = to;
+            this.function = function;
+            this.collector = collector;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= CHUNK_BATCH) {
+                final A container = collector.supplier().get();
+                for (int index = from; index < to; index++) {
+                    final int x = index & (REGION_SIZE - 1);
+                    final int z = index / REGION_SIZE;
+                    final T chunk;
+                    try {
+                        chunk = reader.readChunk(x, z, mapper, selector);
+                    } catch (IOException | RuntimeException e) {
+                        if (errorHandler == null) {
+                            if (e instanceof IOException) {
+                                throw new UncheckedIOException((IOException) e);
+                            }
+                            throw (RuntimeException) e;
+                        }
+                        // Invalid chunk data is skipped and reported
+                        errorHandler.handle(reader.getPath(), reader.getRegionX() * REGION_SIZE + x, reader.getRegionZ() * REGION_SIZE + z, e);
+                        continue;
+                    }
+                    if (chunk == null) {
+                        continue;
+                    }
+                    final R result = function.apply(reader.getRegionX() * REGION_SIZE + x, reader.getRegionZ() * REGION_SIZE + z, chunk);
+                    if (result != null) {
+                        collector.accumulator().accept(container, result);
+                    }
+                }
+                return container;
+            }
+            final int middle = (from + to) >>> 1;
+            final ChunkTask<R, A> left = new ChunkTask<>(reader, from, middle, function, collector);
+            left.fork();
+            final A right = new ChunkTask<>(reader, middle, to, function, collector).compute();
+            return collector.combiner().apply(left.join(), right);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.saicone.nbt.region;
+
+import com.saicone.nbt.TagMapper;
+import com.saicone.nbt.io.TagOutput;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+import static com.saicone.nbt.region.RegionReader.*;
+
+/**
+ * <b>Region Writer</b><br>
+ * A region writer provides methods to update individual chunks of Anvil region files (.mca) in place,
+ * without rewriting the whole file.<br>
+ * Every chunk is written into the first run of free sectors that can hold it, including the sectors
+ * released by deleted or moved chunks, and the previous sectors of updated chunks are only released after
+ * its header location was replaced. Chunks that need more than 255 sectors are saved on external
+ * files (.mcc) next to region file.<br>
+ * Use {@link #compact(Path)} to defragment a region file that is not being used.<br>
+ * This class is not thread-safe, and readers opened before any write may not see the changes.
+ *
+ * @author Rubenicos
+ */
+public class RegionWriter implements Closeable {
+
+    private static final int CHUNKS = REGION_SIZE * REGION_SIZE;
+    private static final int MAX_SECTORS = 255;
+    private static final int CHUNK_HEADER = Integer.BYTES + 1;
+
+    private final Path path;
+    private final int regionX;
+    private final int regionZ;
+    private final FileChannel channel;
+    private final int[] locations = new int[CHUNKS];
+    private final int[] timestamps = new int[CHUNKS];
+    private final BitSet sectors = new BitSet();
+
+    private int compression = ZLIB;
+
+    /**
+     * Create a region writer for provided path, the region coordinates are parsed from file name.<br>
+     * The file is created if it doesn't exist.
+     *
+     * @param path the region file path.
+     * @return     a newly generated region writer.
+     * @throws IOException if any I/O error occurs.
+     */
+    @NotNull
+    public static RegionWriter of(@NotNull Path path) throws IOException {
+        final int[] coordinates = getCoordinates(path);
+        return new RegionWriter(path, coordinates[0], coordinates[1]);
+    }
+
+    /**
+     * Compact the provided region file, every chunk is moved next to each other with the same
+     * order of its header index, and any trailing free space is removed.<br>
+     * The compacted region is written into a temporary file that replaces the provided one, so this
+     * method must only be used when the region file is not opened by any other reader or writer.
+     *
+     * @param path the region file path.
+     * @return     the amount of bytes that were freed.
+     * @throws IOException if any I/O error occurs.
+     */
+    public static long compact(@NotNull Path path) throws IOException {
+        final int[] coordinates = getCoordinates(path);
+        final Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        final long size = Files.size(path);
+        Files.deleteIfExists(temp);
+        try (RegionWriter source = new RegionWriter(path, coordinates[0], coordinates[1]); RegionWriter target = new RegionWriter(temp, coordinates[0], coordinates[1])) {
+            for (int index = 0; index < CHUNKS; index++) {
+                final ByteBuffer chunk = source.readSectors(index);
+                if (chunk != null) {
+                    target.writeSectors(index, chunk, source.timestamps[index]);
+                }
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return size - Files.size(path);
+    }
+
+    /**
+     * Constructs a region writer for provided path and region coordinates.<br>
+     * The file is created if it doesn't exist.
+     *
+     * @param path    the region file path.
+     * @param regionX the region X coordinate.
+     * @param regionZ the region Z coordinate.
+     * @throws IOException if any I/O error occurs.
+     */
+    public RegionWriter(@NotNull Path path, int regionX, int regionZ) throws IOException {
+        this.path = path;
+        this.regionX = regionX;
+        this.regionZ = regionZ;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            readHeader();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void readHeader() throws IOException {
+        final long size = channel.size();
+        sectors.set(0, HEADER_SIZE / SECTOR_SIZE);
+        if (size == 0) {
+            channel.write(ByteBuffer.allocate(HEADER_SIZE), 0);
+            return;
+        } else if (size < HEADER_SIZE) {
+            throw new IllegalArgumentException("Cannot read region file with incomplete header: " + path);
+        }
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IllegalArgumentException("Cannot read region file with incomplete header: " + path);
+            }
+        }
+        header.flip();
+        final long totalSectors = (size + SECTOR_SIZE - 1) / SECTOR_SIZE;
+        for (int index = 0; index < CHUNKS; index++) {
+            final int location = header.getInt(index * Integer.BYTES);
+            timestamps[index] = header.getInt(SECTOR_SIZE + index * Integer.BYTES);
+            if (location == 0) {
+                continue;
+            }
+            final int offset = location >>> 8;
+            final int count = location & 0xFF;
+            final int used = sectors.nextSetBit(offset);
+            // Overlapped or outside chunks are treated as missing and removed from header,
+            // so their sectors can be reused without leaving a stale location on disk
+            if (offset < 2 || count == 0 || offset + count > totalSectors || (used >= 0 && used < offset + count)) {
+                writeLocation(index, 0, 0);
+                continue;
+            }
+            locations[index] = location;
+            sectors.set(offset, offset + count);
+        }
+    }
+
+    /**
+     * Set the compression type used to write chunk objects.
+     *
+     * @param compression the compression ID, without external flag.
+     * @return            this instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public RegionWriter compression(int compression) {
+        // Validate compression type
+        getFormat(compression);
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * Get the region file path.
+     *
+     * @return a file path.
+     */
+    @NotNull
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Check if the provided chunk exists on region file.
+     *
+     * @param x the chunk X coordinate.
+     * @param z the chunk Z coordinate.
+     * @return  true if the chunk exists.
+     */
+    public boolean hasChunk(int x, int z) {
+        return locations[index(x, z)] != 0;
+    }
+
+    /**
+     * Get the amount of sectors, including the header, that are used by this region file.
+     *
+     * @return a sector count.
+     */
+    public int getUsedSectors() {
+        return sectors.cardinality();
+    }
+
+    /**
+     * Write the provided nbt-represented java object as chunk.
+     *
+     * @param x   the chunk X coordinate.
+     * @param z   the chunk Z coordinate.
+     * @param tag the chunk tag object.
+     * @throws IOException if any I/O error occurs.
+     */
+    public void writeChunk(int x, int z, @Nullable Object tag) throws IOException {
+        writeChunk(x, z, tag, TagMapper.DEFAULT);
+    }
+
+    /**
+     * Write the provided tag object as chunk, compressed with the current compression type.
+     *
+     * @param x      the chunk X coordinate.
+     * @param z      the chunk Z coordinate.
+     * @param tag    the chunk tag object.
+     * @param mapper the mapper to extract values from tags.
+     * @param <T>    the tag object implementation.
+     * @throws IOException if any I/O error occurs.
+     */
+    public <T> void writeChunk(int x, int z, @Nullable T tag, @NotNull TagMapper<T> mapper) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(SECTOR_SIZE);
+        try (OutputStream zip = getFormat(compression).newOutputStream(out); TagOutput<T> output = TagOutput.of(new DataOutputStream(zip), mapper)) {
+            output.writeUnnamed(tag);
+        }
+        writeChunkData(x, z, compression, ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    /**
+     * Write the provided data that is already compressed as chunk.
+     *
+     * @param x           the chunk X coordinate.
+     * @param z           the chunk Z coordinate.
+     * @param compression the compression ID of data, without external flag.
+     * @param data        the compressed chunk data.
+     * @throws IOException if any I/O error occurs.
+     */
+    public void writeChunkData(int x, int z, int compression, @NotNull ByteBuffer data) throws IOException {
+        final int index = index(x, z);
+        final Path external = getExternalPath(path, regionX, regionZ, x, z);
+        final ByteBuffer chunk;
+        if (sectorsOf(CHUNK_HEADER + data.remaining()) > MAX_SECTORS) {
+            try (FileChannel file = FileChannel.open(external, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (data.hasRemaining()) {
+                    file.write(data);
+                }
+            }
+            chunk = ByteBuffer.allocate(CHUNK_HEADER);
+            chunk.putInt(1).put((byte) (compression | EXTERNAL)).flip();
+            writeSectors(index, chunk, (int) (System.currentTimeMillis() / 1000L));
+        } else {
+            chunk = ByteBuffer.allocate(CHUNK_HEADER + data.remaining());
+            chunk.putInt(data.remaining() + 1).put((byte) compression).put(data).flip();
+            writeSectors(index, chunk, (int) (System.currentTimeMillis() / 1000L));
+            Files.deleteIfExists(external);
+        }
+    }
+
+    /**
+     * Delete the provided chunk from region file, its sectors will be reused by subsequent writes.
+     *
+     * @param x the chunk X coordinate.
+     * @param z the chunk Z coordinate.
+     * @throws IOException if any I/O error occurs.
+     */
+    public void deleteChunk(int x, int z) throws IOException {
+        final int index = index(x, z);
+        final int location = locations[index];
+        if (location == 0) {
+            return;
+        }
+        writeLocation(index, 0, 0);
+        sectors.clear(location >>> 8, (location >>> 8) + (location & 0xFF));
+        Files.deleteIfExists(getExternalPath(path, regionX, regionZ, x, z));
+    }
+
+    private static int sectorsOf(int bytes) {
+        return (bytes + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    }
+
+    private int allocate(int count) {
+        int offset = sectors.nextClearBit(0);
+        while (true) {
+            final int end = sectors.nextSetBit(offset);
+            if (end < 0 || end - offset >= count) {
+                return offset;
+            }
+            offset = sectors.nextClearBit(end);
+        }
+    }
+
+    @Nullable
+    private ByteBuffer readSectors(int index) throws IOException {
+        final int location = locations[index];
+        if (location == 0) {
+            return null;
+        }
+        final long position = (long) (location >>> 8) * SECTOR_SIZE;
+        final ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        channel.read(length, position);
+        final int size = length.flip().getInt();
+        if (size <= 0 || size + Integer.BYTES > (location & 0xFF) * SECTOR_SIZE) {
+            throw new IllegalArgumentException("Cannot read chunk at index " + index + " with invalid length " + size + ": " + path);
+        }
+        final ByteBuffer chunk = ByteBuffer.allocate(Integer.BYTES + size);
+        while (chunk.hasRemaining()) {
+            if (channel.read(chunk, position + chunk.position()) < 0) {
+                throw new IllegalArgumentException("Cannot read chunk at index " + index + " outside of region file: " + path);
+            }
+        }
+        return chunk.flip();
+    }
+
+    private void writeSectors(int index, @NotNull ByteBuffer chunk, int timestamp) throws IOException {
+        final int count = sectorsOf(chunk.remaining());
+        final int offset = allocate(count);
+
+        // Pad to sector size, so the file length is always a multiple of sectors
+        final ByteBuffer data = ByteBuffer.allocate(count * SECTOR_SIZE);
+        data.put(chunk).clear();
+        final long position = (long) offset * SECTOR_SIZE;
+        while (data.hasRemaining()) {
+            channel.write(data, position + data.position());
+        }
+        sectors.set(offset, offset + count);
+
+        // Release previous sectors once the chunk is relocated
+        final int previous = locations[index];
+        writeLocation(index, offset << 8 | count, timestamp);
+        if (previous != 0) {
+            sectors.clear(previous >>> 8, (previous >>> 8) + (previous & 0xFF));
+        }
+    }
+
+    private void writeLocation(int index, int location, int timestamp) throws IOException {
+        locations[index] = location;
+        timestamps[index] = timestamp;
+        final ByteBuffer value = ByteBuffer.allocate(Integer.BYTES);
+        channel.write(value.putInt(0, location), (long) index * Integer.BYTES);
+        value.clear();
+        channel.write(value.putInt(0, timestamp), SECTOR_SIZE + (long) index * Integer.BYTES);
+    }
+
+    /**
+     * Flush any written data to the storage device.
+     *
+     * @throws IOException if any I/O error occurs.
+     */
+    public void flush() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Close this writer, any trailing free sector is removed from region file.
+     *
+     * @throws IOException if any I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            final long size = (long) sectors.length() * SECTOR_SIZE;
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * This package provides classes to read and write tag objects from/to Anvil region files.
+ *
+ * @author Rubenicos
+ */
+package com.saicone.nbt.region;
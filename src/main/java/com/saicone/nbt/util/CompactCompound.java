@@ -0,0 +1,488 @@
+package com.saicone.nbt.util;
+
+import com.saicone.nbt.Tag;
+import com.saicone.nbt.TagType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * <b>Compact Compound</b><br>
+ * A compound map implementation for nbt-represented java objects that store primitive
+ * values unboxed, using parallel arrays for keys, tag types and values.<br>
+ * Primitive values are only boxed when they are requested as java objects, so typed getters
+ * like {@link #getInt(String, int)} should be preferred to avoid any allocation.<br>
+ * The iteration order is not guaranteed after an entry removal.
+ *
+ * @author Rubenicos
+ */
+public class CompactCompound extends AbstractMap<String, Object> {
+
+    private static final int INDEX_THRESHOLD = 16;
+
+    private String[] keys;
+    // Tag.END is used for non-primitive values
+    private byte[] types;
+    private long[] primitives;
+    private Object[] objects;
+    private int size;
+
+    private Map<String, Integer> index;
+    private Set<Entry<String, Object>> entrySet;
+
+    /**
+     * Constructs an empty compact compound.
+     */
+    public CompactCompound() {
+        this(8);
+    }
+
+    /**
+     * Constructs an empty compact compound with provided initial capacity.
+     *
+     * @param capacity the initial capacity.
+     */
+    public CompactCompound(int capacity) {
+        capacity = Math.max(capacity, 1);
+        this.keys = new String[capacity];
+        this.types = new byte[capacity];
+        this.primitives = new long[capacity];
+        this.objects = new Object[capacity];
+    }
+
+    /**
+     * Get the position of provided key.
+     *
+     * @param key the key to find.
+     * @return    a key index, {@code -1} if the key doesn't exist.
+     */
+    protected int indexOf(@Nullable Object key) {
+        if (index != null) {
+            final Integer i = index.get(key);
+            return i == null ? -1 : i;
+        }
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        if (key != null) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int slot(@NotNull String key) {
+        int i = indexOf(key);
+        if (i >= 0) {
+            return i;
+        }
+        if (size == keys.length) {
+            final int capacity = size << 1;
+            keys = Arrays.copyOf(keys, capacity);
+            types = Arrays.copyOf(types, capacity);
+            primitives = Arrays.copyOf(primitives, capacity);
+            objects = Arrays.copyOf(objects, capacity);
+        }
+        i = size++;
+        keys[i] = key;
+        if (index != null) {
+            index.put(key, i);
+        } else if (size > INDEX_THRESHOLD) {
+            index = new HashMap<>(size << 1);
+            for (int j = 0; j < size; j++) {
+                index.put(keys[j], j);
+            }
+        }
+        return i;
+    }
+
+    @Nullable
+    private Object value(int i) {
+        final long value = primitives[i];
+        switch (types[i]) {
+            case Tag.BYTE:
+                return (byte) value;
+            case Tag.SHORT:
+                return (short) value;
+            case Tag.INT:
+                return (int) value;
+            case Tag.LONG:
+                return value;
+            case Tag.FLOAT:
+                return Float.intBitsToFloat((int) value);
+            case Tag.DOUBLE:
+                return Double.longBitsToDouble(value);
+            default:
+                return objects[i];
+        }
+    }
+
+    private void removeAt(int i) {
+        final int last = --size;
+        if (index != null) {
+            index.remove(keys[i]);
+        }
+        if (i != last) {
+            keys[i] = keys[last];
+            types[i] = types[last];
+            primitives[i] = primitives[last];
+            objects[i] = objects[last];
+            if (index != null) {
+                index.put(keys[i], i);
+            }
+        }
+        keys[last] = null;
+        objects[last] = null;
+    }
+
+    /**
+     * Get the tag ID of the value associated with provided key.
+     *
+     * @param key the key of value.
+     * @return    a tag ID, {@link Tag#END} if the key doesn't exist.
+     */
+    public byte getTypeId(@NotNull String key) {
+        final int i = indexOf(key);
+        if (i < 0) {
+            return Tag.END;
+        }
+        return types[i] == Tag.END ? TagType.getType(objects[i]).id() : types[i];
+    }
+
+    /**
+     * Get the tag ID of the value at provided position.
+     *
+     * @param i the entry position.
+     * @return  a tag ID, {@link Tag#END} if the value is not a primitive.
+     */
+    public byte getPrimitiveType(int i) {
+        return types[i];
+    }
+
+    /**
+     * Get the key at provided position.
+     *
+     * @param i the entry position.
+     * @return  a compound key.
+     */
+    @NotNull
+    public String getKey(int i) {
+        return keys[i];
+    }
+
+    /**
+     * Get the raw primitive bits at provided position, float and double values are
+     * represented as its raw integer and long bits.
+     *
+     * @param i the entry position.
+     * @return  a primitive value as long.
+     */
+    public long getPrimitive(int i) {
+        return primitives[i];
+    }
+
+    /**
+     * Get the value at provided position.
+     *
+     * @param i the entry position.
+     * @return  a value as java object.
+     */
+    @Nullable
+    public Object getValue(int i) {
+        return value(i);
+    }
+
+    /**
+     * Get the numeric value associated with provided key.
+     *
+     * @param key the key of value.
+     * @param def the default value to return if the key doesn't exist or the value is not a number.
+     * @return    a byte value.
+     */
+    public byte getByte(@NotNull String key, byte def) {
+        return (byte) getLong(key, def);
+    }
+
+    /**
+     * Get the numeric value associated with provided key.
+     *
+     * @param key the key of value.
+     * @param def the default value to return if the key doesn't exist or the value is not a number.
+     * @return    a short value.
+     */
+    public short getShort(@NotNull String key, short def) {
+        return (short) getLong(key, def);
+    }
+
+    /**
+     * Get the numeric value associated with provided key.
+     *
+     * @param key the key of value.
+     * @param def the default value to return if the key doesn't exist or the value is not a number.
+     * @return    an int value.
+     */
+    public int getInt(@NotNull String key, int def) {
+        return (int) getLong(key, def);
+    }
+
+    /**
+     * Get the numeric value associated with provided key.
+     *
+     * @param key the key of value.
+     * @param def the default value to return if the key doesn't exist or the value is not a number.
+     * @return    a long value.
+     */
+    public long getLong(@NotNull String key, long def) {
+        final int i = indexOf(key);
+        if (i < 0) {
+            return def;
+        }
+        switch (types[i]) {
+            case Tag.BYTE:
+            case Tag.SHORT:
+            case Tag.INT:
+            case Tag.LONG:
+                return primitives[i];
+            case Tag.FLOAT:
+                return (long) Float.intBitsToFloat((int) primitives[i]);
+            case Tag.DOUBLE:
+                return (long) Double.longBitsToDouble(primitives[i]);
+            default:
+                return objects[i] instanceof Number ? ((Number) objects[i]).longValue() : def;
+        }
+    }
+
+    /**
+     * Get the numeric value associated with provided key.
+     *
+     * @param key the key of value.
+     * @param def the default value to return if the key doesn't exist or the value is not a number.
+     * @return    a float value.
+     */
+    public float getFloat(@NotNull String key, float def) {
+        return (float) getDouble(key, def);
+    }
+
+    /**
+     * Get the numeric value associated with provided key.
+     *
+     * @param key the key of value.
+     * @param def the default value to return if the key doesn't exist or the value is not a number.
+     * @return    a double value.
+     */
+    public double getDouble(@NotNull String key, double def) {
+        final int i = indexOf(key);
+        if (i < 0) {
+            return def;
+        }
+        switch (types[i]) {
+            case Tag.BYTE:
+            case Tag.SHORT:
+            case Tag.INT:
+            case Tag.LONG:
+                return primitives[i];
+            case Tag.FLOAT:
+                return Float.intBitsToFloat((int) primitives[i]);
+            case Tag.DOUBLE:
+                return Double.longBitsToDouble(primitives[i]);
+            default:
+                return objects[i] instanceof Number ? ((Number) objects[i]).doubleValue() : def;
+        }
+    }
+
+    private void putPrimitive(@NotNull String key, byte type, long value) {
+        final int i = slot(Objects.requireNonNull(key));
+        types[i] = type;
+        primitives[i] = value;
+        objects[i] = null;
+    }
+
+    /**
+     * Associate a byte value with provided key.
+     *
+     * @param key   the key of value.
+     * @param value the value to put.
+     */
+    public void putByte(@NotNull String key, byte value) {
+        putPrimitive(key, Tag.BYTE, value);
+    }
+
+    /**
+     * Associate a short value with provided key.
+     *
+     * @param key   the key of value.
+     * @param value the value to put.
+     */
+    public void putShort(@NotNull String key, short value) {
+        putPrimitive(key, Tag.SHORT, value);
+    }
+
+    /**
+     * Associate an int value with provided key.
+     *
+     * @param key   the key of value.
+     * @param value the value to put.
+     */
+    public void putInt(@NotNull String key, int value) {
+        putPrimitive(key, Tag.INT, value);
+    }
+
+    /**
+     * Associate a long value with provided key.
+     *
+     * @param key   the key of value.
+     * @param value the value to put.
+     */
+    public void putLong(@NotNull String key, long value) {
+        putPrimitive(key, Tag.LONG, value);
+    }
+
+    /**
+     * Associate a float value with provided key.
+     *
+     * @param key   the key of value.
+     * @param value the value to put.
+     */
+    public void putFloat(@NotNull String key, float value) {
+        putPrimitive(key, Tag.FLOAT, Float.floatToRawIntBits(value));
+    }
+
+    /**
+     * Associate a double value with provided key.
+     *
+     * @param key   the key of value.
+     * @param value the value to put.
+     */
+    public void putDouble(@NotNull String key, double value) {
+        putPrimitive(key, Tag.DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        final int i = indexOf(key);
+        return i < 0 ? null : value(i);
+    }
+
+    @Override
+    public Object put(@NotNull String key, Object value) {
+        Objects.requireNonNull(key);
+        final Object old = get(key);
+        if (value instanceof Byte) {
+            putByte(key, (Byte) value);
+        } else if (value instanceof Short) {
+            putShort(key, (Short) value);
+        } else if (value instanceof Integer) {
+            putInt(key, (Integer) value);
+        } else if (value instanceof Long) {
+            putLong(key, (Long) value);
+        } else if (value instanceof Float) {
+            putFloat(key, (Float) value);
+        } else if (value instanceof Double) {
+            putDouble(key, (Double) value);
+        } else {
+            final int i = slot(key);
+            types[i] = Tag.END;
+            primitives[i] = 0;
+            objects[i] = value;
+        }
+        return old;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        final int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        final Object old = value(i);
+        removeAt(i);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(objects, 0, size, null);
+        size = 0;
+        index = null;
+    }
+
+    @Override
+    public @NotNull Set<Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public @NotNull Iterator<Entry<String, Object>> iterator() {
+            return new Iterator<>() {
+                private int cursor = 0;
+                private int last = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return cursor < size;
+                }
+
+                @Override
+                public Entry<String, Object> next() {
+                    if (cursor >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    last = cursor++;
+                    final String key = keys[last];
+                    return new SimpleEntry<>(key, value(last)) {
+                        @Override
+                        public Object setValue(Object value) {
+                            CompactCompound.this.put(key, value);
+                            return super.setValue(value);
+                        }
+                    };
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    removeAt(last);
+                    // The last entry was moved into removed position
+                    cursor = last;
+                    last = -1;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.saicone.nbt.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * <b>Tag Key Cache</b><br>
+ * A tag key cache provides canonical String instances for compound keys by looking
+ * up the raw encoded bytes, so repeated keys are not decoded again.
+ *
+ * @author Rubenicos
+ */
+@FunctionalInterface
+public interface TagKeyCache {
+
+    /**
+     * A shared key cache instance with 4096 entries.
+     */
+    TagKeyCache SHARED = bounded(4096);
+
+    /**
+     * Create a bounded key cache, that store ASCII keys into an open-addressed table
+     * where older entries are replaced when the table is full.<br>
+     * The created cache is thread-safe without any locking.
+     *
+     * @param capacity the maximum amount of keys, rounded to the next power of two.
+     * @return         a newly generated key cache.
+     */
+    @NotNull
+    static TagKeyCache bounded(int capacity) {
+        return new Bounded(capacity);
+    }
+
+    /**
+     * Get the canonical key represented by the provided bytes.
+     *
+     * @param bytes  the byte array that contains the encoded key.
+     * @param offset the start index of key.
+     * @param length the amount of bytes used by key.
+     * @return       a String key, null if the bytes cannot be handled by this cache.
+     */
+    @Nullable
+    String get(byte[] bytes, int offset, int length);
+
+    /**
+     * Bounded key cache implementation.
+     */
+    final class Bounded implements TagKeyCache {
+
+        private static final int MAX_PROBE = 4;
+        private static final int MAX_LENGTH = 64;
+
+        private final Entry[] table;
+        private final int mask;
+
+        /**
+         * Constructs a bounded key cache.
+         *
+         * @param capacity the maximum amount of keys, rounded to the next power of two.
+         */
+        public Bounded(int capacity) {
+            int size = Integer.highestOneBit(Math.max(capacity, MAX_PROBE) - 1) << 1;
+            this.table = new Entry[size];
+            this.mask = size - 1;
+        }
+
+        @Override
+        public @Nullable String get(byte[] bytes, int offset, int length) {
+            if (length > MAX_LENGTH) {
+                return null;
+            }
+            int hash = 1;
+            for (int i = offset; i < offset + length; i++) {
+                final byte b = bytes[i];
+                // Only ASCII keys are cached, since they are encoded the same way on every format
+                if (b <= 0) {
+                    return null;
+                }
+                hash = 31 * hash + b;
+            }
+            final Entry[] table = this.table;
+            final int start = (hash ^ (hash >>> 16)) & mask;
+            for (int probe = 0; probe < MAX_PROBE; probe++) {
+                final int index = (start + probe) & mask;
+                final Entry entry = table[index];
+                if (entry == null) {
+                    return (table[index] = new Entry(bytes, offset, length, hash)).key;
+                } else if (entry.matches(bytes, offset, length, hash)) {
+                    return entry.key;
+                }
+            }
+            // Replace the first entry
+            return (table[start] = new Entry(bytes, offset, length, hash)).key;
+        }
+
+        private static final class Entry {
+
+            private final byte[] bytes;
+            private final int hash;
+            private final String key;
+
+            Entry(byte[] bytes, int offset, int length, int hash) {
+                this.bytes = new byte[length];
+                System.arraycopy(bytes, offset, this.bytes, 0, length);
+                this.hash = hash;
+                this.key = new String(this.bytes, StandardCharsets.ISO_8859_1);
+                // Compute String hash once
+                this.key.hashCode();
+            }
+
+            boolean matches(byte[] bytes, int offset, int length, int hash) {
+                return this.hash == hash && Arrays.equals(this.bytes, 0, this.bytes.length, bytes, offset, offset + length);
+            }
+        }
+    }
+}
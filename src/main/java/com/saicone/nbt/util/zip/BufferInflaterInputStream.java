@@ -0,0 +1,127 @@
+package com.saicone.nbt.util.zip;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Input stream implementation that decompress the content of a byte buffer, the buffer is
+ * provided directly to the inflater, so direct and mapped buffers are read without any copy.
+ *
+ * @author Rubenicos
+ */
+class BufferInflaterInputStream extends InputStream {
+
+    private final ZipPool pool;
+    private final boolean nowrap;
+    private final boolean gzip;
+    private final ByteBuffer input;
+    private final CRC32 crc;
+    private Inflater inflater;
+    private boolean eos;
+
+    BufferInflaterInputStream(@NotNull ByteBuffer data, @NotNull ZipPool pool, boolean gzip) throws IOException {
+        this(data, pool, gzip, gzip, null);
+    }
+
+    BufferInflaterInputStream(@NotNull ByteBuffer data, @NotNull ZipPool pool, boolean nowrap, boolean gzip, @Nullable byte[] dictionary) throws IOException {
+        this.pool = pool;
+        this.nowrap = nowrap;
+        this.gzip = gzip;
+        this.input = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (gzip) {
+            PooledInflaterInputStream.readGzipHeader(new ByteBufferInputStream(input));
+            this.crc = new CRC32();
+        } else {
+            this.crc = null;
+        }
+        this.inflater = pool.acquireInflater(nowrap);
+        if (dictionary != null) {
+            this.inflater.setDictionary(dictionary);
+        }
+        this.inflater.setInput(input);
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] b = new byte[1];
+        return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (inflater == null) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (eos) {
+            return -1;
+        }
+        try {
+            int read;
+            while ((read = inflater.inflate(b, off, len)) == 0) {
+                if (inflater.finished() || inflater.needsDictionary()) {
+                    if (gzip && readTrailer()) {
+                        continue;
+                    }
+                    eos = true;
+                    return -1;
+                }
+                if (inflater.needsInput()) {
+                    throw new EOFException("Unexpected end of ZLIB input stream");
+                }
+            }
+            if (gzip) {
+                crc.update(b, off, read);
+            }
+            return read;
+        } catch (DataFormatException e) {
+            final String message = e.getMessage();
+            throw new ZipException(message != null ? message : "Invalid ZLIB data format");
+        }
+    }
+
+    private boolean readTrailer() throws IOException {
+        // The inflater only advance the buffer position with consumed bytes
+        if (input.remaining() < 8) {
+            throw new EOFException("Unexpected end of GZIP trailer");
+        }
+        final long crc = input.getInt() & 0xFFFFFFFFL;
+        final long size = input.getInt() & 0xFFFFFFFFL;
+        PooledInflaterInputStream.checkGzipTrailer(crc, size, this.crc.getValue(), inflater.getBytesWritten());
+
+        // Concatenated gzip member, trailing bytes that are not a gzip member are ignored
+        if (input.remaining() < 2 || (input.get(input.position()) & 0xFF) != 0x1F || (input.get(input.position() + 1) & 0xFF) != 0x8B) {
+            return false;
+        }
+        PooledInflaterInputStream.readGzipHeader(new ByteBufferInputStream(input));
+        inflater.reset();
+        this.crc.reset();
+        inflater.setInput(input);
+        return true;
+    }
+
+    @Override
+    public int available() {
+        return eos || inflater == null ? 0 : 1;
+    }
+
+    @Override
+    public void close() {
+        if (inflater != null) {
+            pool.release(inflater, nowrap);
+            inflater = null;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.saicone.nbt.util.zip;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Deflater output stream implementation that use a deflater from {@link ZipPool} and
+ * return it once the stream is closed.<br>
+ * On gzip mode the gzip header must be already written, and the gzip trailer is
+ * written when the stream is finished.<br>
+ * Raw deflate streams can use a preset dictionary, that is set before any compression.
+ *
+ * @author Rubenicos
+ */
+class PooledDeflaterOutputStream extends DeflaterOutputStream {
+
+    /**
+     * Gzip member header without optional fields, as written by {@link java.util.zip.GZIPOutputStream}.
+     */
+    static final byte[] GZIP_HEADER = new byte[] { 0x1F, (byte) 0x8B, 8, 0, 0, 0, 0, 0, 0, 0 };
+
+    private final ZipPool pool;
+    private final boolean nowrap;
+    private final boolean gzip;
+    private final CRC32 crc;
+    private boolean released;
+
+    PooledDeflaterOutputStream(@NotNull OutputStream out, @NotNull ZipPool pool, int level, int strategy, boolean gzip, int size) {
+        this(out, pool, level, strategy, gzip, gzip, null, size);
+    }
+
+    PooledDeflaterOutputStream(@NotNull OutputStream out, @NotNull ZipPool pool, int level, int strategy, boolean nowrap, boolean gzip, @Nullable byte[] dictionary, int size) {
+        super(out, pool.acquireDeflater(level, strategy, nowrap), size);
+        this.pool = pool;
+        this.nowrap = nowrap;
+        this.gzip = gzip;
+        this.crc = gzip ? new CRC32() : null;
+        if (dictionary != null) {
+            def.setDictionary(dictionary);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        super.write(b, off, len);
+        if (gzip) {
+            crc.update(b, off, len);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (def.finished()) {
+            return;
+        }
+        super.finish();
+        if (gzip) {
+            final byte[] trailer = new byte[8];
+            writeUInt(trailer, 0, crc.getValue());
+            writeUInt(trailer, 4, def.getBytesRead());
+            out.write(trailer);
+        }
+    }
+
+    private static void writeUInt(byte[] bytes, int offset, long value) {
+        bytes[offset] = (byte) value;
+        bytes[offset + 1] = (byte) (value >> 8);
+        bytes[offset + 2] = (byte) (value >> 16);
+        bytes[offset + 3] = (byte) (value >> 24);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (released) {
+            return;
+        }
+        released = true;
+        try {
+            super.close();
+        } finally {
+            pool.release(def, nowrap);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.saicone.nbt.util.zip;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Inflater input stream implementation that use an inflater from {@link ZipPool} and
+ * return it once the stream is closed.<br>
+ * On gzip mode the stream must be located after gzip header, and the gzip trailer is
+ * verified when the end of compressed data is reached. Same as {@link java.util.zip.GZIPInputStream},
+ * concatenated gzip members are read as a single stream.<br>
+ * Raw deflate streams can use a preset dictionary, that is set before any decompression.
+ *
+ * @author Rubenicos
+ */
+class PooledInflaterInputStream extends InflaterInputStream {
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final ZipPool pool;
+    private final boolean nowrap;
+    private final boolean gzip;
+    private final CRC32 crc;
+    private boolean eos;
+    private boolean released;
+
+    /**
+     * Read a gzip member header from provided input stream.
+     *
+     * @param in the input stream to read.
+     * @throws IOException if any I/O error occurs or the header is not valid.
+     */
+    static void readGzipHeader(@NotNull InputStream in) throws IOException {
+        if (readUByte(in) != 0x1F || readUByte(in) != 0x8B) {
+            throw new ZipException("Not in GZIP format");
+        }
+        readGzipFields(in);
+    }
+
+    private static void readGzipFields(@NotNull InputStream in) throws IOException {
+        if (readUByte(in) != 8) {
+            throw new ZipException("Unsupported compression method");
+        }
+        final int flags = readUByte(in);
+        // Modification time, extra flags and operating system
+        skipBytes(in, 6);
+        if ((flags & FEXTRA) != 0) {
+            skipBytes(in, readUByte(in) | readUByte(in) << 8);
+        }
+        if ((flags & FNAME) != 0) {
+            while (readUByte(in) != 0) {
+                // skip file name
+            }
+        }
+        if ((flags & FCOMMENT) != 0) {
+            while (readUByte(in) != 0) {
+                // skip comment
+            }
+        }
+        if ((flags & FHCRC) != 0) {
+            skipBytes(in, 2);
+        }
+    }
+
+    private static int readUByte(@NotNull InputStream in) throws IOException {
+        final int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Unexpected end of GZIP header");
+        }
+        return b;
+    }
+
+    private static void skipBytes(@NotNull InputStream in, int amount) throws IOException {
+        for (int i = 0; i < amount; i++) {
+            readUByte(in);
+        }
+    }
+
+    /**
+     * Check the provided gzip trailer values.
+     *
+     * @param crc   the expected CRC-32 value.
+     * @param size  the expected uncompressed size, modulo 2^32.
+     * @param value the CRC-32 of uncompressed data.
+     * @param bytes the amount of uncompressed bytes.
+     * @throws ZipException if the values don't match.
+     */
+    static void checkGzipTrailer(long crc, long size, long value, long bytes) throws ZipException {
+        if (crc != value || size != (bytes & 0xFFFFFFFFL)) {
+            throw new ZipException("Corrupt GZIP trailer");
+        }
+    }
+
+    PooledInflaterInputStream(@NotNull InputStream in, @NotNull ZipPool pool, boolean gzip, int size) {
+        this(in, pool, gzip, gzip, null, size);
+    }
+
+    PooledInflaterInputStream(@NotNull InputStream in, @NotNull ZipPool pool, boolean nowrap, boolean gzip, @Nullable byte[] dictionary, int size) {
+        super(in, pool.acquireInflater(nowrap), size);
+        this.pool = pool;
+        this.nowrap = nowrap;
+        this.gzip = gzip;
+        this.crc = gzip ? new CRC32() : null;
+        if (dictionary != null) {
+            inf.setDictionary(dictionary);
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (eos) {
+            return -1;
+        }
+        int read;
+        while ((read = super.read(b, off, len)) < 0) {
+            if (!gzip || !readTrailer()) {
+                eos = true;
+                return -1;
+            }
+        }
+        if (gzip) {
+            crc.update(b, off, read);
+        }
+        return read;
+    }
+
+    /**
+     * Read and verify the current gzip member trailer.
+     *
+     * @return true if another gzip member was found after trailer, false otherwise.
+     * @throws IOException if any I/O error occurs or the trailer is not valid.
+     */
+    private boolean readTrailer() throws IOException {
+        final byte[] trailer = new byte[8];
+        // Trailer bytes may be already read into inflater buffer
+        int offset = len - inf.getRemaining();
+        final int remaining = Math.min(inf.getRemaining(), trailer.length);
+        System.arraycopy(buf, offset, trailer, 0, remaining);
+        offset += remaining;
+        for (int i = remaining; i < trailer.length; i++) {
+            trailer[i] = (byte) readUByte(in);
+        }
+        checkGzipTrailer(readUInt(trailer, 0), readUInt(trailer, 4), crc.getValue(), inf.getBytesWritten());
+
+        // Next member header may be already read into inflater buffer
+        final MemberInputStream member = new MemberInputStream(offset);
+        final int id1 = member.read();
+        if (id1 < 0) {
+            return false;
+        }
+        final int id2 = member.read();
+        if (id1 != 0x1F || id2 != 0x8B) {
+            // Trailing bytes that are not a gzip member are ignored
+            return false;
+        }
+        readGzipFields(member);
+        inf.reset();
+        crc.reset();
+        if (member.position < len) {
+            inf.setInput(buf, member.position, len - member.position);
+        }
+        return true;
+    }
+
+    private static long readUInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFFL) | (bytes[offset + 1] & 0xFFL) << 8 | (bytes[offset + 2] & 0xFFL) << 16 | (bytes[offset + 3] & 0xFFL) << 24;
+    }
+
+    /**
+     * Input stream that read the remaining inflater buffer before delegated input stream.
+     */
+    private final class MemberInputStream extends InputStream {
+
+        private int position;
+
+        MemberInputStream(int position) {
+            this.position = position;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position < len) {
+                return buf[position++] & 0xFF;
+            }
+            return in.read();
+        }
+    }
+
+    @Override
+    public int available() throws IOException {
+        return eos ? 0 : super.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (released) {
+            return;
+        }
+        released = true;
+        try {
+            super.close();
+        } finally {
+            pool.release(inf, nowrap);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -46,19 +47,29 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.zip.Deflater;
-import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
-import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
 
 /**
  * Utility class for compression algorithms related methods.<br>
- * Compatibility with gzip, zlib and lz4 is provided by default.
+ * Compatibility with gzip, zlib, raw deflate, lz4 and zstd is provided by default, lz4 and zstd
+ * require its libraries to be loaded on classpath.<br>
+ * Gzip and zlib streams reuse native inflater and deflater instances from {@link ZipPool#SHARED}, so
+ * every created stream must be closed to return them into the pool.
  *
  * @author Rubenicos
  */
 public abstract class ZipFormat {
 
+    /**
+     * The default buffer size used by compression streams.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    /**
+     * The buffer size used by compression streams that prioritize compression ratio.
+     */
+    public static final int MAX_BUFFER_SIZE = 65536;
+
     private static final StandardOpenOption[] DEFAULT_OPEN_OPTIONS = new StandardOpenOption[] {
             StandardOpenOption.SYNC,
             StandardOpenOption.CREATE,
@@ -107,6 +118,20 @@ public abstract class ZipFormat {
         return Gzip.INSTANCE;
     }
 
+    /**
+     * Get gzip compression algorithm implementation with custom compression settings.
+     *
+     * @param level      the compression level, from 0 to 9 or -1 for default.
+     * @param strategy   the compression strategy.
+     * @param bufferSize the buffer size used by compression streams.
+     * @return           a zip format utility implementation.
+     * @see Deflater
+     */
+    @NotNull
+    public static Gzip gzip(int level, int strategy, int bufferSize) {
+        return new Gzip(level, strategy, bufferSize);
+    }
+
     /**
      * Get zlib compression algorithm implementation.
      *
@@ -117,6 +142,20 @@ public abstract class ZipFormat {
         return Zlib.INSTANCE;
     }
 
+    /**
+     * Get zlib compression algorithm implementation with custom compression settings.
+     *
+     * @param level      the compression level, from 0 to 9 or -1 for default.
+     * @param strategy   the compression strategy.
+     * @param bufferSize the buffer size used by compression streams.
+     * @return           a zip format utility implementation.
+     * @see Deflater
+     */
+    @NotNull
+    public static Zlib zlib(int level, int strategy, int bufferSize) {
+        return new Zlib(level, strategy, bufferSize);
+    }
+
     /**
      * Get lz4 compression algorithm implementation.
      *
@@ -127,6 +166,63 @@ public abstract class ZipFormat {
         return Lz4.INSTANCE;
     }
 
+    /**
+     * Get lz4 block stream compression algorithm implementation, the one used by region files.
+     *
+     * @return a zip format utility implementation.
+     */
+    @NotNull
+    public static Lz4Block lz4Block() {
+        return Lz4Block.INSTANCE;
+    }
+
+    /**
+     * Get raw deflate compression algorithm implementation, without zlib header and checksum.
+     *
+     * @return a zip format utility implementation.
+     */
+    @NotNull
+    public static Deflate deflate() {
+        return Deflate.INSTANCE;
+    }
+
+    /**
+     * Get raw deflate compression algorithm implementation with custom compression settings.
+     *
+     * @param level      the compression level, from 0 to 9 or -1 for default.
+     * @param strategy   the compression strategy.
+     * @param bufferSize the buffer size used by compression streams.
+     * @param dictionary the preset dictionary, null to not use any.
+     * @return           a zip format utility implementation.
+     * @see Deflater
+     */
+    @NotNull
+    public static Deflate deflate(int level, int strategy, int bufferSize, @Nullable byte[] dictionary) {
+        return new Deflate(level, strategy, bufferSize, dictionary);
+    }
+
+    /**
+     * Get zstd compression algorithm implementation.
+     *
+     * @return a zip format utility implementation.
+     */
+    @NotNull
+    public static Zstd zstd() {
+        return Zstd.INSTANCE;
+    }
+
+    /**
+     * Get zstd compression algorithm implementation with custom compression settings.
+     *
+     * @param level      the compression level, up to 22.
+     * @param dictionary the trained dictionary, null to not use any.
+     * @return           a zip format utility implementation.
+     */
+    @NotNull
+    public static Zstd zstd(int level, @Nullable byte[] dictionary) {
+        return new Zstd(level, dictionary);
+    }
+
     /**
      * Get a zip format implementation, based on provided file.<br>
      * If the file doesn't contain any compression format, an {@link ZipFormat#empty()} instance will be return.
@@ -143,6 +239,10 @@ public abstract class ZipFormat {
             return zlib();
         } else if (lz4().isLoaded() && lz4().isFormatted(file)) {
             return lz4();
+        } else if (lz4Block().isLoaded() && lz4Block().isFormatted(file)) {
+            return lz4Block();
+        } else if (zstd().isLoaded() && zstd().isFormatted(file)) {
+            return zstd();
         } else {
             return empty();
         }
@@ -164,6 +264,10 @@ public abstract class ZipFormat {
             return zlib();
         } else if (lz4().isLoaded() && lz4().isFormatted(path)) {
             return lz4();
+        } else if (lz4Block().isLoaded() && lz4Block().isFormatted(path)) {
+            return lz4Block();
+        } else if (zstd().isLoaded() && zstd().isFormatted(path)) {
+            return zstd();
         } else {
             return empty();
         }
@@ -185,6 +289,10 @@ public abstract class ZipFormat {
             return zlib();
         } else if (lz4().isLoaded() && lz4().isFormatted(input)) {
             return lz4();
+        } else if (lz4Block().isLoaded() && lz4Block().isFormatted(input)) {
+            return lz4Block();
+        } else if (zstd().isLoaded() && zstd().isFormatted(input)) {
+            return zstd();
         } else {
             return empty();
         }
@@ -196,6 +304,25 @@ public abstract class ZipFormat {
     public ZipFormat() {
     }
 
+    /**
+     * Check the provided deflate compression settings.
+     *
+     * @param level      the compression level.
+     * @param strategy   the compression strategy.
+     * @param bufferSize the buffer size.
+     */
+    protected static void checkSettings(int level, int strategy, int bufferSize) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        if (strategy != Deflater.DEFAULT_STRATEGY && strategy != Deflater.FILTERED && strategy != Deflater.HUFFMAN_ONLY) {
+            throw new IllegalArgumentException("Invalid compression strategy: " + strategy);
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Invalid buffer size: " + bufferSize);
+        }
+    }
+
     /**
      * Check if the provided file is formatted with the current algorithm implementation.
      *
@@ -280,16 +407,15 @@ public abstract class ZipFormat {
     protected Optional<int[]> getByteHeader(@NotNull Path path) throws IOException {
         try (SeekableByteChannel byteChannel = Files.newByteChannel(path, StandardOpenOption.READ)) {
             final ByteBuffer buffer = ByteBuffer.allocate(getByteSize());
-            byteChannel.read(buffer);
+            while (buffer.hasRemaining() && byteChannel.read(buffer) > 0);
             buffer.flip();
+            if (buffer.remaining() < getByteSize()) {
+                return Optional.empty();
+            }
 
             final int[] bytes = new int[getByteSize()];
             for (int i = 0; i < bytes.length; i++) {
-                final int b = buffer.get();
-                if (b <= -1) {
-                    return Optional.empty();
-                }
-                bytes[i] = b;
+                bytes[i] = buffer.get() & 0xFF;
             }
             return Optional.of(bytes);
         }
@@ -360,6 +486,66 @@ public abstract class ZipFormat {
     @NotNull
     public abstract InputStream newInputStream(@NotNull InputStream input) throws IOException;
 
+    /**
+     * Create an {@link InputStream} with the current algorithm implementation that reads
+     * the remaining bytes of provided buffer, the buffer position is not modified.
+     *
+     * @param data the buffer that contains compressed data.
+     * @return     a newly generated {@link InputStream}.
+     * @throws IOException if any I/O error occurs.
+     */
+    @NotNull
+    public InputStream newInputStream(@NotNull ByteBuffer data) throws IOException {
+        return newInputStream(new ByteBufferInputStream(data.duplicate()));
+    }
+
+    /**
+     * Decompress the remaining bytes of provided buffer at once, the buffer position is not modified.
+     *
+     * @param data the buffer that contains compressed data.
+     * @param size the expected uncompressed size, -1 if it's unknown.
+     * @return     a byte array with uncompressed data.
+     * @throws IOException if any I/O error occurs or the uncompressed size doesn't match.
+     */
+    public byte[] decompress(@NotNull ByteBuffer data, int size) throws IOException {
+        try (InputStream input = newInputStream(data)) {
+            if (size < 0) {
+                return input.readAllBytes();
+            }
+            final byte[] bytes = new byte[size];
+            if (input.readNBytes(bytes, 0, size) < size || input.read() >= 0) {
+                throw new ZipException("Cannot decompress data with unexpected size, expected " + size + " bytes");
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Decompress the provided byte array at once.
+     *
+     * @param bytes the compressed data.
+     * @return      a byte array with uncompressed data.
+     * @throws IOException if any I/O error occurs.
+     */
+    public byte[] decompress(byte[] bytes) throws IOException {
+        return decompress(ByteBuffer.wrap(bytes), -1);
+    }
+
+    /**
+     * Compress the provided byte array at once.
+     *
+     * @param bytes the data to compress.
+     * @return      a byte array with compressed data.
+     * @throws IOException if any I/O error occurs.
+     */
+    public byte[] compress(byte[] bytes) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(32, bytes.length / 2));
+        try (OutputStream output = newOutputStream(out)) {
+            output.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
     /**
      * Create an {@link OutputStream} with the current algorithm implementation.
      *
@@ -403,11 +589,65 @@ public abstract class ZipFormat {
          * {@link Gzip} public instance.
          */
         public static final Gzip INSTANCE = new Gzip();
+        /**
+         * {@link Gzip} instance that prioritize speed over compression ratio, useful for network data.
+         */
+        public static final Gzip FAST = new Gzip(Deflater.BEST_SPEED, Deflater.DEFAULT_STRATEGY, DEFAULT_BUFFER_SIZE);
+        /**
+         * {@link Gzip} instance that prioritize compression ratio over speed, useful for archived data.
+         */
+        public static final Gzip MAX = new Gzip(Deflater.BEST_COMPRESSION, Deflater.DEFAULT_STRATEGY, MAX_BUFFER_SIZE);
+
+        private final int level;
+        private final int strategy;
+        private final int bufferSize;
 
         /**
          * Constructs a gzip format.
          */
         public Gzip() {
+            this(Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, DEFAULT_BUFFER_SIZE);
+        }
+
+        /**
+         * Constructs a gzip format with custom compression settings.
+         *
+         * @param level      the compression level, from 0 to 9 or -1 for default.
+         * @param strategy   the compression strategy.
+         * @param bufferSize the buffer size used by compression streams.
+         */
+        public Gzip(int level, int strategy, int bufferSize) {
+            checkSettings(level, strategy, bufferSize);
+            this.level = level;
+            this.strategy = strategy;
+            this.bufferSize = bufferSize;
+        }
+
+        /**
+         * Get the compression level used by output streams.
+         *
+         * @return a compression level.
+         */
+        public int getLevel() {
+            return level;
+        }
+
+        /**
+         * Get the compression strategy used by output streams.
+         *
+         * @return a compression strategy.
+         */
+        public int getStrategy() {
+            return strategy;
+        }
+
+        /**
+         * Get the buffer size used by compression streams.
+         *
+         * @return a buffer size.
+         */
+        public int getBufferSize() {
+            return bufferSize;
         }
 
         /**
@@ -434,12 +674,19 @@ public abstract class ZipFormat {
 
         @Override
         public @NotNull InputStream newInputStream(@NotNull InputStream input) throws IOException {
-            return new GZIPInputStream(input);
+            PooledInflaterInputStream.readGzipHeader(input);
+            return new PooledInflaterInputStream(input, ZipPool.SHARED, true, bufferSize);
+        }
+
+        @Override
+        public @NotNull InputStream newInputStream(@NotNull ByteBuffer data) throws IOException {
+            return new BufferInflaterInputStream(data, ZipPool.SHARED, true);
         }
 
         @Override
         public @NotNull OutputStream newOutputStream(@NotNull OutputStream output) throws IOException {
-            return new GZIPOutputStream(output);
+            output.write(PooledDeflaterOutputStream.GZIP_HEADER);
+            return new PooledDeflaterOutputStream(output, ZipPool.SHARED, level, strategy, true, bufferSize);
         }
     }
 
@@ -462,10 +709,65 @@ public abstract class ZipFormat {
             LEVELS.put(0x78DA, Deflater.BEST_COMPRESSION);
         }
 
+        /**
+         * {@link Zlib} instance that prioritize speed over compression ratio, useful for network data.
+         */
+        public static final Zlib FAST = new Zlib(Deflater.BEST_SPEED, Deflater.DEFAULT_STRATEGY, DEFAULT_BUFFER_SIZE);
+        /**
+         * {@link Zlib} instance that prioritize compression ratio over speed, useful for archived data.
+         */
+        public static final Zlib MAX = new Zlib(Deflater.BEST_COMPRESSION, Deflater.DEFAULT_STRATEGY, MAX_BUFFER_SIZE);
+
+        private final int level;
+        private final int strategy;
+        private final int bufferSize;
+
         /**
          * Constructs a zlib format.
          */
         public Zlib() {
+            this(Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, DEFAULT_BUFFER_SIZE);
+        }
+
+        /**
+         * Constructs a zlib format with custom compression settings.
+         *
+         * @param level      the compression level, from 0 to 9 or -1 for default.
+         * @param strategy   the compression strategy.
+         * @param bufferSize the buffer size used by compression streams.
+         */
+        public Zlib(int level, int strategy, int bufferSize) {
+            checkSettings(level, strategy, bufferSize);
+            this.level = level;
+            this.strategy = strategy;
+            this.bufferSize = bufferSize;
+        }
+
+        /**
+         * Get the compression level used by output streams.
+         *
+         * @return a compression level.
+         */
+        public int getLevel() {
+            return level;
+        }
+
+        /**
+         * Get the compression strategy used by output streams.
+         *
+         * @return a compression strategy.
+         */
+        public int getStrategy() {
+            return strategy;
+        }
+
+        /**
+         * Get the buffer size used by compression streams.
+         *
+         * @return a buffer size.
+         */
+        public int getBufferSize() {
+            return bufferSize;
         }
 
         @Override
@@ -528,12 +830,123 @@ public abstract class ZipFormat {
 
         @Override
         public @NotNull InputStream newInputStream(@NotNull InputStream input) {
-            return new InflaterInputStream(input);
+            return new PooledInflaterInputStream(input, ZipPool.SHARED, false, bufferSize);
+        }
+
+        @Override
+        public @NotNull InputStream newInputStream(@NotNull ByteBuffer data) throws IOException {
+            return new BufferInflaterInputStream(data, ZipPool.SHARED, false);
+        }
+
+        @Override
+        public @NotNull OutputStream newOutputStream(@NotNull OutputStream output) {
+            return new PooledDeflaterOutputStream(output, ZipPool.SHARED, level, strategy, false, bufferSize);
+        }
+    }
+
+    /**
+     * {@link ZipFormat} implementation for raw deflate algorithm, without zlib header and checksum.<br>
+     * Raw deflate data doesn't have any magic number, so the format detection only checks that first
+     * block header is valid, which is not enough to detect it from unknown data and it's not used by
+     * {@link ZipFormat#of(InputStream)} methods.
+     */
+    public static class Deflate extends ZipFormat {
+
+        /**
+         * {@link Deflate} public instance.
+         */
+        public static final Deflate INSTANCE = new Deflate();
+
+        private final int level;
+        private final int strategy;
+        private final int bufferSize;
+        private final byte[] dictionary;
+
+        /**
+         * Constructs a raw deflate format.
+         */
+        public Deflate() {
+            this(Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, DEFAULT_BUFFER_SIZE, null);
+        }
+
+        /**
+         * Constructs a raw deflate format with custom compression settings.<br>
+         * The same dictionary must be used to compress and decompress data.
+         *
+         * @param level      the compression level, from 0 to 9 or -1 for default.
+         * @param strategy   the compression strategy.
+         * @param bufferSize the buffer size used by compression streams.
+         * @param dictionary the preset dictionary, null to not use any.
+         */
+        public Deflate(int level, int strategy, int bufferSize, @Nullable byte[] dictionary) {
+            checkSettings(level, strategy, bufferSize);
+            this.level = level;
+            this.strategy = strategy;
+            this.bufferSize = bufferSize;
+            this.dictionary = dictionary;
+        }
+
+        /**
+         * Get the compression level used by output streams.
+         *
+         * @return a compression level.
+         */
+        public int getLevel() {
+            return level;
+        }
+
+        /**
+         * Get the compression strategy used by output streams.
+         *
+         * @return a compression strategy.
+         */
+        public int getStrategy() {
+            return strategy;
+        }
+
+        /**
+         * Get the buffer size used by compression streams.
+         *
+         * @return a buffer size.
+         */
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        /**
+         * Get the preset dictionary used by compression streams.
+         *
+         * @return a dictionary byte array, null if it's not used.
+         */
+        @Nullable
+        public byte[] getDictionary() {
+            return dictionary;
+        }
+
+        @Override
+        public boolean isFormatted(int[] bytes) {
+            // BTYPE 11 is reserved
+            return ((bytes[0] >> 1) & 3) != 3;
+        }
+
+        @Override
+        protected int getByteSize() {
+            return 1;
+        }
+
+        @Override
+        public @NotNull InputStream newInputStream(@NotNull InputStream input) {
+            return new PooledInflaterInputStream(input, ZipPool.SHARED, true, false, dictionary, bufferSize);
+        }
+
+        @Override
+        public @NotNull InputStream newInputStream(@NotNull ByteBuffer data) throws IOException {
+            return new BufferInflaterInputStream(data, ZipPool.SHARED, true, false, dictionary);
         }
 
         @Override
         public @NotNull OutputStream newOutputStream(@NotNull OutputStream output) {
-            return new DeflaterOutputStream(output);
+            return new PooledDeflaterOutputStream(output, ZipPool.SHARED, level, strategy, true, false, dictionary, bufferSize);
         }
     }
 
@@ -587,7 +1000,7 @@ public abstract class ZipFormat {
 
         @Override
         public boolean isFormatted(int[] bytes) {
-            return ((bytes[0] << 24) | (bytes[1] << 16) | (bytes[2] << 8) | bytes[3]) == MAGIC;
+            return ((bytes[3] << 24) | (bytes[2] << 16) | (bytes[1] << 8) | bytes[0]) == MAGIC;
         }
 
         @Override
@@ -617,4 +1030,240 @@ public abstract class ZipFormat {
             }
         }
     }
+
+    /**
+     * {@link ZipFormat} implementation for lz4 algorithm using block streams instead of frames,
+     * the format used by Minecraft region files with compression type 4.
+     */
+    public static class Lz4Block extends ZipFormat {
+
+        /**
+         * {@link Lz4Block} public instance.
+         */
+        public static final Lz4Block INSTANCE = new Lz4Block();
+
+        /**
+         * Lz4 block header magic bytes.
+         */
+        public static final byte[] MAGIC = new byte[] { 'L', 'Z', '4', 'B', 'l', 'o', 'c', 'k' };
+
+        private static final MethodHandle newBlockInputStream;
+        private static final MethodHandle newBlockOutputStream;
+
+        static {
+            MethodHandle new$BlockInputStream = null;
+            MethodHandle new$BlockOutputStream = null;
+            try {
+                final Class<?> inputClass = Class.forName("net.jpountz.lz4.LZ4BlockInputStream");
+                final Class<?> outputClass = Class.forName("net.jpountz.lz4.LZ4BlockOutputStream");
+
+                final MethodHandles.Lookup lookup = MethodHandles.lookup();
+                new$BlockInputStream = lookup.findConstructor(inputClass, MethodType.methodType(void.class, InputStream.class));
+                new$BlockOutputStream = lookup.findConstructor(outputClass, MethodType.methodType(void.class, OutputStream.class));
+            } catch (Throwable ignored) { }
+            newBlockInputStream = new$BlockInputStream;
+            newBlockOutputStream = new$BlockOutputStream;
+        }
+
+        /**
+         * Constructs a lz4 block format.
+         */
+        public Lz4Block() {
+        }
+
+        /**
+         * Check if lz4 library is loaded on classpath.
+         *
+         * @return true if lz4 library is loaded, false otherwise.
+         */
+        public boolean isLoaded() {
+            return newBlockInputStream != null && newBlockOutputStream != null;
+        }
+
+        @Override
+        public boolean isFormatted(int[] bytes) {
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (bytes[i] != MAGIC[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        protected int getByteSize() {
+            return MAGIC.length;
+        }
+
+        @Override
+        public @NotNull InputStream newInputStream(@NotNull InputStream input) throws IOException {
+            try {
+                return (InputStream) newBlockInputStream.invoke(input);
+            } catch (IOException e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        @Override
+        public @NotNull OutputStream newOutputStream(@NotNull OutputStream output) throws IOException {
+            try {
+                return (OutputStream) newBlockOutputStream.invoke(output);
+            } catch (IOException e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+    }
+
+    /**
+     * {@link ZipFormat} implementation for zstd algorithm.<br>
+     * The library <a href="https://github.com/luben/zstd-jni">zstd-jni</a> must be loaded on classpath.
+     */
+    public static class Zstd extends ZipFormat {
+
+        /**
+         * {@link Zstd} public instance.
+         */
+        public static final Zstd INSTANCE = new Zstd();
+
+        /**
+         * Zstd frame magic number.
+         */
+        public static final int MAGIC = 0xFD2FB528; // 28 b5 2f fd header as little-endian
+        /**
+         * Zstd skippable frame magic number, the last 4 bits can be any value.
+         */
+        public static final int SKIPPABLE_MAGIC = 0x184D2A50;
+        /**
+         * The default zstd compression level.
+         */
+        public static final int DEFAULT_LEVEL = 3;
+        /**
+         * The maximum zstd compression level.
+         */
+        public static final int MAX_LEVEL = 22;
+
+        private static final MethodHandle newZstdInputStream;
+        private static final MethodHandle newZstdOutputStream;
+        private static final MethodHandle setInputDict;
+        private static final MethodHandle setOutputDict;
+
+        static {
+            MethodHandle new$ZstdInputStream = null;
+            MethodHandle new$ZstdOutputStream = null;
+            MethodHandle set$InputDict = null;
+            MethodHandle set$OutputDict = null;
+            try {
+                final Class<?> inputClass = Class.forName("com.github.luben.zstd.ZstdInputStream");
+                final Class<?> outputClass = Class.forName("com.github.luben.zstd.ZstdOutputStream");
+
+                final MethodHandles.Lookup lookup = MethodHandles.lookup();
+                new$ZstdInputStream = lookup.findConstructor(inputClass, MethodType.methodType(void.class, InputStream.class));
+                new$ZstdOutputStream = lookup.findConstructor(outputClass, MethodType.methodType(void.class, OutputStream.class, int.class));
+                set$InputDict = lookup.findVirtual(inputClass, "setDict", MethodType.methodType(inputClass, byte[].class));
+                set$OutputDict = lookup.findVirtual(outputClass, "setDict", MethodType.methodType(outputClass, byte[].class));
+            } catch (Throwable ignored) { }
+            newZstdInputStream = new$ZstdInputStream;
+            newZstdOutputStream = new$ZstdOutputStream;
+            setInputDict = set$InputDict;
+            setOutputDict = set$OutputDict;
+        }
+
+        private final int level;
+        private final byte[] dictionary;
+
+        /**
+         * Constructs a zstd format.
+         */
+        public Zstd() {
+            this(DEFAULT_LEVEL, null);
+        }
+
+        /**
+         * Constructs a zstd format with custom compression settings.<br>
+         * The same dictionary must be used to compress and decompress data.
+         *
+         * @param level      the compression level, up to 22.
+         * @param dictionary the trained dictionary, null to not use any.
+         */
+        public Zstd(int level, @Nullable byte[] dictionary) {
+            if (level > MAX_LEVEL) {
+                throw new IllegalArgumentException("Invalid compression level: " + level);
+            }
+            this.level = level;
+            this.dictionary = dictionary;
+        }
+
+        /**
+         * Check if zstd library is loaded on classpath.
+         *
+         * @return true if zstd library is loaded, false otherwise.
+         */
+        public boolean isLoaded() {
+            return newZstdInputStream != null && newZstdOutputStream != null && setInputDict != null && setOutputDict != null;
+        }
+
+        /**
+         * Get the compression level used by output streams.
+         *
+         * @return a compression level.
+         */
+        public int getLevel() {
+            return level;
+        }
+
+        /**
+         * Get the trained dictionary used by compression streams.
+         *
+         * @return a dictionary byte array, null if it's not used.
+         */
+        @Nullable
+        public byte[] getDictionary() {
+            return dictionary;
+        }
+
+        @Override
+        public boolean isFormatted(int[] bytes) {
+            final int magic = (bytes[3] << 24) | (bytes[2] << 16) | (bytes[1] << 8) | bytes[0];
+            return magic == MAGIC || (magic & 0xFFFFFFF0) == SKIPPABLE_MAGIC;
+        }
+
+        @Override
+        protected int getByteSize() {
+            return 4;
+        }
+
+        @Override
+        public @NotNull InputStream newInputStream(@NotNull InputStream input) throws IOException {
+            try {
+                final Object stream = newZstdInputStream.invoke(input);
+                if (dictionary != null) {
+                    setInputDict.invoke(stream, dictionary);
+                }
+                return (InputStream) stream;
+            } catch (IOException e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        @Override
+        public @NotNull OutputStream newOutputStream(@NotNull OutputStream output) throws IOException {
+            try {
+                final Object stream = newZstdOutputStream.invoke(output, level);
+                if (dictionary != null) {
+                    setOutputDict.invoke(stream, dictionary);
+                }
+                return (OutputStream) stream;
+            } catch (IOException e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+    }
 }
@@ -0,0 +1,134 @@
+package com.saicone.nbt.util.zip;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * <b>Zip Pool</b><br>
+ * A zip pool keeps {@link Inflater} and {@link Deflater} instances to be reused across compressed
+ * streams, since every instance allocates native memory that is only freed with {@code end()} or by
+ * garbage collection.<br>
+ * Released instances are reset before being pooled, and any instance that exceeds the pool size is ended.
+ *
+ * @author Rubenicos
+ */
+public class ZipPool {
+
+    /**
+     * A shared zip pool instance.
+     */
+    public static final ZipPool SHARED = new ZipPool(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+
+    private static final int INFLATER = 0;
+    private static final int NOWRAP_INFLATER = 1;
+    private static final int DEFLATER = 2;
+    private static final int NOWRAP_DEFLATER = 3;
+
+    private final int maxSize;
+    private final Queue<Inflater>[] inflaters;
+    private final Queue<Deflater>[] deflaters;
+    private final AtomicIntegerArray sizes = new AtomicIntegerArray(4);
+
+    /**
+     * Constructs a zip pool.
+     *
+     * @param maxSize the maximum amount of pooled instances for each type.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ZipPool(int maxSize) {
+        this.maxSize = maxSize;
+        this.inflaters = new Queue[] { new ConcurrentLinkedQueue<>(), new ConcurrentLinkedQueue<>() };
+        this.deflaters = new Queue[] { new ConcurrentLinkedQueue<>(), new ConcurrentLinkedQueue<>() };
+    }
+
+    /**
+     * Get an inflater ready to decompress data.
+     *
+     * @param nowrap true to decompress raw deflate data, without zlib header and checksum.
+     * @return       an inflater instance.
+     */
+    @NotNull
+    public Inflater acquireInflater(boolean nowrap) {
+        final int type = nowrap ? NOWRAP_INFLATER : INFLATER;
+        final Inflater inflater = inflaters[type].poll();
+        if (inflater != null) {
+            sizes.decrementAndGet(type);
+            return inflater;
+        }
+        return new Inflater(nowrap);
+    }
+
+    /**
+     * Get a deflater ready to compress data with provided compression level.
+     *
+     * @param level  the compression level.
+     * @param nowrap true to compress as raw deflate data, without zlib header and checksum.
+     * @return       a deflater instance.
+     */
+    @NotNull
+    public Deflater acquireDeflater(int level, boolean nowrap) {
+        return acquireDeflater(level, Deflater.DEFAULT_STRATEGY, nowrap);
+    }
+
+    /**
+     * Get a deflater ready to compress data with provided compression level and strategy.
+     *
+     * @param level    the compression level.
+     * @param strategy the compression strategy.
+     * @param nowrap   true to compress as raw deflate data, without zlib header and checksum.
+     * @return         a deflater instance.
+     */
+    @NotNull
+    public Deflater acquireDeflater(int level, int strategy, boolean nowrap) {
+        final int type = nowrap ? NOWRAP_DEFLATER : DEFLATER;
+        Deflater deflater = deflaters[type - DEFLATER].poll();
+        if (deflater != null) {
+            sizes.decrementAndGet(type);
+        } else {
+            deflater = new Deflater(level, nowrap);
+        }
+        // Settings are applied on next deflate call
+        deflater.setLevel(level);
+        deflater.setStrategy(strategy);
+        return deflater;
+    }
+
+    /**
+     * Return the provided inflater to this pool, the inflater must not be used after release.
+     *
+     * @param inflater the inflater to release.
+     * @param nowrap   true if the inflater was created to decompress raw deflate data.
+     */
+    public void release(@NotNull Inflater inflater, boolean nowrap) {
+        final int type = nowrap ? NOWRAP_INFLATER : INFLATER;
+        if (sizes.incrementAndGet(type) > maxSize) {
+            sizes.decrementAndGet(type);
+            inflater.end();
+            return;
+        }
+        inflater.reset();
+        inflaters[type].offer(inflater);
+    }
+
+    /**
+     * Return the provided deflater to this pool, the deflater must not be used after release.
+     *
+     * @param deflater the deflater to release.
+     * @param nowrap   true if the deflater was created to compress raw deflate data.
+     */
+    public void release(@NotNull Deflater deflater, boolean nowrap) {
+        final int type = nowrap ? NOWRAP_DEFLATER : DEFLATER;
+        if (sizes.incrementAndGet(type) > maxSize) {
+            sizes.decrementAndGet(type);
+            deflater.end();
+            return;
+        }
+        deflater.reset();
+        deflaters[type - DEFLATER].offer(deflater);
+    }
+}
@@ -0,0 +1,99 @@
+package com.saicone.nbt;
+
+import com.saicone.nbt.nio.BufferPool;
+import com.saicone.nbt.nio.NetworkTagBuffer;
+import com.saicone.nbt.nio.TagBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.saicone.nbt.TagAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TagBufferTest {
+
+    private static Map<String, Object> large() {
+        final Map<String, Object> map = new HashMap<>(TagObjects.MAP);
+        final List<Object> list = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            list.add(Map.of("id", "entity" + i, "pos", new long[] { i, i * 2L, i * 3L }));
+        }
+        map.put("entities", list);
+        map.put("data", new int[3000]);
+        return map;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        final ByteBuffer copy = buffer.duplicate().flip();
+        final byte[] bytes = new byte[copy.remaining()];
+        copy.get(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void testGrowable() {
+        final Map<String, Object> map = large();
+        final ByteBuffer fixed = ByteBuffer.allocate(64 * 1024);
+        TagBuffer.of(fixed).putUnnamedTag(map);
+
+        for (BufferPool pool : new BufferPool[] { BufferPool.HEAP, BufferPool.heap(4), BufferPool.direct(4) }) {
+            for (int i = 0; i < 3; i++) {
+                final TagBuffer<Object> buffer = TagBuffer.growable(pool);
+                assertTrue(buffer.isGrowable());
+                buffer.putUnnamedTag(map);
+                assertArrayEquals(Arrays.copyOf(fixed.array(), fixed.position()), bytes(buffer.buffer()));
+
+                final ByteBuffer read = buffer.buffer().flip();
+                assertTagEquals(map, TagBuffer.of(read).getUnnamedTag());
+                buffer.release();
+            }
+        }
+    }
+
+    @Test
+    public void testGrowableNetwork() {
+        final Map<String, Object> map = large();
+        final TagBuffer<Object> buffer = NetworkTagBuffer.growable(BufferPool.heap(2));
+        buffer.putAnyTag(map);
+        final ByteBuffer read = buffer.buffer().flip();
+        assertEquals(ByteOrder.LITTLE_ENDIAN, read.order());
+        assertTagEquals(map, NetworkTagBuffer.of(read).getAnyTag());
+        buffer.release();
+    }
+
+    @Test
+    public void testGrowableBytes() {
+        final byte[] bytes = new byte[100 * 1024];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+        final TagBuffer<Object> buffer = TagBuffer.growable(BufferPool.heap(2));
+        buffer.put((byte) 1).put(bytes, 10, bytes.length - 10);
+        final byte[] result = bytes(buffer.buffer());
+        assertEquals(bytes.length - 9, result.length);
+        assertEquals(1, result[0]);
+        assertArrayEquals(Arrays.copyOfRange(bytes, 10, bytes.length), Arrays.copyOfRange(result, 1, result.length));
+        buffer.release();
+    }
+
+    @Test
+    public void testPool() {
+        final BufferPool pool = BufferPool.heap(1);
+        final ByteBuffer buffer = pool.acquire(1000);
+        assertEquals(1024, buffer.capacity());
+        buffer.putInt(5).order(ByteOrder.LITTLE_ENDIAN);
+        pool.release(buffer);
+
+        final ByteBuffer reused = pool.acquire(600);
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(ByteOrder.BIG_ENDIAN, reused.order());
+        assertNotSame(reused, pool.acquire(1024));
+    }
+}
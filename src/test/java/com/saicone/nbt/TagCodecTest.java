@@ -0,0 +1,207 @@
+package com.saicone.nbt;
+
+import com.saicone.nbt.io.TagInput;
+import com.saicone.nbt.io.TagOutput;
+import com.saicone.nbt.nio.TagBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.saicone.nbt.TagAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TagCodecTest {
+
+    private static final class Box {
+        private final TagType<?> type;
+        private final Object value;
+
+        Box(TagType<?> type, Object value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    private static final TagMapper<Box> BOX = new TagMapper<>() {
+        @Override
+        public Box build(@NotNull TagType<?> type, @Nullable Object object) {
+            return new Box(type, object);
+        }
+
+        @Override
+        public Object extract(@Nullable Box box) {
+            return box == null ? null : box.value;
+        }
+
+        @Override
+        public @NotNull <A> TagType<A> type(@Nullable Box box) {
+            return box == null ? TagType.getType(Tag.END) : (TagType<A>) box.type;
+        }
+    };
+
+    private static TagMapper<Object> identity() {
+        return new TagMapper<>() {
+            @Override
+            public Object build(@NotNull TagType<?> type, @Nullable Object object) {
+                return object;
+            }
+
+            @Override
+            public Object extract(@Nullable Object object) {
+                return object;
+            }
+        };
+    }
+
+    @Test
+    public void testCodec() {
+        assertSame(TagCodec.of(TagMapper.DEFAULT), TagCodec.of(TagMapper.DEFAULT));
+        assertSame(TagCodec.of(BOX), TagCodec.of(BOX));
+
+        // Multiple instances of the same mapper class
+        final TagMapper<Object> first = identity();
+        final TagMapper<Object> second = identity();
+        assertSame(first.getClass(), second.getClass());
+        assertSame(TagCodec.of(first), TagCodec.of(first));
+        assertSame(TagCodec.of(second), TagCodec.of(second));
+        assertNotSame(TagCodec.of(first), TagCodec.of(second));
+        assertSame(TagType.INT, TagCodec.of(TagMapper.DEFAULT).type(5));
+        assertSame(TagType.BYTE_ARRAY, TagCodec.of(TagMapper.DEFAULT).type(new Byte[] { 1 }));
+        assertArrayEquals(new byte[] { 1 }, (byte[]) TagCodec.of(TagMapper.DEFAULT).extract(new Byte[] { 1 }));
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        final TagMapper<Object> first = identity();
+        final TagMapper<Object> second = identity();
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Callable<TagCodec<?>[]>> tasks = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final boolean reversed = i % 2 == 0;
+                tasks.add(() -> {
+                    final TagCodec<?>[] codecs = new TagCodec<?>[2];
+                    for (int j = 0; j < 1000; j++) {
+                        codecs[reversed ? 1 : 0] = TagCodec.of(reversed ? second : first);
+                        codecs[reversed ? 0 : 1] = TagCodec.of(reversed ? first : second);
+                    }
+                    return codecs;
+                });
+            }
+            final List<Future<TagCodec<?>[]>> futures = executor.invokeAll(tasks);
+            final TagCodec<?> firstCodec = TagCodec.of(first);
+            final TagCodec<?> secondCodec = TagCodec.of(second);
+            assertNotSame(firstCodec, secondCodec);
+            for (Future<TagCodec<?>[]> future : futures) {
+                final TagCodec<?>[] codecs = future.get();
+                assertSame(firstCodec, codecs[0]);
+                assertSame(secondCodec, codecs[1]);
+                assertSame(first, codecs[0].mapper());
+                assertSame(second, codecs[1].mapper());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testClassTyped() throws IOException {
+        final AtomicInteger calls = new AtomicInteger();
+        final TagMapper<Object> mapper = new TagMapper<>() {
+            @Override
+            public Object build(@NotNull TagType<?> type, @Nullable Object object) {
+                return object;
+            }
+
+            @Override
+            public @NotNull <A> TagType<A> type(@Nullable Object object) {
+                calls.incrementAndGet();
+                return TagType.getType(object);
+            }
+
+            @Override
+            public boolean isClassTyped() {
+                return true;
+            }
+        };
+        for (int i = 0; i < 10; i++) {
+            try (ByteArrayOutputStream out = new ByteArrayOutputStream(); TagOutput<Object> output = new TagOutput<>(new DataOutputStream(out), mapper)) {
+                output.writeUnnamed(TagObjects.MAP);
+            }
+        }
+        // Once per class
+        final Set<Class<?>> classes = new HashSet<>();
+        collectClasses(TagObjects.MAP, classes);
+        assertEquals(classes.size(), calls.get());
+    }
+
+    private static void collectClasses(Object object, Set<Class<?>> classes) {
+        classes.add(object.getClass());
+        if (object instanceof Map) {
+            for (Object value : ((Map<?, ?>) object).values()) {
+                collectClasses(value, classes);
+            }
+        } else if (object instanceof List) {
+            for (Object value : (List<?>) object) {
+                collectClasses(value, classes);
+            }
+        }
+    }
+
+    @Test
+    public void testWrapped() throws IOException {
+        final byte[] bytes;
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(); TagOutput<Object> output = TagOutput.of(new DataOutputStream(out))) {
+            output.writeUnnamed(TagObjects.MAP);
+            bytes = out.toByteArray();
+        }
+        final Box box;
+        try (TagInput<Box> input = new TagInput<>(new DataInputStream(new ByteArrayInputStream(bytes)), BOX)) {
+            box = input.readUnnamed();
+        }
+        assertSame(TagType.COMPOUND, box.type);
+
+        final byte[] result;
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(); TagOutput<Box> output = new TagOutput<>(new DataOutputStream(out), BOX)) {
+            output.writeUnnamed(box);
+            result = out.toByteArray();
+        }
+        try (TagInput<Object> input = TagInput.of(new DataInputStream(new ByteArrayInputStream(result)))) {
+            assertTagEquals(TagObjects.MAP, input.readUnnamed());
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(1024);
+        TagBuffer.of(buffer, BOX).putUnnamedTag(box);
+        buffer.flip();
+        assertTagEquals(TagObjects.MAP, TagBuffer.of(buffer).getUnnamedTag());
+    }
+
+    @Test
+    public void testConvert() {
+        final Box box = BOX.convert(TagMapper.DEFAULT, TagObjects.MAP);
+        assertSame(TagType.COMPOUND, box.type);
+        assertInstanceOf(Box.class, ((Map<String, Box>) box.value).get("compound list"));
+
+        final Object object = TagMapper.DEFAULT.convert(BOX, box);
+        assertTagEquals(TagObjects.MAP, object);
+        assertTagEquals(TagObjects.MAP, TagMapper.DEFAULT.convert(TagMapper.DEFAULT, TagObjects.MAP));
+    }
+}
@@ -0,0 +1,99 @@
+package com.saicone.nbt;
+
+import com.saicone.nbt.io.TagInput;
+import com.saicone.nbt.io.TagOutput;
+import com.saicone.nbt.nio.TagBuffer;
+import com.saicone.nbt.util.CompactCompound;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static com.saicone.nbt.TagAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TagCompactTest {
+
+    @Test
+    public void testCompound() {
+        final CompactCompound compound = new CompactCompound();
+        final Map<String, Object> expected = new HashMap<>();
+        for (int i = 0; i < 40; i++) {
+            compound.put("key" + i, i % 2 == 0 ? (Object) i : (Object) ("value" + i));
+            expected.put("key" + i, i % 2 == 0 ? (Object) i : (Object) ("value" + i));
+        }
+        compound.putDouble("double", 1.5);
+        expected.put("double", 1.5);
+        assertEquals(expected, compound);
+        assertEquals(38, compound.getInt("key38", -1));
+        assertEquals(1.5, compound.getDouble("double", 0));
+
+        final Iterator<Map.Entry<String, Object>> iterator = compound.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue() instanceof String) {
+                iterator.remove();
+            }
+        }
+        expected.values().removeIf(value -> value instanceof String);
+        assertEquals(expected, compound);
+        assertNull(compound.get("key1"));
+        assertEquals(2, compound.get("key2"));
+
+        // Null keys are rejected for primitive and object values
+        final int size = compound.size();
+        assertThrows(NullPointerException.class, () -> compound.put(null, 1));
+        assertThrows(NullPointerException.class, () -> compound.put(null, "value"));
+        assertThrows(NullPointerException.class, () -> compound.putLong(null, 1L));
+        assertEquals(size, compound.size());
+        assertNull(compound.get("missing"));
+    }
+
+    @Test
+    public void testInput() throws IOException {
+        final byte[] bytes;
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(); TagOutput<Object> output = TagOutput.of(new DataOutputStream(out))) {
+            output.writeUnnamed(TagObjects.MAP);
+            bytes = out.toByteArray();
+        }
+        final Map<String, Object> map;
+        try (TagInput<Object> input = TagInput.of(new DataInputStream(new ByteArrayInputStream(bytes))).compact(true)) {
+            map = input.readUnnamed();
+        }
+        assertInstanceOf(CompactCompound.class, map);
+        assertEquals(3, ((CompactCompound) map).getInt("int", 0));
+        assertInstanceOf(CompactCompound.class, map.get("compound"));
+        assertTagEquals(TagObjects.MAP, map);
+
+        final byte[] result;
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(); TagOutput<Object> output = TagOutput.of(new DataOutputStream(out))) {
+            output.writeUnnamed(map);
+            result = out.toByteArray();
+        }
+        try (TagInput<Object> input = TagInput.of(new DataInputStream(new ByteArrayInputStream(result)))) {
+            assertTagEquals(TagObjects.MAP, input.readUnnamed());
+        }
+    }
+
+    @Test
+    public void testBuffer() {
+        final ByteBuffer buffer = ByteBuffer.allocate(1024);
+        TagBuffer.of(buffer).putUnnamedTag(TagObjects.MAP);
+        buffer.flip();
+        final Map<String, Object> map = TagBuffer.of(buffer).compact(true).getUnnamedTag();
+        assertInstanceOf(CompactCompound.class, map);
+        assertEquals(4L, ((CompactCompound) map).getLong("long", 0));
+        assertTagEquals(TagObjects.MAP, map);
+
+        final ByteBuffer out = ByteBuffer.allocate(1024);
+        TagBuffer.of(out).putUnnamedTag(map);
+        out.flip();
+        assertTagEquals(TagObjects.MAP, TagBuffer.of(out).getUnnamedTag());
+    }
+}
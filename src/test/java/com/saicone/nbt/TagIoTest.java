@@ -6,16 +6,29 @@ import com.saicone.nbt.io.ReverseDataInputStream;
 import com.saicone.nbt.io.ReverseDataOutputStream;
 import com.saicone.nbt.io.TagInput;
 import com.saicone.nbt.io.TagOutput;
+import com.saicone.nbt.nio.NetworkTagBuffer;
+import com.saicone.nbt.nio.TagBuffer;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
 import java.io.DataInputStream;
+import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 import static com.saicone.nbt.TagAssertions.*;
+import static com.saicone.nbt.TagObjects.*;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class TagIoTest {
 
@@ -106,4 +119,42 @@ public class TagIoTest {
         }
         assertTagEquals(TagObjects.MAP, map);
     }
+
+    private static Map<String, Object> arrays() {
+        final int[] ints = new int[5000];
+        final long[] longs = new long[4096];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i * 0x01020304 - 12345;
+        }
+        for (int i = 0; i < longs.length; i++) {
+            longs[i] = i * 0x0102030405060708L - Long.MAX_VALUE / 3;
+        }
+        return Map.of("ints", ints, "longs", longs, "empty", new long[0]);
+    }
+
+    private static Map<String, Object> roundTrip(Function<OutputStream, DataOutput> out, Function<InputStream, DataInput> in, Map<String, Object> map) throws IOException {
+        return read(in, UnaryOperator.identity(), write(out, false, map));
+    }
+
+    @Test
+    public void testArrays() throws IOException {
+        final Map<String, Object> map = arrays();
+        assertTagEquals(map, roundTrip(DataOutputStream::new, DataInputStream::new, map));
+        assertTagEquals(map, roundTrip(ReverseDataOutputStream::new, ReverseDataInputStream::new, map));
+        assertTagEquals(map, roundTrip(NetworkDataOutputStream::new, NetworkDataInputStream::new, map));
+
+        for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+            final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(order);
+            TagBuffer.of(buffer).putAnyTag(map);
+            buffer.flip();
+            final byte[] expected = order == ByteOrder.BIG_ENDIAN ? write(DataOutputStream::new, false, map) : write(ReverseDataOutputStream::new, false, map);
+            assertArrayEquals(expected, Arrays.copyOf(buffer.array(), buffer.limit()));
+            assertTagEquals(map, TagBuffer.of(buffer).getAnyTag());
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        NetworkTagBuffer.of(buffer).putAnyTag(map);
+        buffer.flip();
+        assertTagEquals(map, NetworkTagBuffer.of(buffer).getAnyTag());
+    }
 }
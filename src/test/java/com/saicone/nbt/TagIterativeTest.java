@@ -0,0 +1,101 @@
+package com.saicone.nbt;
+
+import com.saicone.nbt.io.TagInput;
+import com.saicone.nbt.io.TagOutput;
+import com.saicone.nbt.nio.BufferPool;
+import com.saicone.nbt.nio.NetworkTagBuffer;
+import com.saicone.nbt.nio.TagBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.saicone.nbt.TagAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TagIterativeTest {
+
+    private static Map<String, Object> nested(int depth) {
+        Object value = new HashMap<>(TagObjects.MAP);
+        for (int i = 0; i < depth; i++) {
+            if (i % 2 == 0) {
+                final List<Object> list = new ArrayList<>();
+                list.add(value);
+                value = list;
+            } else {
+                final Map<String, Object> map = new HashMap<>();
+                map.put("level", i);
+                map.put("child", value);
+                map.put("empty", new ArrayList<>());
+                value = map;
+            }
+        }
+        final Map<String, Object> root = new HashMap<>();
+        root.put("root", value);
+        return root;
+    }
+
+    private static byte[] write(Map<String, Object> map, boolean iterative) throws IOException {
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(); TagOutput<Object> output = TagOutput.of(new DataOutputStream(out)).iterative(iterative)) {
+            output.writeUnnamed(map);
+            return out.toByteArray();
+        }
+    }
+
+    private static Map<String, Object> read(byte[] bytes, int maxDepth) throws IOException {
+        try (TagInput<Object> input = TagInput.of(new DataInputStream(new ByteArrayInputStream(bytes))).maxDepth(maxDepth).iterative(true)) {
+            return input.readUnnamed();
+        }
+    }
+
+    @Test
+    public void testStream() throws IOException {
+        final Map<String, Object> map = nested(400);
+        final byte[] bytes = write(map, false);
+        assertArrayEquals(bytes, write(map, true));
+        assertTagEquals(map, read(bytes, Tag.MAX_STACK_DEPTH));
+
+        assertThrows(IllegalArgumentException.class, () -> read(bytes, 100));
+    }
+
+    @Test
+    public void testBuffer() {
+        final Map<String, Object> map = nested(400);
+        for (boolean network : new boolean[] { false, true }) {
+            final TagBuffer<Object> recursive = network ? NetworkTagBuffer.growable(BufferPool.HEAP) : TagBuffer.growable(BufferPool.HEAP);
+            recursive.putAnyTag(map);
+            final TagBuffer<Object> iterative = network ? NetworkTagBuffer.growable(BufferPool.HEAP) : TagBuffer.growable(BufferPool.HEAP);
+            iterative.iterative(true).putAnyTag(map);
+            assertEquals(recursive.buffer().flip(), iterative.buffer().flip());
+
+            final ByteBuffer read = iterative.buffer();
+            final TagBuffer<Object> reader = network ? NetworkTagBuffer.of(read) : TagBuffer.of(read);
+            assertTagEquals(map, reader.iterative(true).getAnyTag());
+        }
+    }
+
+    @Test
+    public void testSmallStack() throws InterruptedException {
+        final Map<String, Object> map = nested(500);
+        final AtomicReference<Object> result = new AtomicReference<>();
+        final Thread thread = new Thread(null, () -> {
+            try {
+                result.set(read(write(map, true), Tag.MAX_STACK_DEPTH));
+            } catch (Throwable t) {
+                result.set(t);
+            }
+        }, "small-stack", 64 * 1024);
+        thread.start();
+        thread.join();
+        assertTagEquals(map, result.get());
+    }
+}
@@ -0,0 +1,73 @@
+package com.saicone.nbt;
+
+import com.saicone.nbt.io.NetworkDataInputStream;
+import com.saicone.nbt.io.NetworkDataOutputStream;
+import com.saicone.nbt.io.TagInput;
+import com.saicone.nbt.nio.TagBuffer;
+import com.saicone.nbt.util.TagKeyCache;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import static com.saicone.nbt.TagAssertions.*;
+import static com.saicone.nbt.TagObjects.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TagKeyCacheTest {
+
+    private static final Map<String, Object> MAP = Map.of(
+            "entities", List.of(Map.of("id", "zombie", "ñandú", 1), Map.of("id", "skeleton", "ñandú", 2)),
+            "name", "test"
+    );
+
+    private static String key(List<Object> list, int index) {
+        return ((Map<String, Object>) list.get(index)).keySet().stream().filter(key -> key.equals("id")).findFirst().orElseThrow();
+    }
+
+    @Test
+    public void testCache() {
+        final TagKeyCache cache = TagKeyCache.bounded(16);
+        final byte[] bytes = "key".getBytes(StandardCharsets.UTF_8);
+        final String key = cache.get(bytes, 0, bytes.length);
+        assertEquals("key", key);
+        assertSame(key, cache.get("key".getBytes(StandardCharsets.UTF_8), 0, 3));
+        assertSame(key, cache.get("a key".getBytes(StandardCharsets.UTF_8), 2, 3));
+
+        // Non-ASCII keys are not cached
+        final byte[] unicode = "ñandú".getBytes(StandardCharsets.UTF_8);
+        assertNull(cache.get(unicode, 0, unicode.length));
+    }
+
+    private static final UnaryOperator<TagInput<Object>> KEY_CACHE = input -> input.keyCache(TagKeyCache.bounded(64));
+
+    @Test
+    public void testInput() throws IOException {
+        final Map<String, Object> java = read(DataInputStream::new, KEY_CACHE, write(DataOutputStream::new, false, MAP));
+        assertTagEquals(MAP, java);
+        final List<Object> javaList = (List<Object>) java.get("entities");
+        assertSame(key(javaList, 0), key(javaList, 1));
+
+        final Map<String, Object> network = read(NetworkDataInputStream::new, KEY_CACHE, write(NetworkDataOutputStream::new, false, MAP));
+        assertTagEquals(MAP, network);
+        final List<Object> networkList = (List<Object>) network.get("entities");
+        assertSame(key(networkList, 0), key(networkList, 1));
+    }
+
+    @Test
+    public void testBuffer() {
+        final ByteBuffer buffer = ByteBuffer.allocate(1024);
+        TagBuffer.of(buffer).putUnnamedTag(MAP);
+        buffer.flip();
+        final Map<String, Object> map = TagBuffer.of(buffer).keyCache(TagKeyCache.bounded(64)).getUnnamedTag();
+        assertTagEquals(MAP, map);
+        final List<Object> list = (List<Object>) map.get("entities");
+        assertSame(key(list, 0), key(list, 1));
+    }
+}
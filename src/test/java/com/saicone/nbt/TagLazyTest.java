@@ -0,0 +1,177 @@
+package com.saicone.nbt;
+
+import com.saicone.nbt.io.NetworkDataInputStream;
+import com.saicone.nbt.io.NetworkDataOutputStream;
+import com.saicone.nbt.io.ReverseDataInputStream;
+import com.saicone.nbt.io.ReverseDataOutputStream;
+import com.saicone.nbt.io.TagInput;
+import com.saicone.nbt.io.TagOutput;
+import com.saicone.nbt.nio.LazyCompound;
+import com.saicone.nbt.nio.LazyList;
+import com.saicone.nbt.nio.NetworkTagBuffer;
+import com.saicone.nbt.nio.TagBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import static com.saicone.nbt.TagAssertions.*;
+import static com.saicone.nbt.TagObjects.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TagLazyTest {
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    @Test
+    public void testBuffer() {
+        final ByteBuffer buffer = ByteBuffer.allocate(1024);
+        TagBuffer.of(buffer).putUnnamedTag(TagObjects.MAP);
+        buffer.flip();
+        final byte[] original = Arrays.copyOf(buffer.array(), buffer.limit());
+
+        final Map<String, Object> map = TagBuffer.of(buffer).lazy(true).getUnnamedTag();
+        assertInstanceOf(LazyCompound.class, map);
+        assertInstanceOf(LazyList.class, map.get("compound list"));
+        assertEquals("test123", map.get("string"));
+        assertFalse(((LazyCompound<?>) map).isModified());
+
+        // Unmodified compound is written as raw bytes
+        final ByteBuffer out = ByteBuffer.allocate(1024);
+        TagBuffer.of(out).putUnnamedTag(map);
+        assertArrayEquals(original, bytes(out));
+
+        assertTagEquals(TagObjects.MAP, new HashMap<>(map));
+    }
+
+    @Test
+    public void testModify() {
+        final ByteBuffer buffer = ByteBuffer.allocate(1024);
+        TagBuffer.of(buffer).putUnnamedTag(TagObjects.MAP);
+        buffer.flip();
+
+        final Map<String, Object> map = TagBuffer.of(buffer).lazy(true).getUnnamedTag();
+        final Map<String, Object> compound = (Map<String, Object>) map.get("compound");
+        compound.put("number", 42);
+        map.remove("byte");
+        assertTrue(((LazyCompound<?>) map).isModified());
+
+        final ByteBuffer out = ByteBuffer.allocate(1024);
+        TagBuffer.of(out).putUnnamedTag(map);
+        out.flip();
+        final Map<String, Object> result = TagBuffer.of(out).getUnnamedTag();
+
+        final Map<String, Object> expected = new HashMap<>(TagObjects.MAP);
+        expected.remove("byte");
+        expected.put("compound", Map.of("test", Map.of("list", List.of((short) 1234)), "number", 42));
+        assertTagEquals(expected, result);
+    }
+
+    @Test
+    public void testNetworkBuffer() {
+        final ByteBuffer buffer = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+        NetworkTagBuffer.of(buffer).putAnyTag(TagObjects.MAP);
+        buffer.flip();
+        final byte[] original = Arrays.copyOf(buffer.array(), buffer.limit());
+
+        final Map<String, Object> map = NetworkTagBuffer.of(buffer).lazy(true).getAnyTag();
+        assertEquals(4L, map.get("long"));
+
+        final ByteBuffer out = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+        NetworkTagBuffer.of(out).putAnyTag(map);
+        assertArrayEquals(original, bytes(out));
+
+        // Incompatible format must be encoded again
+        final ByteBuffer other = ByteBuffer.allocate(1024);
+        TagBuffer.of(other).putAnyTag(map);
+        other.flip();
+        assertTagEquals(TagObjects.MAP, TagBuffer.of(other).getAnyTag());
+    }
+
+    private static final UnaryOperator<TagInput<Object>> LAZY = input -> input.lazy(true);
+
+    @Test
+    public void testInput() throws IOException {
+        final byte[] javaBytes = write(DataOutputStream::new, false, TagObjects.MAP);
+        final Map<String, Object> javaMap = read(DataInputStream::new, LAZY, javaBytes);
+        assertInstanceOf(LazyCompound.class, javaMap);
+        assertArrayEquals(javaBytes, write(DataOutputStream::new, false, javaMap));
+        assertTagEquals(TagObjects.MAP, new HashMap<>(javaMap));
+
+        final byte[] networkBytes = write(NetworkDataOutputStream::new, false, TagObjects.MAP);
+        final Map<String, Object> networkMap = read(NetworkDataInputStream::new, LAZY, networkBytes);
+        assertEquals(4L, networkMap.get("long"));
+        assertArrayEquals(networkBytes, write(NetworkDataOutputStream::new, false, networkMap));
+        // Different encoding
+        assertTagEquals(TagObjects.MAP, read(DataInputStream::new, LAZY, write(DataOutputStream::new, false, networkMap)));
+    }
+
+    @Test
+    public void testInputModify() throws IOException {
+        final byte[] bytes = write(DataOutputStream::new, false, TagObjects.MAP);
+        final Map<String, Object> map = read(DataInputStream::new, LAZY, bytes);
+        ((List<Object>) map.get("integer list")).add(5);
+        map.put("string", "modified");
+
+        final Map<String, Object> expected = new HashMap<>(TagObjects.MAP);
+        expected.put("integer list", List.of(1, 2, 3, 4, 5));
+        expected.put("string", "modified");
+        assertTagEquals(expected, read(DataInputStream::new, LAZY, write(DataOutputStream::new, false, map)));
+
+        // Bedrock buffer from lazy input
+        final byte[] bedrock;
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(); TagOutput<Object> output = TagOutput.of(new ReverseDataOutputStream(out))) {
+            output.writeAny(map);
+            bedrock = out.toByteArray();
+        }
+        final Map<String, Object> bedrockMap = read(ReverseDataInputStream::new, LAZY, bedrock);
+        final ByteBuffer buffer = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+        TagBuffer.of(buffer).putAnyTag(bedrockMap);
+        assertArrayEquals(bedrock, bytes(buffer));
+    }
+
+    @Test
+    public void testRawWrite() throws IOException {
+        final Map<String, Object> source = new HashMap<>(TagObjects.MAP);
+        source.put("large", new long[4096]);
+        final byte[] bytes = write(DataOutputStream::new, false, source);
+        final Map<String, Object> map = read(DataInputStream::new, LAZY, bytes);
+
+        // Heap-backed raw bytes must be written at once, without a scratch copy
+        final int[] largest = new int[1];
+        final ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                largest[0] = Math.max(largest[0], len);
+                super.write(b, off, len);
+            }
+        };
+        try (TagOutput<Object> output = TagOutput.of(new DataOutputStream(out))) {
+            output.writeAny(map);
+        }
+        assertArrayEquals(bytes, out.toByteArray());
+        assertTrue(largest[0] > 4096 * Long.BYTES);
+
+        // Unmodified entries from modified compound
+        map.put("string", "modified");
+        largest[0] = 0;
+        out.reset();
+        try (TagOutput<Object> output = TagOutput.of(new DataOutputStream(out))) {
+            output.writeAny(map);
+        }
+        assertTrue(largest[0] > 4096 * Long.BYTES);
+        source.put("string", "modified");
+        assertTagEquals(source, read(DataInputStream::new, LAZY, out.toByteArray()));
+    }
+}
@@ -1,8 +1,20 @@
 package com.saicone.nbt;
 
+import com.saicone.nbt.io.TagInput;
+import com.saicone.nbt.io.TagOutput;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 public class TagObjects {
 
@@ -25,4 +37,21 @@ public class TagObjects {
         MAP.put("int array", new int[] { 1, 2, 3, 4 });
         MAP.put("long array", new long[] { 1, 2, 3, 4 });
     }
+
+    protected static byte[] write(Function<OutputStream, DataOutput> function, boolean unnamed, Object object) throws IOException {
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(); TagOutput<Object> output = TagOutput.of(function.apply(out))) {
+            if (unnamed) {
+                output.writeUnnamed(object);
+            } else {
+                output.writeAny(object);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    protected static <A> A read(Function<InputStream, DataInput> function, UnaryOperator<TagInput<Object>> options, byte[] bytes) throws IOException {
+        try (TagInput<Object> input = options.apply(TagInput.of(function.apply(new ByteArrayInputStream(bytes))))) {
+            return input.readAny();
+        }
+    }
 }
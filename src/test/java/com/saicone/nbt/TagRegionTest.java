@@ -0,0 +1,275 @@
+package com.saicone.nbt;
+
+import com.saicone.nbt.io.TagOutput;
+import com.saicone.nbt.region.RegionReader;
+import com.saicone.nbt.region.RegionScanner;
+import com.saicone.nbt.region.RegionWriter;
+import com.saicone.nbt.util.zip.ZipFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.saicone.nbt.TagAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TagRegionTest {
+
+    private static Map<String, Object> chunk(int x, int z) {
+        final Map<String, Object> map = new HashMap<>(TagObjects.MAP);
+        map.put("xPos", x);
+        map.put("zPos", z);
+        return map;
+    }
+
+    private static byte[] compress(Map<String, Object> map, ZipFormat format) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream zip = format.newOutputStream(out); TagOutput<Object> output = TagOutput.of(new DataOutputStream(zip))) {
+            output.writeUnnamed(map);
+        }
+        return out.toByteArray();
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> stream = Files.walk(dir)) {
+            stream.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    // Write region file by hand, chunk [0, 0] with zlib, [1, 0] with gzip, [0, 1] uncompressed and [5, 5] as external
+    private static Path region(Path dir) throws IOException {
+        final ByteBuffer file = ByteBuffer.allocate(RegionReader.HEADER_SIZE + RegionReader.SECTOR_SIZE * 8);
+        int sector = 2;
+        final int[][] chunks = { { 0, 0, RegionReader.ZLIB }, { 1, 0, RegionReader.GZIP }, { 0, 1, RegionReader.NONE } };
+        for (int[] chunk : chunks) {
+            final byte[] data = compress(chunk(32 + chunk[0], -32 + chunk[1]), RegionReader.getFormat(chunk[2]));
+            final int sectors = (data.length + 5 + RegionReader.SECTOR_SIZE - 1) / RegionReader.SECTOR_SIZE;
+            file.putInt(RegionReader.index(chunk[0], chunk[1]) * 4, sector << 8 | sectors);
+            file.putInt(RegionReader.SECTOR_SIZE + RegionReader.index(chunk[0], chunk[1]) * 4, 1000 + chunk[0]);
+            file.position(sector * RegionReader.SECTOR_SIZE);
+            file.putInt(data.length + 1).put((byte) chunk[2]).put(data);
+            sector += sectors;
+        }
+        file.putInt(RegionReader.index(5, 5) * 4, sector << 8 | 1);
+        file.position(sector * RegionReader.SECTOR_SIZE);
+        file.putInt(1).put((byte) (RegionReader.ZLIB | RegionReader.EXTERNAL));
+        Files.write(dir.resolve("c.37.-27.mcc"), compress(chunk(37, -27), ZipFormat.zlib()));
+
+        final Path path = dir.resolve("r.1.-1.mca");
+        Files.write(path, file.array());
+        return path;
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        final Path dir = Files.createTempDirectory("region");
+        try (RegionReader reader = RegionReader.of(region(dir))) {
+            assertEquals(1, reader.getRegionX());
+            assertEquals(-1, reader.getRegionZ());
+            assertEquals(4, reader.getChunkCount());
+            assertEquals(1001, reader.getTimestamp(1, 0));
+            assertFalse(reader.hasChunk(2, 2));
+            assertNull(reader.readChunk(2, 2));
+
+            assertTagEquals(chunk(32, -32), reader.readChunk(0, 0));
+            assertTagEquals(chunk(33, -32), reader.readChunk(33, -32));
+            assertTagEquals(chunk(32, -31), reader.readChunk(0, 1));
+            assertEquals(RegionReader.ZLIB | RegionReader.EXTERNAL, reader.getCompression(5, 5));
+            assertTagEquals(chunk(37, -27), reader.readChunk(5, 5));
+
+            assertEquals(Map.of("xPos", 33), reader.readChunk(1, 0, TagMapper.DEFAULT, TagSelector.of("xPos")));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testWrite() throws IOException {
+        final Path dir = Files.createTempDirectory("region");
+        try {
+            final Path path = region(dir);
+            final Map<String, Object> big = chunk(0, 0);
+            final byte[] noise = new byte[2 * 1024 * 1024];
+            new Random(42).nextBytes(noise);
+            big.put("noise", noise);
+
+            try (RegionWriter writer = RegionWriter.of(path)) {
+                assertTrue(writer.hasChunk(1, 0));
+                writer.writeChunk(2, 2, chunk(34, -30));
+                writer.compression(RegionReader.GZIP).writeChunk(0, 0, big);
+                writer.deleteChunk(0, 1);
+                writer.deleteChunk(5, 5);
+                assertFalse(writer.hasChunk(0, 1));
+            }
+            assertFalse(Files.exists(dir.resolve("c.37.-27.mcc")));
+            assertTrue(Files.exists(dir.resolve("c.32.-32.mcc")));
+
+            try (RegionReader reader = RegionReader.of(path)) {
+                assertEquals(3, reader.getChunkCount());
+                assertTagEquals(chunk(34, -30), reader.readChunk(2, 2));
+                assertTagEquals(chunk(33, -32), reader.readChunk(1, 0));
+                assertTagEquals(big, reader.readChunk(0, 0));
+                assertNull(reader.readChunk(0, 1));
+            }
+
+            try (RegionWriter writer = RegionWriter.of(path)) {
+                // Replace external chunk with a small one, reusing freed sectors
+                final int used = writer.getUsedSectors();
+                writer.writeChunk(0, 0, chunk(32, -32));
+                assertEquals(used, writer.getUsedSectors());
+            }
+            assertFalse(Files.exists(dir.resolve("c.32.-32.mcc")));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testOverlap() throws IOException {
+        final Path dir = Files.createTempDirectory("region");
+        try {
+            final Path path = region(dir);
+            // Chunk [3, 3] points at the same sectors as chunk [0, 0]
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                final ByteBuffer location = ByteBuffer.allocate(Integer.BYTES);
+                channel.read(location, RegionReader.index(0, 0) * 4L);
+                channel.write(location.flip(), RegionReader.index(3, 3) * 4L);
+            }
+            try (RegionWriter writer = RegionWriter.of(path)) {
+                assertTrue(writer.hasChunk(0, 0));
+                assertFalse(writer.hasChunk(3, 3));
+                writer.deleteChunk(0, 0);
+                writer.writeChunk(4, 4, chunk(36, -28));
+            }
+            try (RegionReader reader = RegionReader.of(path)) {
+                assertEquals(0, reader.getLocation(3, 3));
+                assertNull(reader.readChunk(3, 3));
+                assertNull(reader.readChunk(0, 0));
+                assertTagEquals(chunk(36, -28), reader.readChunk(4, 4));
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testLz4() throws IOException {
+        final Path dir = Files.createTempDirectory("region");
+        try {
+            final Path path = region(dir);
+            try (RegionWriter writer = RegionWriter.of(path)) {
+                writer.compression(RegionReader.LZ4).writeChunk(3, 3, chunk(35, -29));
+            }
+            try (RegionReader reader = RegionReader.of(path)) {
+                assertEquals(RegionReader.LZ4, reader.getCompression(3, 3));
+                // Region files use lz4 block streams, like vanilla
+                final ByteBuffer data = reader.getChunkData(3, 3);
+                final byte[] magic = new byte[ZipFormat.Lz4Block.MAGIC.length];
+                data.get(magic);
+                assertArrayEquals(ZipFormat.Lz4Block.MAGIC, magic);
+                assertTagEquals(chunk(35, -29), reader.readChunk(3, 3));
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testCompact() throws IOException {
+        final Path dir = Files.createTempDirectory("region");
+        try {
+            final Path path = region(dir);
+            try (RegionWriter writer = RegionWriter.of(path)) {
+                writer.deleteChunk(0, 0);
+                writer.deleteChunk(1, 0);
+            }
+            final long size = Files.size(path);
+            final long freed = RegionWriter.compact(path);
+            assertTrue(freed > 0);
+            assertEquals(size - freed, Files.size(path));
+
+            try (RegionReader reader = RegionReader.of(path)) {
+                assertEquals(2, reader.getChunkCount());
+                assertEquals(2, reader.getSectorOffset(0, 1));
+                assertTagEquals(chunk(32, -31), reader.readChunk(0, 1));
+                assertTagEquals(chunk(37, -27), reader.readChunk(5, 5));
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testScan() throws IOException {
+        final Path dir = Files.createTempDirectory("region");
+        try {
+            region(dir);
+            try (RegionWriter writer = RegionWriter.of(dir.resolve("r.0.0.mca"))) {
+                for (int x = 0; x < 32; x++) {
+                    for (int z = 0; z < 32; z += 4) {
+                        writer.writeChunk(x, z, chunk(x, z));
+                    }
+                }
+            }
+            Files.createFile(dir.resolve("r.2.2.mca"));
+
+            final RegionScanner<Object> scanner = RegionScanner.of(dir).pool(new ForkJoinPool(4));
+            assertEquals(3, scanner.getRegions().size());
+            assertEquals(4 + 32 * 8, (long) scanner.scan((x, z, chunk) -> chunk, Collectors.counting()));
+
+            final List<Integer> positions = scanner.select(TagSelector.of("xPos")).scan((x, z, chunk) -> {
+                final Map<String, Object> map = (Map<String, Object>) chunk;
+                assertEquals(1, map.size());
+                return x == (int) map.get("xPos") ? x : null;
+            }, Collectors.toList());
+            assertEquals(4 + 32 * 8, positions.size());
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testScanErrors() throws IOException {
+        final Path dir = Files.createTempDirectory("region");
+        try {
+            final Path path = region(dir);
+            final int gzip;
+            final int none;
+            try (RegionReader reader = RegionReader.of(path)) {
+                gzip = reader.getSectorOffset(1, 0);
+                none = reader.getSectorOffset(0, 1);
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // Corrupt gzip data and invalid chunk length
+                channel.write(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }), (long) gzip * RegionReader.SECTOR_SIZE + 5);
+                channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, Integer.MAX_VALUE), (long) none * RegionReader.SECTOR_SIZE);
+            }
+
+            final RegionScanner<Object> scanner = RegionScanner.of(dir).pool(new ForkJoinPool(2));
+            assertThrows(Exception.class, () -> scanner.scan((x, z, chunk) -> chunk, Collectors.counting()));
+
+            final List<String> errors = new CopyOnWriteArrayList<>();
+            scanner.onError((region, x, z, error) -> errors.add(x + "," + z));
+            assertEquals(2, (long) scanner.scan((x, z, chunk) -> chunk, Collectors.counting()));
+            assertEquals(List.of("32,-31", "33,-32"), errors.stream().sorted().collect(Collectors.toList()));
+        } finally {
+            delete(dir);
+        }
+    }
+}
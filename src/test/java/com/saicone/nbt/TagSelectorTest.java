@@ -0,0 +1,68 @@
+package com.saicone.nbt;
+
+import com.saicone.nbt.io.NetworkDataOutputStream;
+import com.saicone.nbt.io.TagInput;
+import com.saicone.nbt.io.TagOutput;
+import com.saicone.nbt.nio.NetworkTagBuffer;
+import com.saicone.nbt.nio.TagBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Map;
+
+import static com.saicone.nbt.TagAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TagSelectorTest {
+
+    private static final TagSelector SELECTOR = TagSelector.of("int", "compound list[].number", "compound.test");
+    private static final Map<String, Object> EXPECTED = Map.of(
+            "int", 3,
+            "compound list", List.of(Map.of(), Map.of("number", 1234), Map.of()),
+            "compound", Map.of("test", Map.of("list", List.of((short) 1234)))
+    );
+
+    @Test
+    public void testInput() throws IOException {
+        final byte[] bytes;
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(); TagOutput<Object> output = TagOutput.of(new DataOutputStream(out))) {
+            output.writeUnnamed(TagObjects.MAP);
+            bytes = out.toByteArray();
+        }
+        final Map<String, Object> map;
+        try (TagInput<Object> input = TagInput.of(new DataInputStream(new ByteArrayInputStream(bytes))).select(SELECTOR)) {
+            map = input.readUnnamed();
+        }
+        assertTagEquals(EXPECTED, map);
+    }
+
+    @Test
+    public void testBuffer() {
+        final ByteBuffer buffer = ByteBuffer.allocate(1024);
+        TagBuffer.of(buffer).putUnnamedTag(TagObjects.MAP);
+        buffer.flip();
+        final Map<String, Object> map = TagBuffer.of(buffer).select(SELECTOR).getUnnamedTag();
+        assertTagEquals(EXPECTED, map);
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void testNetworkBuffer() throws IOException {
+        final byte[] bytes;
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(); TagOutput<Object> output = TagOutput.of(new NetworkDataOutputStream(out))) {
+            output.writeAny(TagObjects.MAP);
+            bytes = out.toByteArray();
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        final Map<String, Object> map = NetworkTagBuffer.of(buffer).order(ByteOrder.LITTLE_ENDIAN).select(SELECTOR).getAnyTag();
+        assertTagEquals(EXPECTED, map);
+        assertFalse(buffer.hasRemaining());
+    }
+}
@@ -0,0 +1,56 @@
+package com.saicone.nbt;
+
+import com.saicone.nbt.io.NetworkDataInputStream;
+import com.saicone.nbt.io.NetworkDataOutputStream;
+import com.saicone.nbt.io.ReverseDataOutputStream;
+import com.saicone.nbt.io.TagEncoding;
+import com.saicone.nbt.io.TagInput;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.saicone.nbt.TagObjects.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TagSizeTest {
+
+    private static Map<String, Object> map() {
+        final Map<String, Object> map = new HashMap<>(TagObjects.MAP);
+        map.put("text", "null \0 ñandú 😀 ࠀ");
+        map.put("numbers", new int[] { 0, -1, 63, -64, 64, Integer.MAX_VALUE, Integer.MIN_VALUE });
+        map.put("big numbers", new long[] { 0, -1, 1L << 40, Long.MAX_VALUE, Long.MIN_VALUE });
+        map.put("compound list", List.of(Map.of("int", 300000, "long", -5000000000L)));
+        map.put("empty list", List.of());
+        return map;
+    }
+
+    @Test
+    public void testSize() throws IOException {
+        final Map<String, Object> map = map();
+        assertEquals(write(DataOutputStream::new, false, map).length, TagEncoding.JAVA.sizeOfAny(map, TagMapper.DEFAULT));
+        assertEquals(write(DataOutputStream::new, true, map).length, TagEncoding.JAVA.sizeOfUnnamed(map, TagMapper.DEFAULT));
+        assertEquals(write(ReverseDataOutputStream::new, false, map).length, TagEncoding.BEDROCK.sizeOfAny(map, TagMapper.DEFAULT));
+        assertEquals(write(ReverseDataOutputStream::new, true, map).length, TagEncoding.BEDROCK.sizeOfUnnamed(map, TagMapper.DEFAULT));
+        assertEquals(write(NetworkDataOutputStream::new, false, map).length, TagEncoding.NETWORK.sizeOfAny(map, TagMapper.DEFAULT));
+        assertEquals(1, TagEncoding.JAVA.sizeOfUnnamed(null, TagMapper.DEFAULT));
+    }
+
+    @Test
+    public void testViews() throws IOException {
+        final Map<String, Object> map = map();
+        final byte[] bytes = write(NetworkDataOutputStream::new, false, map);
+        try (TagInput<Object> input = TagInput.of(new NetworkDataInputStream(new ByteArrayInputStream(bytes))).lazy(true)) {
+            final Object lazy = input.readAny();
+            assertEquals(bytes.length, TagEncoding.NETWORK.sizeOfAny(lazy, TagMapper.DEFAULT));
+        }
+        try (TagInput<Object> input = TagInput.of(new NetworkDataInputStream(new ByteArrayInputStream(bytes))).compact(true)) {
+            final Object compact = input.readAny();
+            assertEquals(bytes.length, TagEncoding.NETWORK.sizeOfAny(compact, TagMapper.DEFAULT));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.saicone.nbt;
+
+import com.saicone.nbt.io.NetworkDataInputStream;
+import com.saicone.nbt.io.NetworkDataOutputStream;
+import com.saicone.nbt.io.TagInput;
+import com.saicone.nbt.io.TagOutput;
+import com.saicone.nbt.io.TagStreamReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.saicone.nbt.TagAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TagStreamTest {
+
+    private static byte[] unnamed(Object object) throws IOException {
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(); TagOutput<Object> output = TagOutput.of(new DataOutputStream(out))) {
+            output.writeUnnamed(object);
+            return out.toByteArray();
+        }
+    }
+
+    private static Object read(TagStreamReader<Object> reader, TagStreamReader.Event event) throws IOException {
+        switch (event) {
+            case START_COMPOUND:
+                final Map<String, Object> map = new HashMap<>();
+                while (reader.next() != TagStreamReader.Event.END) {
+                    final String name = reader.getName();
+                    map.put(name, read(reader, reader.next()));
+                }
+                return map;
+            case START_LIST:
+                final List<Object> list = new ArrayList<>();
+                TagStreamReader.Event next;
+                while ((next = reader.next()) != TagStreamReader.Event.END) {
+                    list.add(read(reader, next));
+                }
+                return list;
+            case VALUE:
+                switch (reader.getType().id()) {
+                    case Tag.STRING:
+                        return reader.getString();
+                    case Tag.BYTE_ARRAY:
+                        return reader.getByteArray();
+                    case Tag.INT_ARRAY:
+                        return reader.getIntArray();
+                    case Tag.LONG_ARRAY:
+                        return reader.getLongArray();
+                    default:
+                        return reader.getNumber();
+                }
+            default:
+                throw new IllegalStateException("Unexpected event: " + event);
+        }
+    }
+
+    @Test
+    public void testEvents() throws IOException {
+        final byte[] bytes = unnamed(TagObjects.MAP);
+        try (TagStreamReader<Object> reader = TagStreamReader.of(new DataInputStream(new ByteArrayInputStream(bytes)))) {
+            final Object map = read(reader, reader.next());
+            assertFalse(reader.hasNext());
+            assertTagEquals(TagObjects.MAP, map);
+        }
+    }
+
+    @Test
+    public void testSkip() throws IOException {
+        final byte[] bytes = unnamed(TagObjects.MAP);
+        try (TagStreamReader<Object> reader = TagStreamReader.of(new DataInputStream(new ByteArrayInputStream(bytes)))) {
+            assertEquals(TagStreamReader.Event.START_COMPOUND, reader.next());
+            final Map<String, Object> map = new HashMap<>();
+            while (reader.next() == TagStreamReader.Event.NAME) {
+                final String name = reader.getName();
+                if (name.equals("compound") || name.equals("long array")) {
+                    map.put(name, reader.readTag());
+                } else if (name.equals("integer list")) {
+                    assertEquals(TagStreamReader.Event.START_LIST, reader.next());
+                    assertEquals(4, reader.getSize());
+                    reader.skip();
+                } else {
+                    reader.skip();
+                }
+            }
+            assertFalse(reader.hasNext());
+            assertEquals(2, map.size());
+            assertTagEquals(TagObjects.MAP.get("compound"), map.get("compound"));
+            assertTagEquals(TagObjects.MAP.get("long array"), map.get("long array"));
+        }
+    }
+
+    @Test
+    public void testSkipNetwork() throws IOException {
+        final byte[] bytes;
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(); TagOutput<Object> output = TagOutput.of(new NetworkDataOutputStream(out))) {
+            output.writeAny(TagObjects.MAP);
+            output.writeAny("end");
+            bytes = out.toByteArray();
+        }
+        try (TagInput<Object> input = TagInput.of(new NetworkDataInputStream(new ByteArrayInputStream(bytes)))) {
+            assertEquals(Tag.COMPOUND, input.getInput().readByte());
+            input.skipTag(TagType.COMPOUND);
+            assertEquals("end", input.readAny());
+        }
+    }
+}
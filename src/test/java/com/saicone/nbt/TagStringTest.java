@@ -1,11 +1,24 @@
 package com.saicone.nbt;
 
+import com.saicone.nbt.io.AsyncStringWriter;
+import com.saicone.nbt.io.CharBufferWriter;
 import com.saicone.nbt.io.TagReader;
 import com.saicone.nbt.io.TagWriter;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.saicone.nbt.TagAssertions.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,6 +35,80 @@ public class TagStringTest {
         assertEquals(SNBT_WRITE, snbt);
     }
 
+    @Test
+    public void testWriteBuffer() throws IOException {
+        final Map<String, Object> map = Map.of(
+                "numbers", new long[] { Long.MIN_VALUE, -1L, 0L, Long.MAX_VALUE },
+                "ints", new int[] { Integer.MIN_VALUE, -10, 0, Integer.MAX_VALUE },
+                "bytes", new byte[] { Byte.MIN_VALUE, 0, Byte.MAX_VALUE },
+                "values", List.of((byte) -1, (short) -300, Long.MIN_VALUE, -0.5f, 1e300),
+                "text", "say \"h\u00e9llo\" \u2603 \ud83d\ude00 \"",
+                "map", TagObjects.MAP
+        );
+        final AsyncStringWriter expected = new AsyncStringWriter();
+        TagWriter.of(expected).writeTag(map);
+
+        final CharBufferWriter buffer = new CharBufferWriter(20);
+        TagWriter.of(buffer).writeTag(map);
+        assertEquals(expected.toString(), buffer.toString());
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        buffer.writeTo(bytes);
+        assertArrayEquals(expected.toString().getBytes(StandardCharsets.UTF_8), bytes.toByteArray());
+
+        // Minimum buffer size to flush many times, including surrogate pairs split between buffers
+        for (int size = 20; size < 24; size++) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (TagWriter<Object> writer = TagWriter.of(new CharBufferWriter(out, size), TagMapper.DEFAULT)) {
+                writer.writeTag(map);
+            }
+            assertArrayEquals(expected.toString().getBytes(StandardCharsets.UTF_8), out.toByteArray());
+        }
+
+        buffer.reset();
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        final TagReader<Object> reader = TagReader.of("{a:1}");
+        assertTagEquals(Map.of("a", 1), reader.readTag());
+        assertTagEquals(TagObjects.MAP, reader.reset(SNBT_READ).readTag());
+        assertTagEquals(List.of((byte) 1, (byte) 2), reader.reset(new StringBuilder("[1b,2b]")).readTag());
+
+        final StringWriter first = new StringWriter();
+        final TagWriter<Object> writer = TagWriter.of(first);
+        writer.writeTag(Map.of("a", 1));
+        final CharBufferWriter second = new CharBufferWriter();
+        writer.reset(second).writeTag(TagObjects.MAP);
+        assertEquals("{a:1}", first.toString());
+        assertEquals(SNBT_WRITE, second.toString());
+
+        // Pooled static helpers shared between threads
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                final int n = i;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 200; j++) {
+                        final Map<String, Object> map = Map.of("n", n, "j", (long) j, "map", TagObjects.MAP);
+                        if (!Objects.equals(map.get("n"), TagReader.<Map<String, Object>>fromString(TagWriter.toString(map)).get("n"))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(SNBT_WRITE, TagWriter.toString(TagObjects.MAP));
+    }
+
     @Test
     public void testRead() {
         final Map<String, Object> map = TagReader.fromString(SNBT_READ);
@@ -44,4 +131,95 @@ public class TagStringTest {
         System.out.println(actual);
         assertTagEquals(expected, actual);
     }
+
+    @Test
+    public void testReadWindow() throws IOException {
+        // Reader that only provides a single character on every call, to refill on every read
+        final Reader slow = new StringReader(SNBT_READ) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(1, len));
+            }
+        };
+        try (TagReader<Object> reader = TagReader.of(slow)) {
+            assertTagEquals(TagObjects.MAP, reader.readTag());
+        }
+
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 5000; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append("{id:\"minecraft:stone_").append(i).append("\",Count:").append(i % 64).append("b,tag:{Name:'Item \\'").append(i).append("\\''}}");
+        }
+        builder.append("]");
+        final List<Object> expected = TagReader.fromString(builder.toString());
+        assertEquals(5000, expected.size());
+        assertEquals("Item '7'", ((Map<?, ?>) ((Map<?, ?>) expected.get(7)).get("tag")).get("Name"));
+        try (TagReader<Object> reader = TagReader.of(new StringReader(builder.toString()))) {
+            assertTagEquals(expected, reader.readTag());
+        }
+    }
+
+    private static final String[] NUMBERS = new String[] {
+            "1", "-1", "+7", "007", "127b", "128b", "-128b", "255ub", "300ub", "-1ub", "1s", "1ss", "7us", "32767s",
+            "2147483647", "2147483648", "4294967295ui", "-5", "5l", "-9223372036854775808L", "9223372036854775807l",
+            "1.5", "-0.0", ".5", "5.", "1.5f", "0.1f", "-0.3f", "123456.789f", "16777217.0f", "9007199254740993.0",
+            "1.0e10", "1.0E-5d", "1.5e5f", "1.0e400", "1e5", "1f", "1d", "1.5b", "1.5u", "5u", "5uu", "-", ".", "1.0e",
+            "1_000", "1_000.5", "1__0", "1_s", "0x1F", "0x7Fb", "0xFFb", "0xFFub", "0b1010", "0b1010s", "0x1f", "0x1d",
+            "0xFFFFFFFF", "0xFFFFFFFFui", "0x1", "0b", "0bb", "-0x10", "12345678901234567890.5", "0.000000000000000000000000001",
+            "65535us", "65536us", "-0ub", "4294967296ui", "0x1FFub", "0x100us", "0x1FFFFus", "-5ul", "0x5ul"
+    };
+
+    private static Object readNumber(String s, int version, boolean fast) {
+        try (TagReader<Object> reader = new TagReader<>(s, TagMapper.DEFAULT) {
+            @Override
+            protected <A> A readNumber(char[] chars, int start, int end) {
+                return fast ? super.readNumber(chars, start, end) : null;
+            }
+        }) {
+            return reader.version(version).readTag();
+        } catch (Throwable t) {
+            return t.getClass();
+        }
+    }
+
+    @Test
+    public void testReadNumber() {
+        for (int version : new int[] { TagReader.LATEST, TagReader.V1_14 }) {
+            for (String number : NUMBERS) {
+                final Object expected = readNumber(number, version, false);
+                final Object actual = readNumber(number, version, true);
+                assertTrue(Objects.equals(expected, actual), "Number " + number + " on version " + version + ": expected " + expected + " but got " + actual);
+            }
+        }
+        assertEquals(1000, (Object) TagReader.fromString("1_000"));
+        assertEquals((byte) 0x7F, (Object) TagReader.fromString("0x7Fb"));
+        assertEquals(1.0e10, (Object) TagReader.fromString("1.0e10"));
+
+        // Unsigned values out of range
+        assertEquals((byte) -1, (Object) TagReader.fromString("255ub"));
+        assertEquals((short) -1, (Object) TagReader.fromString("0xFFFFus"));
+        for (String number : new String[] { "300ub", "256ub", "0x1FFub", "-5ub", "65536us", "-1us", "4294967296ui", "-1ui", "0x1FFFFFFFFui" }) {
+            assertThrows(NumberFormatException.class, () -> TagReader.fromString(number));
+        }
+        assertEquals("-5ul", TagReader.fromString("-5ul"));
+    }
+
+    @Test
+    public void testReadNumberArray() {
+        assertArrayEquals(new byte[] { 1, -128, 127, 1, 0 }, TagReader.fromString("[B; 1b, -128B, +127, true, false]"));
+        assertArrayEquals(new int[] { Integer.MIN_VALUE, 0, Integer.MAX_VALUE }, TagReader.fromString("[I;-2147483648,0 ,2147483647]"));
+        assertArrayEquals(new long[] { Long.MIN_VALUE, Long.MAX_VALUE, 5 }, TagReader.fromString("[L; -9223372036854775808L, 9223372036854775807l, 5]"));
+        assertThrows(NumberFormatException.class, () -> TagReader.fromString("[B; 128]"));
+        assertThrows(NumberFormatException.class, () -> TagReader.fromString("[L; 9223372036854775808]"));
+
+        final StringBuilder builder = new StringBuilder("[I;");
+        final int[] expected = new int[20000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (i * 7919) - 50000;
+            builder.append(i > 0 ? ", " : "").append(expected[i]);
+        }
+        assertArrayEquals(expected, TagReader.fromString(builder.append(']').toString()));
+    }
 }
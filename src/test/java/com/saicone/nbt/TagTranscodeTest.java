@@ -0,0 +1,112 @@
+package com.saicone.nbt;
+
+import com.saicone.nbt.io.NetworkDataOutputStream;
+import com.saicone.nbt.io.ReverseDataOutputStream;
+import com.saicone.nbt.io.TagInput;
+import com.saicone.nbt.io.TagOutput;
+import com.saicone.nbt.io.TagReader;
+import com.saicone.nbt.io.TagTranscoder;
+import com.saicone.nbt.io.TagWriter;
+import com.saicone.nbt.nio.BufferPool;
+import com.saicone.nbt.nio.NetworkTagBuffer;
+import com.saicone.nbt.nio.TagBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static com.saicone.nbt.TagAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TagTranscodeTest {
+
+    private static final String SNBT = "{empty:[],'empty array':[I;],mixed:[1, {a:2}, \"3\"],nested:[[1b,2b],[],[[L;1L]]],list:[{a:1},{b:[{c:\"d\"}]}]}";
+
+    @Test
+    public void testToBinary() throws IOException {
+        for (String snbt : new String[] { TagWriter.toString(TagObjects.MAP), SNBT }) {
+            final Object expected = TagReader.fromString(snbt);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            TagTranscoder.toBinary(snbt, new DataOutputStream(out));
+            try (TagInput<Object> input = TagInput.of(new DataInputStream(new ByteArrayInputStream(out.toByteArray())))) {
+                assertTagEquals(expected, input.readUnnamed());
+            }
+        }
+
+        final Map<String, Object> map = TagReader.fromString(SNBT);
+        assertTagEquals(List.of(), map.get("empty"));
+        assertArrayEquals(new int[0], (int[]) map.get("empty array"));
+        assertTagEquals(List.of(Map.of("", 1), Map.of("a", 2), Map.of("", "3")), readJava(SNBT).get("mixed"));
+    }
+
+    private static Map<String, Object> readJava(String snbt) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TagTranscoder.toBinary(snbt, new DataOutputStream(out));
+        try (TagInput<Object> input = TagInput.of(new DataInputStream(new ByteArrayInputStream(out.toByteArray())))) {
+            return input.readUnnamed();
+        }
+    }
+
+    @Test
+    public void testEncodings() throws IOException {
+        final String snbt = TagWriter.toString(TagObjects.MAP);
+        for (int i = 0; i < 2; i++) {
+            final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            try (TagOutput<Object> output = TagOutput.of(i == 0 ? new ReverseDataOutputStream(expected) : new NetworkDataOutputStream(expected))) {
+                output.writeUnnamed(TagObjects.MAP);
+            }
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            TagTranscoder.toBinary(snbt, i == 0 ? new ReverseDataOutputStream(out) : new NetworkDataOutputStream(out));
+            assertArrayEquals(expected.toByteArray(), out.toByteArray());
+        }
+
+        final TagBuffer<Object> buffer = TagBuffer.growable(BufferPool.heap(2));
+        TagTranscoder.toBinary(TagReader.of(snbt), buffer);
+        assertTagEquals(TagObjects.MAP, TagBuffer.of(buffer.buffer().flip()).getUnnamedTag());
+        buffer.release();
+
+        final TagBuffer<Object> network = NetworkTagBuffer.growable(BufferPool.heap(2));
+        TagTranscoder.toBinary(TagReader.of(snbt), network);
+        assertTagEquals(TagObjects.MAP, NetworkTagBuffer.of(network.buffer().flip()).getUnnamedTag());
+        network.release();
+    }
+
+    @Test
+    public void testEmptyName() throws IOException {
+        assertTagEquals(Map.of("", 1), readJava("{\"\":1}"));
+        assertTagEquals(Map.of("", 1), readJava("{:1}"));
+        assertTagEquals(Map.of("a", List.of(Map.of("", 1), Map.of("", 5))), readJava("{a:[1,{\"\":5}]}"));
+
+        // Wrapped mixed lists must survive a full round trip
+        final String snbt = "{list:[1,\"a\",{b:2}]}";
+        final Map<String, Object> expected = readJava(snbt);
+        assertTagEquals(List.of(Map.of("", 1), Map.of("", "a"), Map.of("b", 2)), expected.get("list"));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TagTranscoder.toBinary(snbt, new DataOutputStream(out));
+        final StringWriter writer = new StringWriter();
+        TagTranscoder.toSnbt(new DataInputStream(new ByteArrayInputStream(out.toByteArray())), writer);
+        assertEquals("{list:[{\"\":1},{\"\":\"a\"},{b:2}]}", writer.toString());
+        assertTagEquals(expected, readJava(writer.toString()));
+        assertTagEquals(expected, TagReader.fromString(writer.toString()));
+    }
+
+    @Test
+    public void testToSnbt() throws IOException {
+        for (Object object : new Object[] { TagObjects.MAP, TagReader.fromString(SNBT), List.of(), 5 }) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (TagOutput<Object> output = TagOutput.of(new DataOutputStream(out))) {
+                output.writeUnnamed(object);
+            }
+            final StringWriter writer = new StringWriter();
+            TagTranscoder.toSnbt(new DataInputStream(new ByteArrayInputStream(out.toByteArray())), writer);
+            assertEquals(TagWriter.toString(object), writer.toString());
+            assertTagEquals(object, TagReader.fromString(writer.toString()));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.saicone.nbt;
+
+import com.saicone.nbt.io.ModifiedUtf8;
+import com.saicone.nbt.io.TagOutput;
+import com.saicone.nbt.nio.NetworkTagBuffer;
+import com.saicone.nbt.nio.TagBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Map;
+
+import static com.saicone.nbt.TagAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TagUtf8Test {
+
+    private static final String[] STRINGS = new String[] {
+            "",
+            "minecraft:diamond_sword",
+            "A long ASCII text that exceeds eight bytes",
+            "null \0 character",
+            "ñandú ÑANDÚ",
+            "emoji 😀 text",
+            "ࠀ￿"
+    };
+
+    private static byte[] writeUTF(String s) throws IOException {
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(); DataOutputStream output = new DataOutputStream(out)) {
+            output.writeUTF(s);
+            final byte[] bytes = out.toByteArray();
+            return Arrays.copyOfRange(bytes, Short.BYTES, bytes.length);
+        }
+    }
+
+    @Test
+    public void testCodec() throws IOException {
+        for (String s : STRINGS) {
+            final byte[] expected = writeUTF(s);
+            assertEquals(expected.length, ModifiedUtf8.encodedLength(s));
+            assertArrayEquals(expected, ModifiedUtf8.encode(s));
+            assertEquals(s, ModifiedUtf8.decode(expected, 0, expected.length));
+        }
+    }
+
+    @Test
+    public void testBuffer() throws IOException {
+        final Map<String, Object> map = Map.of("null\0key", STRINGS[3], "emoji", STRINGS[5], "lore", STRINGS[4]);
+        final byte[] expected;
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(); TagOutput<Object> output = TagOutput.of(new DataOutputStream(out))) {
+            output.writeUnnamed(map);
+            expected = out.toByteArray();
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(1024);
+        TagBuffer.of(buffer).putUnnamedTag(map);
+        assertArrayEquals(expected, Arrays.copyOf(buffer.array(), buffer.position()));
+
+        buffer.flip();
+        assertTagEquals(map, TagBuffer.of(buffer).getUnnamedTag());
+    }
+
+    @Test
+    public void testNetworkBuffer() {
+        // Network Strings are standard UTF-8 even on big-endian buffers
+        final ByteBuffer buffer = ByteBuffer.allocate(1024);
+        assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+        NetworkTagBuffer.of(buffer).putString("a\0😀");
+        assertArrayEquals(new byte[] { 6, 0x61, 0x00, (byte) 0xf0, (byte) 0x9f, (byte) 0x98, (byte) 0x80 }, Arrays.copyOf(buffer.array(), buffer.position()));
+
+        buffer.flip();
+        assertEquals("a\0😀", NetworkTagBuffer.of(buffer).getString());
+
+        final Map<String, Object> map = Map.of("null\0key", STRINGS[3], "emoji", STRINGS[5], "lore", STRINGS[4]);
+        final ByteBuffer big = ByteBuffer.allocate(1024);
+        final ByteBuffer little = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+        NetworkTagBuffer.of(big).putAnyTag(map);
+        NetworkTagBuffer.of(little).putAnyTag(map);
+        assertArrayEquals(Arrays.copyOf(little.array(), little.position()), Arrays.copyOf(big.array(), big.position()));
+        big.flip();
+        assertTagEquals(map, NetworkTagBuffer.of(big).getAnyTag());
+    }
+}
@@ -0,0 +1,211 @@
+package com.saicone.nbt;
+
+import com.saicone.nbt.io.TagInput;
+import com.saicone.nbt.io.TagOutput;
+import com.saicone.nbt.util.zip.ZipFormat;
+import com.saicone.nbt.util.zip.ZipPool;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import static com.saicone.nbt.TagAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TagZipTest {
+
+    private static byte[] data() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TagOutput<Object> output = TagOutput.of(new DataOutputStream(out))) {
+            for (int i = 0; i < 50; i++) {
+                output.writeUnnamed(TagObjects.MAP);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testStreams() throws IOException {
+        final byte[] data = data();
+        for (ZipFormat format : new ZipFormat[] { ZipFormat.zlib(), ZipFormat.gzip() }) {
+            final byte[] compressed = format.compress(data);
+            assertTrue(format.isFormatted(new ByteArrayInputStream(compressed)));
+            assertArrayEquals(data, format.decompress(compressed));
+
+            final ByteBuffer direct = ByteBuffer.allocateDirect(compressed.length).put(compressed).flip();
+            assertArrayEquals(data, format.decompress(direct, data.length));
+            assertEquals(0, direct.position());
+            assertThrows(ZipException.class, () -> format.decompress(direct, data.length - 1));
+
+            try (InputStream input = format.newInputStream(new ByteArrayInputStream(compressed)); TagInput<Object> tagInput = TagInput.of(new DataInputStream(input))) {
+                assertTagEquals(TagObjects.MAP, tagInput.readUnnamed());
+            }
+        }
+
+        // Compatibility with JDK streams
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        assertArrayEquals(data, ZipFormat.gzip().decompress(out.toByteArray()));
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(ZipFormat.gzip().compress(data)))) {
+            assertArrayEquals(data, input.readAllBytes());
+        }
+        try (InputStream input = new InflaterInputStream(new ByteArrayInputStream(ZipFormat.zlib().compress(data)))) {
+            assertArrayEquals(data, input.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testMembers() throws IOException {
+        final byte[] data = data();
+        final byte[] first = ZipFormat.gzip().compress(data);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data, 0, 100);
+        }
+        final byte[] second = out.toByteArray();
+        // Concatenated members followed by trailing zeros
+        final byte[] concatenated = new byte[first.length + second.length + first.length + 4];
+        System.arraycopy(first, 0, concatenated, 0, first.length);
+        System.arraycopy(second, 0, concatenated, first.length, second.length);
+        System.arraycopy(first, 0, concatenated, first.length + second.length, first.length);
+
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(data);
+        expected.write(data, 0, 100);
+        expected.write(data);
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(concatenated))) {
+            assertArrayEquals(expected.toByteArray(), input.readAllBytes());
+        }
+        assertArrayEquals(expected.toByteArray(), ZipFormat.gzip().decompress(concatenated));
+        assertArrayEquals(expected.toByteArray(), ZipFormat.gzip().decompress(ByteBuffer.allocateDirect(concatenated.length).put(concatenated).flip(), -1));
+        // Small buffer to split members between reads
+        final ZipFormat small = ZipFormat.gzip(Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, 7);
+        for (ZipFormat format : new ZipFormat[] { ZipFormat.gzip(), small }) {
+            try (InputStream input = format.newInputStream(new ByteArrayInputStream(concatenated))) {
+                assertArrayEquals(expected.toByteArray(), input.readAllBytes());
+            }
+        }
+    }
+
+    @Test
+    public void testProfiles() throws IOException {
+        final byte[] data = data();
+        final byte[] fast = ZipFormat.Zlib.FAST.compress(data);
+        final byte[] max = ZipFormat.Zlib.MAX.compress(data);
+        assertTrue(max.length <= fast.length);
+        assertEquals((Integer) Deflater.BEST_COMPRESSION, ZipFormat.zlib().getCompressionLevel(new ByteArrayInputStream(max)));
+        assertArrayEquals(data, ZipFormat.zlib().decompress(fast));
+        assertArrayEquals(data, ZipFormat.gzip().decompress(ZipFormat.Gzip.MAX.compress(data)));
+
+        final ZipFormat huffman = ZipFormat.gzip(Deflater.DEFAULT_COMPRESSION, Deflater.HUFFMAN_ONLY, 512);
+        assertArrayEquals(data, huffman.decompress(huffman.compress(data)));
+        assertThrows(IllegalArgumentException.class, () -> ZipFormat.zlib(10, Deflater.DEFAULT_STRATEGY, 512));
+    }
+
+    @Test
+    public void testDeflate() throws IOException, DataFormatException {
+        final byte[] data = data();
+        final byte[] compressed = ZipFormat.deflate().compress(data);
+        assertTrue(ZipFormat.deflate().isFormatted(new ByteArrayInputStream(compressed)));
+        assertArrayEquals(data, ZipFormat.deflate().decompress(compressed));
+        assertArrayEquals(data, ZipFormat.deflate().decompress(ByteBuffer.allocateDirect(compressed.length).put(compressed).flip(), data.length));
+
+        // Compatibility with JDK raw inflater
+        final Inflater inflater = new Inflater(true);
+        inflater.setInput(compressed);
+        final byte[] result = new byte[data.length];
+        assertEquals(data.length, inflater.inflate(result));
+        inflater.end();
+        assertArrayEquals(data, result);
+
+        final byte[] dictionary = "display Name Lore Enchantments id lvl Count tag".getBytes(StandardCharsets.UTF_8);
+        final ZipFormat format = ZipFormat.deflate(Deflater.BEST_COMPRESSION, Deflater.DEFAULT_STRATEGY, 512, dictionary);
+        final byte[] withDictionary = format.compress(data);
+        assertArrayEquals(data, format.decompress(withDictionary));
+        assertArrayEquals(data, format.decompress(ByteBuffer.wrap(withDictionary), data.length));
+        assertThrows(IOException.class, () -> ZipFormat.deflate().decompress(withDictionary));
+    }
+
+    @Test
+    public void testZstd() throws IOException {
+        assertTrue(ZipFormat.zstd().isLoaded());
+        final byte[] data = data();
+        final byte[] compressed = ZipFormat.zstd().compress(data);
+        assertTrue(ZipFormat.zstd().isFormatted(new ByteArrayInputStream(compressed)));
+        assertSame(ZipFormat.zstd(), ZipFormat.of(new ByteArrayInputStream(compressed)));
+        assertArrayEquals(data, ZipFormat.zstd().decompress(compressed));
+        assertArrayEquals(data, ZipFormat.zstd(ZipFormat.Zstd.MAX_LEVEL, null).decompress(ZipFormat.zstd(ZipFormat.Zstd.MAX_LEVEL, null).compress(data)));
+
+        // Single tag as raw content dictionary
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TagOutput<Object> output = TagOutput.of(new DataOutputStream(out))) {
+            output.writeUnnamed(TagObjects.MAP);
+        }
+        final byte[] dictionary = out.toByteArray();
+        final ZipFormat format = ZipFormat.zstd(ZipFormat.Zstd.DEFAULT_LEVEL, dictionary);
+        final byte[] withDictionary = format.compress(data);
+        assertTrue(withDictionary.length < compressed.length);
+        assertArrayEquals(data, format.decompress(withDictionary));
+        assertArrayEquals(data, format.decompress(ByteBuffer.wrap(withDictionary), data.length));
+        assertThrows(IOException.class, () -> ZipFormat.zstd().decompress(withDictionary));
+    }
+
+    @Test
+    public void testMagic() throws IOException {
+        assertTrue(ZipFormat.zstd().isFormatted(new ByteArrayInputStream(new byte[] { 0x28, (byte) 0xB5, 0x2F, (byte) 0xFD, 0 })));
+        assertTrue(ZipFormat.zstd().isFormatted(new ByteArrayInputStream(new byte[] { 0x5E, 0x2A, 0x4D, 0x18 })));
+        assertFalse(ZipFormat.zstd().isFormatted(new ByteArrayInputStream(new byte[] { 0x28, (byte) 0xB5, 0x2F })));
+        assertTrue(ZipFormat.lz4().isFormatted(new ByteArrayInputStream(new byte[] { 0x04, 0x22, 0x4D, 0x18 })));
+        assertFalse(ZipFormat.deflate().isFormatted(new ByteArrayInputStream(new byte[] { 0x07 })));
+
+        final Path path = Files.createTempFile("nbt", ".dat");
+        try {
+            Files.write(path, ZipFormat.gzip().compress(data()));
+            assertTrue(ZipFormat.gzip().isFormatted(path));
+            assertSame(ZipFormat.gzip(), ZipFormat.of(path));
+            Files.write(path, new byte[] { 0x1F });
+            assertSame(ZipFormat.empty(), ZipFormat.of(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testCorrupt() throws IOException {
+        final byte[] compressed = ZipFormat.gzip().compress(data());
+        compressed[compressed.length - 5]++;
+        assertThrows(ZipException.class, () -> ZipFormat.gzip().decompress(compressed));
+        assertThrows(ZipException.class, () -> {
+            try (InputStream input = ZipFormat.gzip().newInputStream(new ByteArrayInputStream(compressed))) {
+                input.readAllBytes();
+            }
+        });
+    }
+
+    @Test
+    public void testPool() {
+        final ZipPool pool = new ZipPool(1);
+        final Inflater inflater = pool.acquireInflater(false);
+        pool.release(inflater, false);
+        assertSame(inflater, pool.acquireInflater(false));
+        assertNotSame(inflater, pool.acquireInflater(true));
+    }
+}